@@ -0,0 +1,358 @@
+package com.github.allure;
+
+import com.github.allure.spill.SpillingResultStore;
+import com.github.allure.utils.MimeTypeDetector;
+import com.github.allure.utils.StringDictionary;
+import com.github.allure.utils.TypedAttachmentVisitor;
+import com.github.allure.utils.ZipAttachmentVisitor;
+import com.github.allure.utils.ZipResults;
+import io.qameta.allure.context.RandomUidContext;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.TestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Results visitor that is safe to share between reader threads. Results are
+ * collected in a lock-free queue. Attachments are created exactly once per
+ * name, so concurrent visits of one file get the same uid. Extras visited
+ * several times under one name are merged: maps are combined and
+ * collections concatenated. Errors are kept in a bounded buffer.
+ * Attachment files with identical content can be stored once, see
+ * {@link #setContentDeduplication(boolean)}.
+ */
+public class ConcurrentResultsVisitor implements ResultsVisitor, TypedAttachmentVisitor, ZipAttachmentVisitor {
+
+    public static final int DEFAULT_ERRORS_LIMIT = 1000;
+
+    private final Configuration configuration;
+
+    private final StringDictionary dictionary;
+
+    private final MimeTypeDetector mimeTypes;
+
+    private final Queue<TestResult> results = new ConcurrentLinkedQueue<>();
+
+    private volatile SpillingResultStore.StoredResults storedResults;
+
+    private final ConcurrentMap<String, Future<Attachment>> attachments = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Future<Attachment>> stored = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Future<Attachment>> byContent = new ConcurrentHashMap<>();
+
+    private final AtomicInteger duplicateCount = new AtomicInteger();
+
+    private final AtomicLong duplicateBytes = new AtomicLong();
+
+    private volatile boolean contentDeduplication;
+
+    private final ConcurrentMap<String, Object> extra = new ConcurrentHashMap<>();
+
+    private final Map<Attachment, Future<String>> pendingTypes = new ConcurrentHashMap<>();
+
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger errorsCount = new AtomicInteger();
+
+    private final int errorsLimit;
+
+    public ConcurrentResultsVisitor(final Configuration configuration) {
+        this(configuration, new MimeTypeDetector(), DEFAULT_ERRORS_LIMIT);
+    }
+
+    public ConcurrentResultsVisitor(final Configuration configuration,
+                                    final MimeTypeDetector mimeTypes,
+                                    final int errorsLimit) {
+        this.configuration = configuration;
+        this.dictionary = StringDictionary.find(configuration).newScope();
+        this.mimeTypes = mimeTypes;
+        this.errorsLimit = errorsLimit;
+    }
+
+    /**
+     * Maps attachment files with identical content to a single stored
+     * payload. Every reference still gets its own attachment with its own
+     * name and type, as readers change them.
+     */
+    public ConcurrentResultsVisitor setContentDeduplication(final boolean contentDeduplication) {
+        this.contentDeduplication = contentDeduplication;
+        return this;
+    }
+
+    /**
+     * Keeps visited results in given store instead of the heap, so that
+     * results of launches larger than the heap are spilled to disk. Must be
+     * set before results are visited.
+     */
+    public ConcurrentResultsVisitor setResultStore(final SpillingResultStore store) {
+        final SpillingResultStore.StoredResults stored = store.asSet();
+        stored.addAll(results);
+        results.clear();
+        this.storedResults = stored;
+        return this;
+    }
+
+    public int getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    public long getDuplicateBytes() {
+        return duplicateBytes.get();
+    }
+
+    @Override
+    public Attachment visitAttachmentFile(final File attachmentFile) {
+        return visitAttachmentFile(attachmentFile, null);
+    }
+
+    /**
+     * Visits the attachment file; a declared type is used instead of
+     * detecting one, see {@link MimeTypeDetector#detect(File, String)}.
+     */
+    @Override
+    public Attachment visitAttachmentFile(final File attachmentFile, final String declaredType) {
+        if (!contentDeduplication) {
+            return visitAttachmentFileByName(attachmentFile, declaredType);
+        }
+        final Attachment same = computeIfAbsent(stored, attachmentFile.getName(), new Callable<Attachment>() {
+            @Override
+            public Attachment call() {
+                final String hash = DefaultResultsVisitor.contentHash(attachmentFile);
+                if (hash == null) {
+                    return visitAttachmentFileByName(attachmentFile, declaredType);
+                }
+                final Attachment attachment = computeIfAbsent(byContent, hash, new Callable<Attachment>() {
+                    @Override
+                    public Attachment call() {
+                        return visitAttachmentFileByName(attachmentFile, declaredType);
+                    }
+                });
+                if (!attachmentFile.getAbsolutePath().equals(attachment.getSource())) {
+                    duplicateCount.incrementAndGet();
+                    duplicateBytes.addAndGet(attachmentFile.length());
+                }
+                return attachment;
+            }
+        });
+        if (attachmentFile.getAbsolutePath().equals(same.getSource())) {
+            return same;
+        }
+        final Attachment reference = new Attachment()
+                .setUid(same.getUid())
+                .setName(attachmentFile.getName())
+                .setSource(same.getSource())
+                .setSize(same.getSize());
+        detectType(reference, attachmentFile, declaredType);
+        return reference;
+    }
+
+    private Attachment visitAttachmentFileByName(final File attachmentFile, final String declaredType) {
+        return computeIfAbsent(attachments, attachmentFile.getName(), new Callable<Attachment>() {
+            @Override
+            public Attachment call() {
+                final Attachment attachment = new Attachment()
+                        .setUid(nextUid())
+                        .setName(attachmentFile.getName())
+                        .setSource(attachmentFile.getAbsolutePath())
+                        .setSize(attachmentFile.length());
+                detectType(attachment, attachmentFile, declaredType);
+                return attachment;
+            }
+        });
+    }
+
+    private void detectType(final Attachment attachment, final File attachmentFile, final String declaredType) {
+        if (mimeTypes.isAsync()) {
+            pendingTypes.put(attachment, mimeTypes.detectAsync(attachmentFile, declaredType));
+        } else {
+            attachment.setType(mimeTypes.detect(attachmentFile, declaredType));
+        }
+    }
+
+    @Override
+    public Attachment visitAttachmentEntry(final ZipFile zipFile, final ZipEntry entry) {
+        final String source = new File(zipFile.getName()).getAbsolutePath() + "!/" + entry.getName();
+        return computeIfAbsent(attachments, source, new Callable<Attachment>() {
+            @Override
+            public Attachment call() {
+                final String name = ZipResults.getFileName(entry);
+                String type;
+                InputStream inputStream = null;
+                try {
+                    inputStream = zipFile.getInputStream(entry);
+                    type = mimeTypes.detect(inputStream, name);
+                } catch (IOException e) {
+                    type = MimeTypeDetector.WILDCARD;
+                } finally {
+                    closeQuietly(inputStream);
+                }
+                return new Attachment()
+                        .setUid(nextUid())
+                        .setName(name)
+                        .setSource(source)
+                        .setType(type)
+                        .setSize(Math.max(0L, entry.getSize()));
+            }
+        });
+    }
+
+    @Override
+    public void visitTestResult(final TestResult result) {
+        dictionary.intern(result);
+        final SpillingResultStore.StoredResults stored = storedResults;
+        if (stored == null) {
+            results.add(result);
+        } else {
+            stored.add(result);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void visitExtra(final String name, final Object object) {
+        while (true) {
+            final Object previous = extra.putIfAbsent(name, object);
+            if (previous == null) {
+                return;
+            }
+            if (extra.replace(name, previous, merge(previous, object))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void error(final String message, final Exception e) {
+        error(e == null ? message : message + ": " + e);
+    }
+
+    @Override
+    public void error(final String message) {
+        if (errorsCount.incrementAndGet() <= errorsLimit) {
+            errors.add(message);
+        }
+    }
+
+    /**
+     * Returns buffered error messages, at most the configured limit.
+     */
+    public List<String> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    /**
+     * Returns the number of reported errors, including ones over the limit.
+     */
+    public int getErrorsCount() {
+        return errorsCount.get();
+    }
+
+    public LaunchResults getLaunchResults() {
+        final Map<String, Attachment> created = new HashMap<>();
+        for (Map.Entry<String, Future<Attachment>> entry : attachments.entrySet()) {
+            created.put(entry.getKey(), get(entry.getValue()));
+        }
+        for (Map.Entry<Attachment, Future<String>> entry : pendingTypes.entrySet()) {
+            if (entry.getKey().getType() == null) {
+                final String type = get(entry.getValue());
+                entry.getKey().setType(type == null ? MimeTypeDetector.WILDCARD : type);
+            }
+        }
+        pendingTypes.clear();
+        if (storedResults != null) {
+            return new DefaultLaunchResults(
+                    storedResults,
+                    Collections.unmodifiableMap(created),
+                    Collections.unmodifiableMap(new HashMap<>(extra))
+            );
+        }
+        return new IndexedLaunchResults(
+                Collections.unmodifiableSet(new HashSet<>(results)),
+                Collections.unmodifiableMap(created),
+                Collections.unmodifiableMap(new HashMap<>(extra))
+        );
+    }
+
+    private static Attachment computeIfAbsent(final ConcurrentMap<String, Future<Attachment>> futures,
+                                              final String key,
+                                              final Callable<Attachment> factory) {
+        Future<Attachment> future = futures.get(key);
+        if (future == null) {
+            final FutureTask<Attachment> task = new FutureTask<>(factory);
+            future = futures.putIfAbsent(key, task);
+            if (future == null) {
+                future = task;
+                task.run();
+            }
+        }
+        return get(future);
+    }
+
+    private String nextUid() {
+        return configuration.getContext(RandomUidContext.class).getValue().get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(final Object previous, final Object next) {
+        if (previous instanceof Map && next instanceof Map) {
+            final Map<Object, Object> merged = new HashMap<>((Map<Object, Object>) previous);
+            merged.putAll((Map<Object, Object>) next);
+            return merged;
+        }
+        if (previous instanceof Collection && next instanceof Collection) {
+            final List<Object> merged = new ArrayList<>((Collection<Object>) previous);
+            merged.addAll((Collection<Object>) next);
+            return merged;
+        }
+        return next;
+    }
+
+    private static <T> T get(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for attachment", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if (inputStream != null) {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.github.allure.summary.SummaryPlugin;
 
 import com.github.allure.tags.TagsPlugin;
 import com.github.allure.timeline.TimelinePlugin;
+import com.github.allure.utils.StringDictionary;
 import io.qameta.allure.Extension;
 
 import io.qameta.allure.context.FreemarkerContext;
@@ -78,6 +79,7 @@ public class ConfigurationBuilder {
                 new MarkdownContext(),
                 new FreemarkerContext(),
                 new RandomUidContext(),
+                new StringDictionary(),
                 new MarkdownDescriptionsPlugin(),
                 new RetryPlugin(),
                 new RetryTrendPlugin(),
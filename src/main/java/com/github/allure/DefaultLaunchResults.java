@@ -15,6 +15,7 @@
  */
 package com.github.allure;
 
+import com.github.allure.spill.SpillingResultStore;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.Attachment;
 import io.qameta.allure.entity.TestResult;
@@ -48,6 +49,9 @@ public class DefaultLaunchResults implements LaunchResults , Serializable {
 
     @Override
     public Set<TestResult> getResults() {
+        if (results instanceof SpillingResultStore.StoredResults) {
+            return ((SpillingResultStore.StoredResults) results).visible();
+        }
         return StreamSupport.stream(getAllResults()).filter(new Predicate<TestResult>() {
             @Override
             public boolean test(TestResult testResult) {
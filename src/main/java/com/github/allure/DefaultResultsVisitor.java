@@ -15,10 +15,15 @@
  */
 package com.github.allure;
 
+import com.github.allure.spill.SpillingResultStore;
 import com.github.allure.utils.AllureUtilsAdv;
+import com.github.allure.utils.MimeTypeDetector;
+import com.github.allure.utils.StringDictionary;
+import com.github.allure.utils.TypedAttachmentVisitor;
+import com.github.allure.utils.ZipAttachmentVisitor;
+import com.github.allure.utils.ZipResults;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.core.ResultsVisitor;
-import org.apache.tika.metadata.Metadata;
 
 import io.qameta.allure.context.RandomUidContext;
 import io.qameta.allure.core.Configuration;
@@ -31,91 +36,212 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
-import java8.util.Optional;
-import java8.util.function.Predicate;
-import java8.util.function.Supplier;
 
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
 import java8.util.function.Function;
 
-import static org.apache.commons.io.FilenameUtils.getExtension;
-import static org.apache.tika.mime.MimeTypes.getDefaultMimeTypes;
 
 
 /**
  * @author charlie (Dmitry Baev).
  */
 @SuppressWarnings("MultipleStringLiterals")
-public class DefaultResultsVisitor implements ResultsVisitor {
+public class DefaultResultsVisitor implements ResultsVisitor, TypedAttachmentVisitor, ZipAttachmentVisitor {
 
 
     public static final String WILDCARD = "*/*";
 
+    private static final int CHUNK_SIZE = 8192;
+
     private final Configuration configuration;
 
+    private final StringDictionary dictionary;
+
     private final Map<String, Attachment> attachments;
 
-    private final Set<TestResult> results;
+    private Set<TestResult> results;
+
+    private SpillingResultStore.StoredResults storedResults;
 
     private final Map<String, Object> extra;
 
+    private final MimeTypeDetector mimeTypes;
+
+    private final Map<Attachment, Future<String>> pendingTypes = new IdentityHashMap<>();
+
+    private boolean contentDeduplication;
+
+    private final Map<String, Attachment> byContent = new HashMap<>();
+
+    private final Map<String, Attachment> duplicates = new HashMap<>();
+
+    private long duplicateBytes;
+
     public DefaultResultsVisitor(final Configuration configuration) {
+        this(configuration, new MimeTypeDetector());
+    }
+
+    public DefaultResultsVisitor(final Configuration configuration, final MimeTypeDetector mimeTypes) {
         this.configuration = configuration;
+        this.dictionary = StringDictionary.find(configuration).newScope();
+        this.mimeTypes = mimeTypes;
         this.results = new HashSet<>();
         this.attachments = new HashMap<>();
         this.extra = new HashMap<>();
     }
 
+    public MimeTypeDetector getMimeTypeDetector() {
+        return mimeTypes;
+    }
+
+    /**
+     * Maps attachment files with identical content to a single stored
+     * payload, so it is kept once however many tests refer to it. Every
+     * reference still gets its own attachment with its own name and type.
+     */
+    public DefaultResultsVisitor setContentDeduplication(final boolean contentDeduplication) {
+        this.contentDeduplication = contentDeduplication;
+        return this;
+    }
+
+    /**
+     * Keeps visited results in given store instead of the heap, so that
+     * results of launches larger than the heap are spilled to disk. Results
+     * visited so far are moved to the store.
+     */
+    public DefaultResultsVisitor setResultStore(final SpillingResultStore store) {
+        final SpillingResultStore.StoredResults stored = store.asSet();
+        stored.addAll(results);
+        this.results = stored;
+        this.storedResults = stored;
+        return this;
+    }
+
+    public int getDuplicateCount() {
+        return duplicates.size();
+    }
+
+    public long getDuplicateBytes() {
+        return duplicateBytes;
+    }
 
     @Override
     public Attachment visitAttachmentFile(final File attachmentFile) {
+        return visitAttachmentFile(attachmentFile, null);
+    }
+
+    /**
+     * Visits the attachment file; a declared type is used instead of
+     * detecting one, see {@link MimeTypeDetector#detect(File, String)}.
+     */
+    @Override
+    public Attachment visitAttachmentFile(final File attachmentFile, final String declaredType) {
+        if (!contentDeduplication || attachments.containsKey(attachmentFile.getName())) {
+            return visitAttachmentFileByName(attachmentFile, declaredType);
+        }
+        Attachment same = duplicates.get(attachmentFile.getName());
+        if (same == null) {
+            final String hash = contentHash(attachmentFile);
+            if (hash == null) {
+                return visitAttachmentFileByName(attachmentFile, declaredType);
+            }
+            same = byContent.get(hash);
+            if (same == null) {
+                final Attachment attachment = visitAttachmentFileByName(attachmentFile, declaredType);
+                byContent.put(hash, attachment);
+                return attachment;
+            }
+            duplicates.put(attachmentFile.getName(), same);
+            duplicateBytes += getFileSizeSafe(attachmentFile);
+        }
+        return createReference(same, attachmentFile, declaredType);
+    }
+
+    /**
+     * Returns a new attachment for a file with the same content as the
+     * stored one. It shares uid, source and size, so the payload is stored
+     * once, but has its own name and type, as readers change them.
+     */
+    private Attachment createReference(final Attachment stored, final File attachmentFile, final String declaredType) {
+        final Attachment reference = new Attachment()
+                .setUid(stored.getUid())
+                .setName(attachmentFile.getName())
+                .setSource(stored.getSource())
+                .setSize(stored.getSize());
+        detectType(reference, attachmentFile, declaredType);
+        return reference;
+    }
+
+    private Attachment visitAttachmentFileByName(final File attachmentFile, final String declaredType) {
         final RandomUidContext context = configuration.getContext(RandomUidContext.class);
         AllureUtilsAdv<String,Attachment> adv = new AllureUtilsAdv<>();
         return adv.computeIfAbsent(attachments, attachmentFile.getName(), new Function<String, Attachment>() {
             @Override
             public Attachment apply(String s) {
                 final String uid = context.getValue().get();
-                final String realType = probeContentType(attachmentFile);
-                final String extension = Optional.of(getExtension(attachmentFile.getName()))
-                        .filter(new Predicate<String>() {
-                            @Override
-                            public boolean test(String s) {
-                                return !s.isEmpty();
-                            }
-                        })
-                        .map(new Function<String, String>() {
-                            @Override
-                            public String apply(String s) {
-                                return "." + s;
-                            }
-                        })
-                        .orElseGet(new Supplier<String>() {
-                            @Override
-                            public String get() {
-                                return getExtensionByMimeType(realType);
-                            }
-                        });
-//                final String source = uid + (extension.isEmpty() ? "" : extension);
                 final String source = attachmentFile.getAbsolutePath();
 
                 final Long size = getFileSizeSafe(attachmentFile);
-                return new Attachment()
+                final Attachment attachment = new Attachment()
                         .setUid(uid)
                         .setName(attachmentFile.getName())
                         .setSource(source)
-                        .setType(realType)
                         .setSize(size);
+                detectType(attachment, attachmentFile, declaredType);
+                return attachment;
+            }
+        });
+    }
+
+    private void detectType(final Attachment attachment, final File attachmentFile, final String declaredType) {
+        if (mimeTypes.isAsync()) {
+            pendingTypes.put(attachment, mimeTypes.detectAsync(attachmentFile, declaredType));
+        } else {
+            attachment.setType(mimeTypes.detect(attachmentFile, declaredType));
+        }
+    }
+
+    /**
+     * Registers an attachment stored in a results archive. The source is
+     * {@code <archive path>!/<entry name>}, the entry is not extracted.
+     */
+    @Override
+    public Attachment visitAttachmentEntry(final ZipFile zipFile, final ZipEntry entry) {
+        final RandomUidContext context = configuration.getContext(RandomUidContext.class);
+        final String source = new File(zipFile.getName()).getAbsolutePath() + "!/" + entry.getName();
+        AllureUtilsAdv<String,Attachment> adv = new AllureUtilsAdv<>();
+        return adv.computeIfAbsent(attachments, source, new Function<String, Attachment>() {
+            @Override
+            public Attachment apply(String s) {
+                final String name = ZipResults.getFileName(entry);
+                return new Attachment()
+                        .setUid(context.getValue().get())
+                        .setName(name)
+                        .setSource(source)
+                        .setType(detectContentType(zipFile, entry, name))
+                        .setSize(Math.max(0L, entry.getSize()));
             }
         });
     }
 
     @Override
     public void visitTestResult(final TestResult result) {
+        dictionary.intern(result);
         results.add(result);
     }
 
@@ -135,37 +261,107 @@ public class DefaultResultsVisitor implements ResultsVisitor {
     }
 
     public LaunchResults getLaunchResults() {
-        return new DefaultLaunchResults(
+        resolvePendingTypes();
+        if (storedResults != null) {
+            return new DefaultLaunchResults(
+                    storedResults,
+                    Collections.unmodifiableMap(attachments),
+                    Collections.unmodifiableMap(extra)
+            );
+        }
+        return new IndexedLaunchResults(
                 Collections.unmodifiableSet(results),
                 Collections.unmodifiableMap(attachments),
                 Collections.unmodifiableMap(extra)
         );
     }
 
-    private static String getExtensionByMimeType(final String type) {
-        try {
-            return getDefaultMimeTypes().forName(type).getExtension();
-        } catch (Exception e) {
-            return "";
+    /**
+     * Sets types sniffed on the detector pool. Types that readers already set
+     * from result files are kept.
+     */
+    private void resolvePendingTypes() {
+        for (Map.Entry<Attachment, Future<String>> entry : pendingTypes.entrySet()) {
+            if (entry.getKey().getType() != null) {
+                continue;
+            }
+            try {
+                entry.getKey().setType(entry.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getKey().setType(WILDCARD);
+            } catch (ExecutionException e) {
+                entry.getKey().setType(WILDCARD);
+            }
         }
+        pendingTypes.clear();
     }
 
-    public static String probeContentType(final File file) {
+    /**
+     * Returns a digest of the file size and content read in chunks, or null
+     * if the file could not be read.
+     */
+    static String contentHash(final File file) {
+        final MessageDigest digest;
         try {
-            InputStream inputStream = new FileInputStream(file);
-            return probeContentType(inputStream, file.getName());
-        } catch (Exception e) {
-            return WILDCARD;
+            digest = MessageDigest.getInstance("md5");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        digest.update(Long.toString(file.length()).getBytes(Charset.forName("UTF-8")));
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(file);
+            final byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * @deprecated use {@link MimeTypeDetector#detect(File)}.
+     */
+    @Deprecated
+    public static String probeContentType(final File file) {
+        return new MimeTypeDetector().detect(file);
     }
 
+    /**
+     * @deprecated use {@link MimeTypeDetector#detect(InputStream, String)}.
+     */
+    @Deprecated
     public static String probeContentType(final InputStream inputStream, final String name) {
+        return new MimeTypeDetector().detect(inputStream, name);
+    }
+
+    private String detectContentType(final ZipFile zipFile, final ZipEntry entry, final String name) {
+        InputStream inputStream = null;
         try {
-            final Metadata metadata = new Metadata();
-            metadata.set(Metadata.RESOURCE_NAME_KEY, name);
-            return getDefaultMimeTypes().detect(inputStream, metadata).toString();
+            inputStream = zipFile.getInputStream(entry);
+            return mimeTypes.detect(inputStream, name);
         } catch (IOException e) {
             return WILDCARD;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
 
@@ -0,0 +1,298 @@
+package com.github.allure;
+
+import com.github.allure.columns.ResultColumns;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import java8.util.Optional;
+import java8.util.function.Supplier;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Launch results that keep the set of visible results instead of filtering
+ * all results on every {@link #getResults()} call. Results hidden or shown
+ * after creation must be reported with {@link #setHidden(TestResult, boolean)},
+ * as {@code RetryPlugin} does. Visible results are kept by identity.
+ * <p>
+ * Visible results can also be looked up by status, history id and label.
+ * These indexes are built on first use and kept up to date by
+ * {@link #setHidden(TestResult, boolean)}; call {@link #invalidateIndexes()}
+ * after changing statuses, history ids or labels of results. Index buckets
+ * hold results by identity too, so changing other fields is safe.
+ * <p>
+ * Hot fields of all results are copied to {@link ResultColumns} on the
+ * first {@link #getColumns()} call, for statistics computed in a plain loop.
+ */
+public class IndexedLaunchResults implements LaunchResults, Serializable {
+
+    private final Set<TestResult> results;
+
+    private final Map<String, Attachment> attachments;
+
+    private final Map<String, Object> extra;
+
+    private final Map<TestResult, Boolean> visible = new IdentityHashMap<>();
+
+    private final Map<TestResult, Boolean> hiddenResults = new IdentityHashMap<>();
+
+    private transient Set<TestResult> visibleView;
+
+    private ResultColumns columns;
+
+    private transient Map<Status, Map<TestResult, Boolean>> byStatus;
+
+    private transient Map<String, Map<TestResult, Boolean>> byHistoryId;
+
+    private transient Map<String, Map<String, Map<TestResult, Boolean>>> byLabel;
+
+    public IndexedLaunchResults(final Set<TestResult> results,
+                                final Map<String, Attachment> attachments,
+                                final Map<String, Object> extra) {
+        this.results = results;
+        this.attachments = attachments;
+        this.extra = extra;
+        for (TestResult result : results) {
+            if (result.isHidden()) {
+                hiddenResults.put(result, Boolean.TRUE);
+            } else {
+                visible.put(result, Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Returns visible results. The set is a live read-only view, copy it to
+     * iterate while hiding results.
+     */
+    @Override
+    public Set<TestResult> getResults() {
+        if (visibleView == null) {
+            visibleView = Collections.unmodifiableSet(visible.keySet());
+        }
+        return visibleView;
+    }
+
+    /**
+     * Returns columns of all results, hidden rows are marked.
+     */
+    public synchronized ResultColumns getColumns() {
+        if (columns == null) {
+            columns = new ResultColumns(results);
+        }
+        return columns;
+    }
+
+    @Override
+    public Set<TestResult> getAllResults() {
+        return results;
+    }
+
+    @Override
+    public Map<String, Attachment> getAttachments() {
+        return attachments;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getExtra(final String name) {
+        return Optional.ofNullable((T) extra.get(name));
+    }
+
+    @Override
+    public <T> T getExtra(final String name, final Supplier<T> supplier) {
+        final Optional<T> extra = getExtra(name);
+        return extra.orElseGet(supplier);
+    }
+
+    /**
+     * Sets the hidden flag of the result and updates visible results.
+     * Results of other launches are ignored; membership is checked by
+     * identity, as hiding a result may change its hash code.
+     *
+     * @return true if the result belongs to this launch.
+     */
+    public synchronized boolean setHidden(final TestResult result, final boolean hidden) {
+        final Map<TestResult, Boolean> from = hidden ? visible : hiddenResults;
+        final Map<TestResult, Boolean> to = hidden ? hiddenResults : visible;
+        if (from.remove(result) != null) {
+            to.put(result, Boolean.TRUE);
+            if (hidden) {
+                unindex(result);
+            } else {
+                index(result);
+            }
+        } else if (!to.containsKey(result)) {
+            return false;
+        }
+        result.setHidden(hidden);
+        if (columns != null) {
+            columns.setHidden(result, hidden);
+        }
+        return true;
+    }
+
+    /**
+     * Returns visible results with given status. Sets returned by lookups
+     * and groupings are live read-only views; grouping maps are copies.
+     */
+    public synchronized Set<TestResult> findByStatus(final Status status) {
+        if (byStatus == null) {
+            buildIndexes();
+        }
+        return readOnly(byStatus.get(status));
+    }
+
+    /**
+     * Returns visible results with given history id.
+     */
+    public synchronized Set<TestResult> findByHistoryId(final String historyId) {
+        if (byHistoryId == null) {
+            buildIndexes();
+        }
+        return readOnly(byHistoryId.get(historyId));
+    }
+
+    /**
+     * Returns visible results with a history id, by history id.
+     */
+    public synchronized Map<String, Set<TestResult>> groupByHistoryId() {
+        if (byHistoryId == null) {
+            buildIndexes();
+        }
+        return readOnlyGroups(byHistoryId);
+    }
+
+    /**
+     * Returns visible results having a label with given name and value.
+     */
+    public synchronized Set<TestResult> findByLabel(final String name, final String value) {
+        if (byLabel == null) {
+            buildIndexes();
+        }
+        final Map<String, Map<TestResult, Boolean>> values = byLabel.get(name);
+        return readOnly(values == null ? null : values.get(value));
+    }
+
+    /**
+     * Returns visible results by value of the label with given name, values
+     * in order of first appearance. A result with several such labels is in
+     * the set of each value.
+     */
+    public synchronized Map<String, Set<TestResult>> groupByLabel(final String name) {
+        if (byLabel == null) {
+            buildIndexes();
+        }
+        return readOnlyGroups(byLabel.get(name));
+    }
+
+    /**
+     * Drops indexes, they are built again on next lookup.
+     */
+    public synchronized void invalidateIndexes() {
+        byStatus = null;
+        byHistoryId = null;
+        byLabel = null;
+    }
+
+    private void buildIndexes() {
+        byStatus = new EnumMap<>(Status.class);
+        byHistoryId = new LinkedHashMap<>();
+        byLabel = new LinkedHashMap<>();
+        for (TestResult result : results) {
+            if (visible.containsKey(result)) {
+                index(result);
+            }
+        }
+    }
+
+    private void index(final TestResult result) {
+        if (byStatus == null) {
+            return;
+        }
+        if (result.getStatus() != null) {
+            bucket(byStatus, result.getStatus()).put(result, Boolean.TRUE);
+        }
+        if (result.getHistoryId() != null) {
+            bucket(byHistoryId, result.getHistoryId()).put(result, Boolean.TRUE);
+        }
+        final List<Label> labels = result.getLabels();
+        if (labels != null) {
+            for (Label label : labels) {
+                Map<String, Map<TestResult, Boolean>> values = byLabel.get(label.getName());
+                if (values == null) {
+                    values = new LinkedHashMap<>();
+                    byLabel.put(label.getName(), values);
+                }
+                bucket(values, label.getValue()).put(result, Boolean.TRUE);
+            }
+        }
+    }
+
+    private void unindex(final TestResult result) {
+        if (byStatus == null) {
+            return;
+        }
+        remove(byStatus, result.getStatus(), result);
+        remove(byHistoryId, result.getHistoryId(), result);
+        final List<Label> labels = result.getLabels();
+        if (labels != null) {
+            for (Label label : labels) {
+                final Map<String, Map<TestResult, Boolean>> values = byLabel.get(label.getName());
+                if (values != null) {
+                    remove(values, label.getValue(), result);
+                    if (values.isEmpty()) {
+                        byLabel.remove(label.getName());
+                    }
+                }
+            }
+        }
+    }
+
+    private static <K> Map<TestResult, Boolean> bucket(final Map<K, Map<TestResult, Boolean>> index, final K key) {
+        Map<TestResult, Boolean> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new IdentityHashMap<>();
+            index.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private static <K> void remove(final Map<K, Map<TestResult, Boolean>> index,
+                                   final K key,
+                                   final TestResult result) {
+        if (key == null) {
+            return;
+        }
+        final Map<TestResult, Boolean> bucket = index.get(key);
+        if (bucket != null && bucket.remove(result) != null && bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<TestResult> readOnly(final Map<TestResult, Boolean> bucket) {
+        return bucket == null
+                ? Collections.<TestResult>emptySet()
+                : Collections.unmodifiableSet(bucket.keySet());
+    }
+
+    private static <K> Map<K, Set<TestResult>> readOnlyGroups(final Map<K, Map<TestResult, Boolean>> index) {
+        if (index == null) {
+            return Collections.emptyMap();
+        }
+        final Map<K, Set<TestResult>> views = new LinkedHashMap<>();
+        for (Map.Entry<K, Map<TestResult, Boolean>> entry : index.entrySet()) {
+            views.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue().keySet()));
+        }
+        return Collections.unmodifiableMap(views);
+    }
+}
@@ -0,0 +1,541 @@
+package com.github.allure;
+
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.category.CategoriesPlugin;
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.concurrent.IoThrottle;
+import com.github.allure.core.MarkdownDescriptionsPlugin;
+import com.github.allure.history.HistoryPlugin;
+import com.github.allure.owner.OwnerPlugin;
+import com.github.allure.retry.RetryPlugin;
+import com.github.allure.severity.SeverityPlugin;
+import com.github.allure.spill.SpillingResultStore;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.tags.TagsPlugin;
+import com.github.allure.utils.ResultsDirectoryIndex;
+import com.github.allure.utils.StringDictionary;
+import io.qameta.allure.Aggregator;
+import io.qameta.allure.Reader;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates a report for the given configuration. Every results directory is
+ * read by all configured readers at once. Aggregators are scheduled as a
+ * dependency graph: an aggregator starts as soon as the aggregators it
+ * depends on are finished, independent ones run in parallel.
+ * <p>
+ * Aggregators that modify test results share the results they change, so
+ * they run one after another, and all other aggregators wait for them; no
+ * thread ever reads a result another one changes. The order of modifying
+ * aggregators follows the dependencies declared with
+ * {@link #addDependency(Class, Class)}, configuration order only decides
+ * between aggregators that do not depend on each other.
+ * <p>
+ * With a spill directory set, results are kept in a
+ * {@link SpillingResultStore} per results directory; the stores are removed
+ * on {@link #close()}.
+ */
+public class ReportGenerator implements Closeable {
+
+    private static final List<Class<? extends Aggregator>> MUTATING = Arrays.<Class<? extends Aggregator>>asList(
+            MarkdownDescriptionsPlugin.class,
+            RetryPlugin.class,
+            TagsPlugin.class,
+            SeverityPlugin.class,
+            OwnerPlugin.class,
+            HistoryPlugin.class,
+            CategoriesPlugin.class
+    );
+
+    private final Configuration configuration;
+
+    private final List<Class<? extends Aggregator>> mutating = new ArrayList<>(MUTATING);
+
+    private final Map<Class<? extends Aggregator>, List<Class<? extends Aggregator>>> dependencies =
+            new LinkedHashMap<>();
+
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    private final Map<String, Long> cacheHits = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private boolean contentDeduplication;
+
+    private File spillDirectory;
+
+    private final List<SpillingResultStore> stores = new ArrayList<>();
+
+    public ReportGenerator(final Configuration configuration) {
+        this.configuration = configuration;
+        addDependency(HistoryPlugin.class, RetryPlugin.class);
+    }
+
+    public ReportGenerator setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Stores attachment files with identical content once per results
+     * directory, see {@link ConcurrentResultsVisitor#setContentDeduplication(boolean)}.
+     */
+    public ReportGenerator setContentDeduplication(final boolean contentDeduplication) {
+        this.contentDeduplication = contentDeduplication;
+        return this;
+    }
+
+    /**
+     * Keeps results of every results directory in a {@link SpillingResultStore}
+     * with its segment in given directory, so that launches larger than the
+     * heap can be read. Null keeps all results in heap.
+     */
+    public ReportGenerator setSpillDirectory(final File spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        return this;
+    }
+
+    /**
+     * Makes aggregators of the first type wait for aggregators of the second.
+     */
+    public ReportGenerator addDependency(final Class<? extends Aggregator> aggregator,
+                                         final Class<? extends Aggregator> dependency) {
+        List<Class<? extends Aggregator>> list = dependencies.get(aggregator);
+        if (list == null) {
+            list = new ArrayList<>();
+            dependencies.put(aggregator, list);
+        }
+        list.add(dependency);
+        return this;
+    }
+
+    /**
+     * Marks aggregators of the given type as modifying test results.
+     */
+    public ReportGenerator addMutating(final Class<? extends Aggregator> aggregator) {
+        mutating.add(aggregator);
+        return this;
+    }
+
+    /**
+     * Returns milliseconds spent in each stage, in the order stages finished.
+     * Aggregators are keyed by their position in the configuration and class
+     * name, such as {@code aggregate 3 com.github.allure.suites.SuitesPlugin}.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Returns how many times each value of the {@link GenerationCache} was
+     * reused during the last aggregation, by key.
+     */
+    public Map<String, Long> getCacheHits() {
+        synchronized (cacheHits) {
+            return new LinkedHashMap<>(cacheHits);
+        }
+    }
+
+    public List<LaunchResults> generate(final String outputDirectory,
+                                        final List<File> resultsDirectories) throws IOException {
+        final long start = System.nanoTime();
+        final List<LaunchResults> launchesResults = readResults(resultsDirectories);
+        final File output = new File(outputDirectory);
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Could not create report directory " + output);
+        }
+        aggregate(launchesResults, outputDirectory);
+        record("generate", start);
+        return launchesResults;
+    }
+
+    /**
+     * Reads every directory with every configured reader, all at once. Each
+     * directory gets its own visitor and its own launch results, returned in
+     * the order of directories. Add an {@link IoThrottle} to the
+     * configuration to bound files and bytes read at once. Entries of each
+     * directory are listed and classified once and shared by all readers.
+     * Strings of results are interned by a scope of the configured
+     * {@link StringDictionary} per directory. Results are spilled to disk if
+     * a spill directory is set.
+     */
+    public List<LaunchResults> readResults(final List<File> resultsDirectories) {
+        final long start = System.nanoTime();
+        final List<Reader> readers = configuration.getReaders();
+        final List<ConcurrentResultsVisitor> visitors = new ArrayList<>();
+        final BoundedExecutor executor = new BoundedExecutor("allure-readers", parallelism,
+                Math.max(1, resultsDirectories.size() * readers.size()));
+        for (File directory : resultsDirectories) {
+            final ConcurrentResultsVisitor visitor = new ConcurrentResultsVisitor(configuration)
+                    .setContentDeduplication(contentDeduplication);
+            if (spillDirectory != null) {
+                visitor.setResultStore(createStore());
+            }
+            visitors.add(visitor);
+            final List<File> files = ResultsDirectoryIndex.build(directory);
+            for (final Reader reader : readers) {
+                final String stage = "read " + reader.getClass().getSimpleName() + " " + directory.getName();
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        final long readerStart = System.nanoTime();
+                        reader.readResults(configuration, visitor, files);
+                        record(stage, readerStart);
+                    }
+                });
+            }
+        }
+        executor.awaitAll();
+        final List<LaunchResults> launchesResults = new ArrayList<>();
+        for (ConcurrentResultsVisitor visitor : visitors) {
+            launchesResults.add(visitor.getLaunchResults());
+        }
+        record("read", start);
+        return launchesResults;
+    }
+
+    /**
+     * Runs all configured aggregators in dependency order. The first
+     * failure is rethrown once running aggregators are finished, aggregators
+     * depending on a failed one are skipped. Statistics of aggregators that
+     * do not modify results are computed in one {@link FusedStatistics} pass,
+     * trees and trends shared by several aggregators are computed once.
+     * Results kept in a {@link SpillingResultStore} are not spilled until
+     * all aggregators that change them are finished.
+     */
+    public void aggregate(final List<LaunchResults> launchesResults,
+                          final String outputDirectory) throws IOException {
+        final long start = System.nanoTime();
+        final List<Node> nodes = buildGraph(configuration.getAggregators());
+        final List<Aggregator> readOnly = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!isMutating(node.aggregator)) {
+                readOnly.add(node.aggregator);
+            }
+        }
+        FusedStatistics.prepare(launchesResults, readOnly, parallelism);
+        GenerationCache.open(launchesResults);
+        final List<SpillingResultStore> changed = beginChanges(launchesResults);
+        final AtomicInteger mutatorsLeft = new AtomicInteger(nodes.size() - readOnly.size());
+        final Runnable mutatorDone = new Runnable() {
+            @Override
+            public void run() {
+                if (mutatorsLeft.decrementAndGet() == 0) {
+                    endChanges(changed);
+                }
+            }
+        };
+        if (mutatorsLeft.get() == 0) {
+            endChanges(changed);
+        }
+        final CountDownLatch done = new CountDownLatch(nodes.size());
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final BoundedExecutor executor = new BoundedExecutor("allure-aggregators", parallelism,
+                Math.max(1, nodes.size()));
+        final Scheduler scheduler = new Scheduler() {
+            @Override
+            public void schedule(final Node node) {
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        boolean succeeded = false;
+                        if (failure.get() == null) {
+                            final long aggregatorStart = System.nanoTime();
+                            try {
+                                node.aggregator.aggregate(configuration, launchesResults, outputDirectory);
+                                record("aggregate " + node.getName(), aggregatorStart);
+                                succeeded = true;
+                            } catch (IOException e) {
+                                failure.compareAndSet(null, e);
+                            } catch (RuntimeException e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                        if (isMutating(node.aggregator)) {
+                            mutatorDone.run();
+                        }
+                        done.countDown();
+                        for (Node dependent : node.dependents) {
+                            if (dependent.remaining.decrementAndGet() == 0) {
+                                if (succeeded) {
+                                    schedule(dependent);
+                                } else {
+                                    skip(dependent, done, mutatorDone);
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+        };
+        for (Node node : nodes) {
+            if (node.remaining.get() == 0) {
+                scheduler.schedule(node);
+            }
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while aggregating results", e);
+        } finally {
+            executor.awaitAll();
+            if (mutatorsLeft.getAndSet(0) > 0) {
+                endChanges(changed);
+            }
+            FusedStatistics.release(launchesResults);
+            final GenerationCache cache = GenerationCache.close(launchesResults);
+            if (cache != null) {
+                cacheHits.clear();
+                cacheHits.putAll(cache.getHits());
+            }
+        }
+        record("aggregate", start);
+        final Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e != null) {
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Removes the result stores created while reading results.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (stores) {
+            for (SpillingResultStore store : stores) {
+                store.close();
+            }
+            stores.clear();
+        }
+    }
+
+    private SpillingResultStore createStore() {
+        try {
+            final SpillingResultStore store = new SpillingResultStore(spillDirectory);
+            synchronized (stores) {
+                stores.add(store);
+            }
+            return store;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create result store in " + spillDirectory, e);
+        }
+    }
+
+    private static List<SpillingResultStore> beginChanges(final List<LaunchResults> launchesResults) {
+        final List<SpillingResultStore> changed = new ArrayList<>();
+        for (LaunchResults launch : launchesResults) {
+            if (launch.getAllResults() instanceof SpillingResultStore.StoredResults) {
+                final SpillingResultStore store = ((SpillingResultStore.StoredResults) launch.getAllResults())
+                        .getStore();
+                store.beginChanges();
+                changed.add(store);
+            }
+        }
+        return changed;
+    }
+
+    private static void endChanges(final List<SpillingResultStore> changed) {
+        for (SpillingResultStore store : changed) {
+            store.endChanges();
+        }
+    }
+
+    private List<Node> buildGraph(final List<Aggregator> aggregators) {
+        final List<Node> nodes = new ArrayList<>();
+        for (Aggregator aggregator : aggregators) {
+            nodes.add(new Node(nodes.size(), aggregator));
+        }
+        Node previousMutating = null;
+        for (Node node : orderMutating(nodes)) {
+            if (previousMutating != null) {
+                link(previousMutating, node);
+            }
+            previousMutating = node;
+        }
+        for (Node node : nodes) {
+            if (!isMutating(node.aggregator)) {
+                for (Node other : nodes) {
+                    if (isMutating(other.aggregator)) {
+                        link(other, node);
+                    }
+                }
+            }
+            for (Node other : nodes) {
+                if (dependsOn(node, other)) {
+                    link(other, node);
+                }
+            }
+        }
+        checkAcyclic(nodes);
+        return nodes;
+    }
+
+    /**
+     * Returns modifying aggregators in the order they run: each after the
+     * ones it declares dependencies on, otherwise in configuration order.
+     * Aggregators left in a dependency cycle are appended in configuration
+     * order, for {@link #checkAcyclic(List)} to report.
+     */
+    private List<Node> orderMutating(final List<Node> nodes) {
+        final List<Node> pending = new ArrayList<>();
+        for (Node node : nodes) {
+            if (isMutating(node.aggregator)) {
+                pending.add(node);
+            }
+        }
+        final List<Node> ordered = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            Node next = null;
+            for (Node node : pending) {
+                if (!dependsOnAny(node, pending)) {
+                    next = node;
+                    break;
+                }
+            }
+            if (next == null) {
+                ordered.addAll(pending);
+                break;
+            }
+            pending.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    private boolean dependsOnAny(final Node node, final List<Node> others) {
+        for (Node other : others) {
+            if (dependsOn(node, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean dependsOn(final Node node, final Node other) {
+        if (node == other) {
+            return false;
+        }
+        for (Map.Entry<Class<? extends Aggregator>, List<Class<? extends Aggregator>>> entry
+                : dependencies.entrySet()) {
+            if (entry.getKey().isInstance(node.aggregator)) {
+                for (Class<? extends Aggregator> dependency : entry.getValue()) {
+                    if (dependency.isInstance(other.aggregator)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isMutating(final Aggregator aggregator) {
+        for (Class<? extends Aggregator> type : mutating) {
+            if (type.isInstance(aggregator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void link(final Node dependency, final Node dependent) {
+        if (!dependency.dependents.contains(dependent)) {
+            dependency.dependents.add(dependent);
+            dependent.remaining.incrementAndGet();
+        }
+    }
+
+    private static void checkAcyclic(final List<Node> nodes) {
+        final Map<Node, Integer> remaining = new LinkedHashMap<>();
+        final List<Node> ready = new ArrayList<>();
+        for (Node node : nodes) {
+            remaining.put(node, node.remaining.get());
+            if (node.remaining.get() == 0) {
+                ready.add(node);
+            }
+        }
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            final Node node = ready.remove(ready.size() - 1);
+            visited++;
+            for (Node dependent : node.dependents) {
+                final int left = remaining.get(dependent) - 1;
+                remaining.put(dependent, left);
+                if (left == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (visited != nodes.size()) {
+            throw new IllegalStateException("Aggregator dependencies contain a cycle");
+        }
+    }
+
+    private void skip(final Node node, final CountDownLatch done, final Runnable mutatorDone) {
+        if (isMutating(node.aggregator)) {
+            mutatorDone.run();
+        }
+        done.countDown();
+        for (Node dependent : node.dependents) {
+            if (dependent.remaining.decrementAndGet() == 0) {
+                skip(dependent, done, mutatorDone);
+            }
+        }
+    }
+
+    private void record(final String stage, final long startNanos) {
+        timings.put(stage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private interface Scheduler {
+        void schedule(Node node);
+    }
+
+    private static final class Node {
+
+        private final int index;
+
+        private final Aggregator aggregator;
+
+        private final List<Node> dependents = new ArrayList<>();
+
+        private final AtomicInteger remaining = new AtomicInteger();
+
+        Node(final int index, final Aggregator aggregator) {
+            this.index = index;
+            this.aggregator = aggregator;
+        }
+
+        /**
+         * Returns the position and class name of the aggregator, unique even
+         * for several instances of one class.
+         */
+        String getName() {
+            return index + " " + aggregator.getClass().getName();
+        }
+    }
+}
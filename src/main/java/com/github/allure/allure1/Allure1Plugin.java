@@ -19,7 +19,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
-import com.github.allure.utils.AllureUtils;
+import com.github.allure.cache.CachedResults;
+import com.github.allure.cache.ParseCache;
+import com.github.allure.cache.RecordingResultsVisitor;
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.concurrent.IoThrottle;
+import com.github.allure.concurrent.SynchronizedResultsVisitor;
+import com.github.allure.utils.AttachmentSource;
+import com.github.allure.utils.Contexts;
+import com.github.allure.utils.HistoryIdHasher;
+import com.github.allure.utils.ResultsDirectoryIndex;
+import com.github.allure.utils.ZipResults;
 import io.qameta.allure.Reader;
 import io.qameta.allure.context.RandomUidContext;
 import io.qameta.allure.core.Configuration;
@@ -36,7 +46,6 @@ import java8.util.Optional;
 import java8.util.function.*;
 import java8.util.stream.Collectors;
 import java8.util.stream.RefStreams;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 import ru.yandex.qatools.allure.model.*;
 
@@ -44,13 +53,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigInteger;
 
 
-import java.nio.charset.Charset;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.zip.ZipEntry;
 
 
 import static com.fasterxml.jackson.databind.MapperFeature.USE_WRAPPER_NAME_AS_PROPERTY_NAME;
@@ -74,7 +80,6 @@ import static java8.util.stream.Collectors.toList;
 public class Allure1Plugin implements Reader {
 
     private static final String UNKNOWN = "unknown";
-    private static final String MD_5 = "md5";
     private static final String ISSUE_URL_PROPERTY = "allure.issues.tracker.pattern";
     private static final String TMS_LINK_PROPERTY = "allure.tests.management.pattern";
     private static final Comparator<Parameter> PARAMETER_COMPARATOR =
@@ -95,6 +100,10 @@ public class Allure1Plugin implements Reader {
 
     private final ObjectMapper jsonMapper = new ObjectMapper();
     private final ObjectMapper xmlMapper;
+    private XmlTestSuiteReader xmlSuiteReader;
+    private boolean streaming;
+    private int parallelism = 1;
+    private HistoryIdHasher.Algorithm historyIdAlgorithm = HistoryIdHasher.Algorithm.MD5;
 
     public Allure1Plugin() {
         final SimpleModule module = new XmlParserModule()
@@ -109,32 +118,305 @@ public class Allure1Plugin implements Reader {
     public void readResults(final Configuration configuration,
                             final ResultsVisitor visitor,
                             final List<File> fileList) {
-        final Properties allureProperties = loadAllureProperties(fileList);
+        final ResultsDirectoryIndex index = ResultsDirectoryIndex.of(fileList);
+        final Properties allureProperties = loadAllureProperties(index);
         final RandomUidContext context = configuration.getContext(RandomUidContext.class);
 
-        final Map<String, String> environment = processEnvironment(fileList);
-        getStreamOfAllure1Results(fileList).forEach(new Consumer<TestSuiteResult>() {
-                                                        @Override
-                                                        public void accept(TestSuiteResult testSuiteResult) {
-                                                            StreamSupport.stream(testSuiteResult.getTestCases()).forEach(new Consumer<TestCaseResult>() {
-                                                                @Override
-                                                                public void accept(TestCaseResult testCaseResult) {
-                                                                    convert(context.getValue(), fileList, visitor, testSuiteResult, testCaseResult, allureProperties);
-                                                                    StreamSupport.stream(getEnvironmentParameters(testCaseResult)).forEach(new Consumer<ru.yandex.qatools.allure.model.Parameter>() {
-                                                                        @Override
-                                                                        public void accept(ru.yandex.qatools.allure.model.Parameter parameter) {
-                                                                            environment.put(parameter.getName(), parameter.getValue());
-                                                                        }
-                                                                    });
-                                                                }
-                                                            });
-                                                        }
-                                                    }
-        );
-
+        final Map<String, String> environment = processEnvironment(index);
+        final boolean parallel = parallelism > 1;
+        final ResultsVisitor target = parallel ? SynchronizedResultsVisitor.wrap(visitor) : visitor;
+        final Map<String, String> parameters = parallel ? Collections.synchronizedMap(environment) : environment;
+        final IoThrottle throttle = IoThrottle.find(configuration);
+        for (File archive : index.get(ResultsDirectoryIndex.Role.ARCHIVE)) {
+            readZipResults(archive, context.getValue(), target, allureProperties, parameters, throttle);
+        }
+        final AttachmentSource attachments = index.getAttachments();
+        final XmlTestSuiteReader.TestCaseHandler handler = newTestCaseHandler(context.getValue(),
+                attachments, target, allureProperties, parameters);
+        final ParseCache cache = Contexts.find(configuration, ParseCache.class);
+        final CachedSuiteReader cachedReader = Objects.isNull(cache) ? null : new CachedSuiteReader(
+                cache, context.getValue(), attachments, target, allureProperties, parameters);
+        if (parallel) {
+            readResultsInParallel(index, handler, cachedReader, throttle);
+        } else {
+            for (File file : listTestSuiteFiles(index, true)) {
+                readSuiteFile(file, true, handler, cachedReader, throttle);
+            }
+            for (File file : listTestSuiteFiles(index, false)) {
+                readSuiteFile(file, false, handler, cachedReader, throttle);
+            }
+        }
         visitor.visitExtra(ENVIRONMENT_BLOCK_NAME, environment);
     }
 
+    private XmlTestSuiteReader.TestCaseHandler newTestCaseHandler(final Supplier<String> randomUid,
+                                                                  final AttachmentSource attachments,
+                                                                  final ResultsVisitor visitor,
+                                                                  final Properties properties,
+                                                                  final Map<String, String> environment) {
+        return new XmlTestSuiteReader.TestCaseHandler() {
+            @Override
+            public void handle(TestSuiteResult testSuite, TestCaseResult testCase) {
+                convert(randomUid, attachments, visitor, testSuite, testCase, properties);
+                for (ru.yandex.qatools.allure.model.Parameter parameter : getEnvironmentParameters(testCase)) {
+                    environment.put(parameter.getName(), parameter.getValue());
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads suites packed into a zip archive straight from archive entries.
+     * Attachments are visited by entry and never extracted.
+     */
+    private void readZipResults(final File archive,
+                                final Supplier<String> randomUid,
+                                final ResultsVisitor visitor,
+                                final Properties properties,
+                                final Map<String, String> environment,
+                                final IoThrottle throttle) {
+        final ZipResults zip;
+        try {
+            zip = new ZipResults(archive);
+        } catch (IOException e) {
+            visitor.error("Could not read results archive " + archive, e);
+            return;
+        }
+        try {
+            final XmlTestSuiteReader.TestCaseHandler handler = newTestCaseHandler(randomUid,
+                    zip.getAttachments(), visitor, properties, environment);
+            for (ZipEntry entry : zip.list("-testsuite.xml")) {
+                final IoThrottle.Permit permit = throttle.acquire(entry.getSize());
+                try {
+                    if (streaming) {
+                        xmlSuiteReader.read(zip.getZipFile(), entry, handler);
+                    } else {
+                        handleTestCases(readTestSuiteEntry(xmlMapper, zip, entry), handler);
+                    }
+                } catch (IOException e) {
+                    visitor.error("Could not read " + entry.getName() + " from " + archive, e);
+                } finally {
+                    permit.release();
+                }
+            }
+            for (ZipEntry entry : zip.list("-testsuite.json")) {
+                final IoThrottle.Permit permit = throttle.acquire(entry.getSize());
+                try {
+                    handleTestCases(readTestSuiteEntry(jsonMapper, zip, entry), handler);
+                } finally {
+                    permit.release();
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private Optional<TestSuiteResult> readTestSuiteEntry(final ObjectMapper mapper,
+                                                         final ZipResults zip,
+                                                         final ZipEntry entry) {
+        InputStream is = null;
+        try {
+            is = zip.open(entry);
+            return Optional.of(mapper.readValue(is, TestSuiteResult.class));
+        } catch (IOException e) {
+            return Optional.empty();
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads {@code -testsuite.xml} files with {@link XmlTestSuiteReader}, one
+     * test case at a time, instead of binding whole suites.
+     */
+    public Allure1Plugin setStreaming(final boolean streaming) {
+        if (streaming && xmlSuiteReader == null) {
+            xmlSuiteReader = new XmlTestSuiteReader();
+        }
+        this.streaming = streaming;
+        return this;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets the number of worker threads used to parse suite files and convert
+     * test cases. The default value of 1 reads everything on the calling thread.
+     */
+    public Allure1Plugin setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the hash used for history ids of test cases without a historyId
+     * label. Md5, the default, keeps ids of existing reports.
+     */
+    public Allure1Plugin setHistoryIdAlgorithm(final HistoryIdHasher.Algorithm historyIdAlgorithm) {
+        this.historyIdAlgorithm = historyIdAlgorithm;
+        return this;
+    }
+
+    public HistoryIdHasher.Algorithm getHistoryIdAlgorithm() {
+        return historyIdAlgorithm;
+    }
+
+    /**
+     * Parses suite files on one pool and converts their test cases on another,
+     * so a single large suite is still converted by all workers.
+     */
+    private void readResultsInParallel(final ResultsDirectoryIndex source,
+                                       final XmlTestSuiteReader.TestCaseHandler handler,
+                                       final CachedSuiteReader cachedReader,
+                                       final IoThrottle throttle) {
+        final BoundedExecutor casesExecutor = new BoundedExecutor("allure1-cases", parallelism);
+        final XmlTestSuiteReader.TestCaseHandler submitting = new XmlTestSuiteReader.TestCaseHandler() {
+            @Override
+            public void handle(final TestSuiteResult testSuite, final TestCaseResult testCase) {
+                casesExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        handler.handle(testSuite, testCase);
+                    }
+                });
+            }
+        };
+        final BoundedExecutor suitesExecutor = new BoundedExecutor("allure1-suites", parallelism);
+        try {
+            for (final File file : listTestSuiteFiles(source, true)) {
+                suitesExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        readSuiteFile(file, true, submitting, cachedReader, throttle);
+                    }
+                });
+            }
+            for (final File file : listTestSuiteFiles(source, false)) {
+                suitesExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        readSuiteFile(file, false, submitting, cachedReader, throttle);
+                    }
+                });
+            }
+            suitesExecutor.awaitAll();
+        } finally {
+            casesExecutor.awaitAll();
+        }
+    }
+
+    /**
+     * Reads one suite file under an {@link IoThrottle} permit, through the
+     * parse cache when there is one.
+     */
+    private void readSuiteFile(final File file, final boolean xml,
+                               final XmlTestSuiteReader.TestCaseHandler handler,
+                               final CachedSuiteReader cachedReader,
+                               final IoThrottle throttle) {
+        final IoThrottle.Permit permit = throttle.acquire(file);
+        try {
+            if (Objects.nonNull(cachedReader)) {
+                cachedReader.read(file, xml);
+            } else {
+                readTestSuiteFile(file, xml, handler);
+            }
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void readTestSuiteFile(final File file, final boolean xml,
+                                   final XmlTestSuiteReader.TestCaseHandler handler) {
+        if (xml && streaming) {
+            readXmlTestSuiteFile(file, handler);
+        } else {
+            handleTestCases(xml ? readXmlTestSuiteFile(file) : readJsonTestSuiteFile(file), handler);
+        }
+    }
+
+    /**
+     * Reads suite files through {@link ParseCache}. Converted results of a
+     * suite file are cached together with environment parameters of its test
+     * cases; on a hit they are visited again without parsing the file.
+     */
+    private final class CachedSuiteReader {
+
+        private final ParseCache cache;
+        private final Supplier<String> randomUid;
+        private final AttachmentSource attachments;
+        private final ResultsVisitor visitor;
+        private final Properties properties;
+        private final Map<String, String> environment;
+
+        private CachedSuiteReader(final ParseCache cache,
+                                  final Supplier<String> randomUid,
+                                  final AttachmentSource attachments,
+                                  final ResultsVisitor visitor,
+                                  final Properties properties,
+                                  final Map<String, String> environment) {
+            this.cache = cache;
+            this.randomUid = randomUid;
+            this.attachments = attachments;
+            this.visitor = visitor;
+            this.properties = properties;
+            this.environment = environment;
+        }
+
+        private void read(final File file, final boolean xml) {
+            final String key = cache.key(file);
+            final CachedResults cached = cache.get(key, file);
+            if (Objects.nonNull(cached)) {
+                for (TestResult result : cached.getResults()) {
+                    result.setUid(randomUid.get());
+                    ParseCache.revisitAttachments(result, visitor);
+                    visitor.visitTestResult(result);
+                }
+                environment.putAll(cached.getEnvironment());
+                return;
+            }
+            final CachedResults results = new CachedResults();
+            final ResultsVisitor recording = new RecordingResultsVisitor(visitor, results);
+            readTestSuiteFile(file, xml, newTestCaseHandler(randomUid, attachments, recording, properties,
+                    results.getEnvironment()));
+            environment.putAll(results.getEnvironment());
+            cache.put(key, file, results);
+        }
+    }
+
+    private void handleTestCases(final Optional<TestSuiteResult> testSuite,
+                                 final XmlTestSuiteReader.TestCaseHandler handler) {
+        if (testSuite.isPresent()) {
+            for (TestCaseResult testCase : testSuite.get().getTestCases()) {
+                handler.handle(testSuite.get(), testCase);
+            }
+        }
+    }
+
+    private List<File> listTestSuiteFiles(final ResultsDirectoryIndex source, final boolean xml) {
+        return source.get(xml ? ResultsDirectoryIndex.Role.SUITE_XML : ResultsDirectoryIndex.Role.SUITE_JSON);
+    }
+
+    private void readXmlTestSuiteFile(final File file, final XmlTestSuiteReader.TestCaseHandler handler) {
+        try {
+            xmlSuiteReader.read(file, handler);
+        } catch (IOException e) {
+            // unreadable suites are skipped, as in the bound reader
+        }
+    }
+
     private List<ru.yandex.qatools.allure.model.Parameter> getEnvironmentParameters(final TestCaseResult testCase) {
         return StreamSupport.stream(testCase.getParameters()).filter(new Predicate<ru.yandex.qatools.allure.model.Parameter>() {
             @Override
@@ -144,13 +426,8 @@ public class Allure1Plugin implements Reader {
         }).collect(Collectors.toList());
     }
 
-    private Properties loadAllureProperties(final List<File> fileList) {
-        Optional<File> allureProperties = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals("allure.properties");
-            }
-        }).findFirst();
+    private Properties loadAllureProperties(final ResultsDirectoryIndex index) {
+        Optional<File> allureProperties = Optional.ofNullable(index.find("allure.properties"));
         final Properties properties = new Properties();
         if (allureProperties.isPresent()) {
             if (allureProperties.get().exists()) {
@@ -179,7 +456,7 @@ public class Allure1Plugin implements Reader {
             "PMD.NcssCount"
     })
     private void convert(final Supplier<String> randomUid,
-                         final List<File> directory,
+                         final AttachmentSource attachments,
                          final ResultsVisitor visitor,
                          final TestSuiteResult testSuite,
                          final TestCaseResult source,
@@ -204,7 +481,7 @@ public class Allure1Plugin implements Reader {
         if (historyId.isPresent()) {
             dest.setHistoryId(historyId.get().getValue());
         } else {
-            dest.setHistoryId(getHistoryId(String.format("%s#%s", testClass, name), parameters));
+            dest.setHistoryId(getHistoryId(testClass + "#" + name, parameters));
         }
         dest.setUid(randomUid.get());
         dest.setName(name);
@@ -233,7 +510,7 @@ public class Allure1Plugin implements Reader {
                         new Function<ru.yandex.qatools.allure.model.Step, Step>() {
                             @Override
                             public Step apply(ru.yandex.qatools.allure.model.Step step) {
-                                return convert(directory, visitor, step, status, dest.getStatusMessage(), dest.getStatusTrace());
+                                return convert(attachments, visitor, step, status, dest.getStatusMessage(), dest.getStatusTrace());
                             }
                         })
                 );
@@ -242,7 +519,7 @@ public class Allure1Plugin implements Reader {
                 testStage.setAttachments(convert(source.getAttachments(), new Function<ru.yandex.qatools.allure.model.Attachment, Attachment>() {
                     @Override
                     public Attachment apply(ru.yandex.qatools.allure.model.Attachment attachment) {
-                        return convert(directory, visitor, attachment);
+                        return convert(attachments, visitor, attachment);
                     }
                 }));
             }
@@ -343,7 +620,7 @@ public class Allure1Plugin implements Reader {
                 .collect(toList());
     }
 
-    private Step convert(final List<File> source,
+    private Step convert(final AttachmentSource attachments,
                          final ResultsVisitor visitor,
                          final ru.yandex.qatools.allure.model.Step s,
                          final Status testStatus,
@@ -360,13 +637,13 @@ public class Allure1Plugin implements Reader {
                 .setSteps(convert(s.getSteps(), new Function<ru.yandex.qatools.allure.model.Step, Step>() {
                     @Override
                     public Step apply(ru.yandex.qatools.allure.model.Step step) {
-                        return convert(source, visitor, step, testStatus, message, trace);
+                        return convert(attachments, visitor, step, testStatus, message, trace);
                     }
                 }))
                 .setAttachments(convert(s.getAttachments(), new Function<ru.yandex.qatools.allure.model.Attachment, Attachment>() {
                     @Override
                     public Attachment apply(ru.yandex.qatools.allure.model.Attachment attachment) {
-                        return convert(source, visitor, attachment);
+                        return convert(attachments, visitor, attachment);
                     }
                 }));
         //Copy test status details to each step set the same status
@@ -389,12 +666,11 @@ public class Allure1Plugin implements Reader {
                 .setValue(parameter.getValue());
     }
 
-    private Attachment convert(final List<File> fileList,
+    private Attachment convert(final AttachmentSource attachments,
                                final ResultsVisitor visitor,
                                final ru.yandex.qatools.allure.model.Attachment attachment) {
-        final File attachmentFile = getFileFromList(fileList, attachment.getSource());
-        if (attachmentFile.isFile() && attachmentFile.exists()) {
-            final Attachment found = visitor.visitAttachmentFile(attachmentFile);
+        final Attachment found = attachments.visit(attachment.getSource(), attachment.getType(), visitor);
+        if (Objects.nonNull(found)) {
             if (Objects.nonNull(attachment.getType())) {
                 found.setType(attachment.getType());
             }
@@ -556,62 +832,6 @@ public class Allure1Plugin implements Reader {
         return String.format(properties.getProperty(TMS_LINK_PROPERTY, "%s"), testCaseId);
     }
 
-    private Stream<TestSuiteResult> getStreamOfAllure1Results(final List<File> source) {
-        return RefStreams.concat(xmlFiles(source), jsonFiles(source));
-    }
-
-    private Stream<TestSuiteResult> xmlFiles(final List<File> source) {
-        try {
-            return StreamSupport.stream(AllureUtils.listTestSuiteXmlFiles(source))
-                    .map(new Function<File, Optional<TestSuiteResult>>() {
-                        @Override
-                        public Optional<TestSuiteResult> apply(File file) {
-                            return readXmlTestSuiteFile(file);
-                        }
-                    })
-                    .filter(new Predicate<Optional<TestSuiteResult>>() {
-                        @Override
-                        public boolean test(Optional<TestSuiteResult> testSuiteResultOptional) {
-                            return testSuiteResultOptional.isPresent();
-                        }
-                    })
-                    .map(new Function<Optional<TestSuiteResult>, TestSuiteResult>() {
-                        @Override
-                        public TestSuiteResult apply(Optional<TestSuiteResult> testSuiteResultOptional) {
-                            return testSuiteResultOptional.get();
-                        }
-                    });
-        } catch (IOException e) {
-            return RefStreams.empty();
-        }
-    }
-
-    private Stream<TestSuiteResult> jsonFiles(final List<File> source) {
-        try {
-            return StreamSupport.stream(AllureUtils.listTestSuiteJsonFiles(source))
-                    .map(new Function<File, Optional<TestSuiteResult>>() {
-                        @Override
-                        public Optional<TestSuiteResult> apply(File file) {
-                            return readJsonTestSuiteFile(file);
-                        }
-                    })
-                    .filter(new Predicate<Optional<TestSuiteResult>>() {
-                        @Override
-                        public boolean test(Optional<TestSuiteResult> testSuiteResultOptional) {
-                            return testSuiteResultOptional.isPresent();
-                        }
-                    })
-                    .map(new Function<Optional<TestSuiteResult>, TestSuiteResult>() {
-                        @Override
-                        public TestSuiteResult apply(Optional<TestSuiteResult> testSuiteResultOptional) {
-                            return testSuiteResultOptional.get();
-                        }
-                    });
-        } catch (IOException e) {
-            return RefStreams.empty();
-        }
-    }
-
     private Optional<TestSuiteResult> readXmlTestSuiteFile(final File source)  {
         InputStream is = null;
         try {
@@ -657,43 +877,29 @@ public class Allure1Plugin implements Reader {
                 .findFirst().get();
     }
 
-    private static String getHistoryId(final String name, final List<Parameter> parameters) {
-        final MessageDigest digest = getMessageDigest();
-        digest.update(name.getBytes(Charset.forName("UTF-8")));
-        StreamSupport.stream(parameters)
-                .sorted(PARAMETER_COMPARATOR)
-                .forEachOrdered(new Consumer<Parameter>() {
-                    @Override
-                    public void accept(Parameter parameter) {
-                        digest.update(Objects.toString(parameter.getName()).getBytes(Charset.forName("UTF-8")));
-                        digest.update(Objects.toString(parameter.getValue()).getBytes(Charset.forName("UTF-8")));
-                    }
-                });
-        final byte[] bytes = digest.digest();
-        return new BigInteger(1, bytes).toString(16);
-    }
-
-    private static MessageDigest getMessageDigest() {
-        try {
-            return MessageDigest.getInstance(MD_5);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Could not find md5 hashing algorithm", e);
+    private String getHistoryId(final String name, final List<Parameter> parameters) {
+        final HistoryIdHasher hasher = HistoryIdHasher.get(historyIdAlgorithm).update(name);
+        final List<Parameter> sorted;
+        if (parameters.size() > 1) {
+            sorted = new ArrayList<>(parameters);
+            Collections.sort(sorted, PARAMETER_COMPARATOR);
+        } else {
+            sorted = parameters;
+        }
+        for (Parameter parameter : sorted) {
+            hasher.update(parameter.getName()).update(parameter.getValue());
         }
+        return hasher.digest();
     }
 
-    private Map<String, String> processEnvironment(final List<File> fileList) {
-        final Map<String, String> environment = processEnvironmentProperties(fileList);
-        environment.putAll(processEnvironmentXml(fileList));
+    private Map<String, String> processEnvironment(final ResultsDirectoryIndex index) {
+        final Map<String, String> environment = processEnvironmentProperties(index);
+        environment.putAll(processEnvironmentXml(index));
         return environment;
     }
 
-    private Map<String, String> processEnvironmentProperties(final List<File> fileList) {
-        Optional<File> environmentProperties = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals("environment.properties");
-            }
-        }).findFirst();
+    private Map<String, String> processEnvironmentProperties(final ResultsDirectoryIndex index) {
+        Optional<File> environmentProperties = Optional.ofNullable(index.find("environment.properties"));
         final Map<String, String> items = new HashMap<>();
         if (environmentProperties.isPresent()) {
             if (environmentProperties.get().exists()) {
@@ -721,13 +927,8 @@ public class Allure1Plugin implements Reader {
         return items;
     }
 
-    private Map<String, String> processEnvironmentXml(final List<File> fileList) {
-        Optional<File> environmentPropertiesXml = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals("environment.xml");
-            }
-        }).findFirst();
+    private Map<String, String> processEnvironmentXml(final ResultsDirectoryIndex index) {
+        Optional<File> environmentPropertiesXml = Optional.ofNullable(index.find("environment.xml"));
         final Map<String, String> items = new HashMap<>();
         if (environmentPropertiesXml.isPresent()) {
             if (environmentPropertiesXml.get().exists()) {
@@ -756,14 +957,4 @@ public class Allure1Plugin implements Reader {
         return items;
     }
 
-    private File getFileFromList(List<File> fileList, String name) {
-        File targetFile = null;
-        for (File file : fileList) {
-            if (file.getName().contains(name)) {
-                targetFile = file;
-            }
-        }
-        return targetFile;
-    }
-
 }
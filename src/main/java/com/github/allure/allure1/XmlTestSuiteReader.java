@@ -0,0 +1,381 @@
+package com.github.allure.allure1;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.helpers.DefaultHandler;
+import ru.yandex.qatools.allure.model.Attachment;
+import ru.yandex.qatools.allure.model.Description;
+import ru.yandex.qatools.allure.model.DescriptionType;
+import ru.yandex.qatools.allure.model.Failure;
+import ru.yandex.qatools.allure.model.Label;
+import ru.yandex.qatools.allure.model.Parameter;
+import ru.yandex.qatools.allure.model.ParameterKind;
+import ru.yandex.qatools.allure.model.Status;
+import ru.yandex.qatools.allure.model.Step;
+import ru.yandex.qatools.allure.model.TestCaseResult;
+import ru.yandex.qatools.allure.model.TestSuiteResult;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streaming reader of Allure 1 {@code -testsuite.xml} files. Test cases are
+ * handed out one at a time and never collected into the suite, so memory
+ * depends on the largest test case rather than on the whole file.
+ * <p>
+ * Suite labels follow the test cases in the file, so the suite header is read
+ * in a first pass that skips test case bodies, and test cases are built in a
+ * second pass. Every file is thus read twice; buffering test cases until the
+ * labels arrive would avoid that, but hold the whole suite in memory again.
+ * <p>
+ * External entities and DTDs are never loaded: the handler resolves them to
+ * empty input, and parser features that disable them are set where the
+ * parser supports them. Wrapped lists ({@code <steps>}, {@code <labels>},
+ * ...) are treated the same way as the bound reader does: missing wrappers
+ * produce empty lists.
+ */
+public class XmlTestSuiteReader {
+
+    /**
+     * Receives test cases of a suite in file order.
+     */
+    public interface TestCaseHandler {
+
+        void handle(TestSuiteResult testSuite, TestCaseResult testCase);
+    }
+
+    private final SAXParserFactory factory;
+
+    public XmlTestSuiteReader() {
+        factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature("http://xml.org/sax/features/external-general-entities", false);
+        setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+    }
+
+    /**
+     * Sets the feature if the parser knows it; parsers without it, such as
+     * the Android one, still get no external entities from the handler.
+     */
+    private void setFeature(final String feature, final boolean value) {
+        try {
+            factory.setFeature(feature, value);
+        } catch (ParserConfigurationException e) {
+            // not supported by this parser
+        } catch (SAXNotRecognizedException e) {
+            // not known to this parser
+        } catch (SAXNotSupportedException e) {
+            // not supported by this parser
+        }
+    }
+
+    private interface Source {
+
+        InputStream open() throws IOException;
+    }
+
+    public void read(final File file, final TestCaseHandler handler) throws IOException {
+        read(new Source() {
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        }, file.getPath(), handler);
+    }
+
+    public void read(final ZipFile zipFile, final ZipEntry entry, final TestCaseHandler handler) throws IOException {
+        read(new Source() {
+            @Override
+            public InputStream open() throws IOException {
+                return zipFile.getInputStream(entry);
+            }
+        }, zipFile.getName() + "!/" + entry.getName(), handler);
+    }
+
+    /**
+     * Reads the source twice: once for the suite header, once for test cases.
+     */
+    private void read(final Source source, final String name, final TestCaseHandler handler) throws IOException {
+        final SuiteHandler header = new SuiteHandler(null, null);
+        parse(source, name, header);
+        if (header.suite == null) {
+            throw new IOException("No test-suite element in " + name);
+        }
+        parse(source, name, new SuiteHandler(header.suite, handler));
+    }
+
+    private void parse(final Source source, final String name, final DefaultHandler handler) throws IOException {
+        final InputStream stream = source.open();
+        try {
+            final SAXParser parser;
+            synchronized (factory) {
+                parser = factory.newSAXParser();
+            }
+            parser.parse(stream, handler);
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Could not parse " + name + ": " + e.getMessage());
+        } catch (SAXException e) {
+            throw new IOException("Could not parse " + name + ": " + e.getMessage());
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Builds the suite header when {@code cases} is null, otherwise builds
+     * test cases and passes them to {@code cases} together with the header.
+     */
+    private static final class SuiteHandler extends DefaultHandler {
+
+        private final TestCaseHandler cases;
+
+        private final List<Object> stack = new ArrayList<>();
+
+        private final StringBuilder text = new StringBuilder();
+
+        private TestSuiteResult suite;
+
+        private int skipDepth;
+
+        private SuiteHandler(final TestSuiteResult suite, final TestCaseHandler cases) {
+            this.suite = suite;
+            this.cases = cases;
+        }
+
+        @Override
+        public InputSource resolveEntity(final String publicId, final String systemId) {
+            return new InputSource(new StringReader(""));
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName,
+                                 final Attributes attributes) {
+            if (skipDepth > 0) {
+                skipDepth++;
+                return;
+            }
+            text.setLength(0);
+            final String name = name(localName, qName);
+            final Object current = peek();
+            if ("test-suite".equals(name)) {
+                if (cases == null) {
+                    suite = new TestSuiteResult();
+                    suite.setStart(longValue(attributes.getValue("start")));
+                    suite.setStop(longValue(attributes.getValue("stop")));
+                    suite.setVersion(attributes.getValue("version"));
+                    stack.add(suite);
+                } else {
+                    stack.add(suite);
+                }
+            } else if ("test-cases".equals(name)) {
+                if (cases == null) {
+                    skipDepth = 1;
+                }
+            } else if (cases != null && stack.size() == 1 && !"test-case".equals(name)) {
+                skipDepth = 1;
+            } else if ("test-case".equals(name)) {
+                final TestCaseResult testCase = new TestCaseResult();
+                testCase.setStart(longValue(attributes.getValue("start")));
+                testCase.setStop(longValue(attributes.getValue("stop")));
+                testCase.setStatus(status(attributes.getValue("status")));
+                stack.add(testCase);
+            } else if ("step".equals(name)) {
+                final Step step = new Step();
+                step.setStart(longValue(attributes.getValue("start")));
+                step.setStop(longValue(attributes.getValue("stop")));
+                step.setStatus(status(attributes.getValue("status")));
+                stack.add(step);
+            } else if ("failure".equals(name)) {
+                stack.add(new Failure());
+            } else if ("description".equals(name)) {
+                final Description description = new Description();
+                description.setType(descriptionType(attributes.getValue("type")));
+                stack.add(description);
+            } else if ("label".equals(name)) {
+                final Label label = new Label();
+                label.setName(attributes.getValue("name"));
+                label.setValue(attributes.getValue("value"));
+                if (current instanceof TestSuiteResult) {
+                    ((TestSuiteResult) current).getLabels().add(label);
+                } else if (current instanceof TestCaseResult) {
+                    ((TestCaseResult) current).getLabels().add(label);
+                }
+            } else if ("parameter".equals(name)) {
+                final Parameter parameter = new Parameter();
+                parameter.setName(attributes.getValue("name"));
+                parameter.setValue(attributes.getValue("value"));
+                parameter.setKind(parameterKind(attributes.getValue("kind")));
+                if (current instanceof TestCaseResult) {
+                    ((TestCaseResult) current).getParameters().add(parameter);
+                }
+            } else if ("attachment".equals(name)) {
+                final Attachment attachment = new Attachment();
+                attachment.setTitle(attributes.getValue("title"));
+                attachment.setSource(attributes.getValue("source"));
+                attachment.setType(attributes.getValue("type"));
+                final String size = attributes.getValue("size");
+                attachment.setSize(size == null ? null : (int) longValue(size));
+                if (current instanceof TestCaseResult) {
+                    ((TestCaseResult) current).getAttachments().add(attachment);
+                } else if (current instanceof Step) {
+                    ((Step) current).getAttachments().add(attachment);
+                }
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (skipDepth == 0) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            if (skipDepth > 0) {
+                skipDepth--;
+                return;
+            }
+            final String name = name(localName, qName);
+            final Object current = peek();
+            if ("name".equals(name)) {
+                setName(current, text.toString());
+            } else if ("title".equals(name)) {
+                setTitle(current, text.toString());
+            } else if ("message".equals(name) && current instanceof Failure) {
+                ((Failure) current).setMessage(text.toString());
+            } else if ("stack-trace".equals(name) && current instanceof Failure) {
+                ((Failure) current).setStackTrace(text.toString());
+            } else if ("description".equals(name)) {
+                final Description description = (Description) pop();
+                description.setValue(text.toString());
+                final Object parent = peek();
+                if (parent instanceof TestSuiteResult) {
+                    ((TestSuiteResult) parent).setDescription(description);
+                } else if (parent instanceof TestCaseResult) {
+                    ((TestCaseResult) parent).setDescription(description);
+                }
+            } else if ("failure".equals(name)) {
+                final Failure failure = (Failure) pop();
+                if (peek() instanceof TestCaseResult) {
+                    ((TestCaseResult) peek()).setFailure(failure);
+                }
+            } else if ("step".equals(name)) {
+                final Step step = (Step) pop();
+                final Object parent = peek();
+                if (parent instanceof TestCaseResult) {
+                    ((TestCaseResult) parent).getSteps().add(step);
+                } else if (parent instanceof Step) {
+                    ((Step) parent).getSteps().add(step);
+                }
+            } else if ("test-case".equals(name)) {
+                final TestCaseResult testCase = (TestCaseResult) pop();
+                if (cases != null) {
+                    cases.handle(suite, testCase);
+                }
+            } else if ("test-suite".equals(name)) {
+                pop();
+            }
+            text.setLength(0);
+        }
+
+        private Object peek() {
+            return stack.isEmpty() ? null : stack.get(stack.size() - 1);
+        }
+
+        private Object pop() {
+            return stack.remove(stack.size() - 1);
+        }
+
+        private static void setName(final Object target, final String value) {
+            if (target instanceof TestSuiteResult) {
+                ((TestSuiteResult) target).setName(value);
+            } else if (target instanceof TestCaseResult) {
+                ((TestCaseResult) target).setName(value);
+            } else if (target instanceof Step) {
+                ((Step) target).setName(value);
+            }
+        }
+
+        private static void setTitle(final Object target, final String value) {
+            if (target instanceof TestSuiteResult) {
+                ((TestSuiteResult) target).setTitle(value);
+            } else if (target instanceof TestCaseResult) {
+                ((TestCaseResult) target).setTitle(value);
+            } else if (target instanceof Step) {
+                ((Step) target).setTitle(value);
+            }
+        }
+
+        private static String name(final String localName, final String qName) {
+            if (localName != null && !localName.isEmpty()) {
+                return localName;
+            }
+            final int colon = qName.indexOf(':');
+            return colon < 0 ? qName : qName.substring(colon + 1);
+        }
+
+        private static long longValue(final String value) {
+            if (value == null) {
+                return 0L;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+
+        private static Status status(final String value) {
+            if (value == null) {
+                return null;
+            }
+            for (Status status : Status.values()) {
+                if (status.value().equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            return null;
+        }
+
+        private static DescriptionType descriptionType(final String value) {
+            if (value == null) {
+                return null;
+            }
+            for (DescriptionType type : DescriptionType.values()) {
+                if (type.value().equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        private static ParameterKind parameterKind(final String value) {
+            if (value == null) {
+                return null;
+            }
+            for (ParameterKind kind : ParameterKind.values()) {
+                if (kind.value().equalsIgnoreCase(value)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -4,6 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.allure.ParameterComparator;
 
 import com.github.allure.StageResultComparator;
+import com.github.allure.cache.CachedResults;
+import com.github.allure.cache.ParseCache;
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.concurrent.IoThrottle;
+import com.github.allure.concurrent.ReadThroughput;
+import com.github.allure.concurrent.SynchronizedResultsVisitor;
+import com.github.allure.utils.AttachmentSource;
+import com.github.allure.utils.Contexts;
+import com.github.allure.utils.ResultsDirectoryIndex;
+import com.github.allure.utils.ZipResults;
 
 
 import java.io.File;
@@ -71,28 +81,289 @@ public class Allure2Plugin implements Reader {
 
     private final ObjectMapper mapper;
 
+    private int parallelism = 1;
+
+    private boolean streaming;
+
+    private volatile ReadThroughput lastThroughput;
+
+    private final StreamingResultParser streamingParser;
+
     public Allure2Plugin() {
         mapper = Allure2ModelJackson.createMapper()
                 .addMixIn(TestResultContainer.class, TestContainerIgnoreConflictsMixin.class);
+        streamingParser = new StreamingResultParser(mapper.getFactory());
+    }
+
+    /**
+     * Sets the number of worker threads used to parse and convert result files.
+     * The default value of 1 reads everything on the calling thread.
+     */
+    public Allure2Plugin setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Reads result files with {@link StreamingResultParser} straight into the
+     * entity model instead of binding them to the Allure 2 model first.
+     */
+    public Allure2Plugin setStreaming(final boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Returns files/sec throughput of the latest {@link #readResults} run.
+     */
+    public ReadThroughput getLastThroughput() {
+        return lastThroughput;
     }
 
     @Override
     public void readResults(Configuration configuration, ResultsVisitor visitor, List<File> fileList) {
         final RandomUidContext context = configuration.getContext(RandomUidContext.class);
-        final List<TestResultContainer> groups = readTestResultsContainers(fileList)
-                .collect(Collectors.toList());
-        readTestResults(fileList).forEach(new Consumer<TestResult>() {
+        final ReadThroughput throughput = new ReadThroughput();
+        final ParseCache cache = Contexts.find(configuration, ParseCache.class);
+        final IoThrottle throttle = IoThrottle.find(configuration);
+        final ResultsDirectoryIndex index = ResultsDirectoryIndex.of(fileList);
+        for (File archive : index.get(ResultsDirectoryIndex.Role.ARCHIVE)) {
+            readZipResults(context.getValue(), visitor, archive, throttle, throughput);
+        }
+        final AttachmentSource attachments = index.getAttachments();
+        if (parallelism > 1) {
+            readResultsInParallel(context.getValue(), SynchronizedResultsVisitor.wrap(visitor), index, attachments,
+                    cache, throttle, throughput);
+        } else {
+            final ContainerIndex groups = new ContainerIndex(readTestResultsContainers(index, throttle, throughput)
+                    .collect(Collectors.toList()));
+            final FixtureCache fixtures = newFixtureCache(attachments, visitor);
+            StreamSupport.stream(index.get(ResultsDirectoryIndex.Role.RESULT)).forEach(new Consumer<File>() {
+                @Override
+                public void accept(File file) {
+                    throughput.onFile();
+                    if (readTestResult(context.getValue(), attachments, visitor, groups, fixtures, cache, throttle,
+                            file)) {
+                        throughput.onResult();
+                    }
+                }
+            });
+        }
+        lastThroughput = throughput.stop();
+    }
+
+    private void readResultsInParallel(final Supplier<String> uidGenerator,
+                                       final ResultsVisitor visitor,
+                                       final ResultsDirectoryIndex index,
+                                       final AttachmentSource attachments,
+                                       final ParseCache cache,
+                                       final IoThrottle throttle,
+                                       final ReadThroughput throughput) {
+        final List<TestResultContainer> groups = Collections.synchronizedList(new ArrayList<TestResultContainer>());
+        final BoundedExecutor containersExecutor = new BoundedExecutor("allure2-containers", parallelism);
+        StreamSupport.stream(index.get(ResultsDirectoryIndex.Role.CONTAINER)).forEach(new Consumer<File>() {
             @Override
-            public void accept(TestResult testResult) {
-                convert(context.getValue(), fileList, visitor, groups, testResult);
+            public void accept(final File file) {
+                containersExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        throughput.onFile();
+                        final Optional<TestResultContainer> container = readTestResultContainer(file, throttle);
+                        if (container.isPresent()) {
+                            groups.add(container.get());
+                        }
+                    }
+                });
             }
         });
+        containersExecutor.awaitAll();
+
+        final ContainerIndex containers = new ContainerIndex(new ArrayList<>(groups));
+        final FixtureCache fixtures = newFixtureCache(attachments, visitor);
+        final BoundedExecutor resultsExecutor = new BoundedExecutor("allure2-results", parallelism);
+        StreamSupport.stream(index.get(ResultsDirectoryIndex.Role.RESULT)).forEach(new Consumer<File>() {
+            @Override
+            public void accept(final File file) {
+                resultsExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        throughput.onFile();
+                        if (readTestResult(uidGenerator, attachments, visitor, containers, fixtures, cache,
+                                throttle, file)) {
+                            throughput.onResult();
+                        }
+                    }
+                });
+            }
+        });
+        resultsExecutor.awaitAll();
     }
 
-    private void convert(final Supplier<String> uidGenerator,
-                         final List<File> fileList,
-                         final ResultsVisitor visitor,
-                         final List<TestResultContainer> groups, final TestResult result) {
+    /**
+     * Reads results packed into a zip archive. Result files are read straight
+     * from archive entries and attachments are visited by entry.
+     */
+    private void readZipResults(final Supplier<String> uidGenerator,
+                                final ResultsVisitor visitor,
+                                final File archive,
+                                final IoThrottle throttle,
+                                final ReadThroughput throughput) {
+        final ZipResults zip;
+        try {
+            zip = new ZipResults(archive);
+        } catch (IOException e) {
+            visitor.error("Could not read results archive " + archive, e);
+            return;
+        }
+        try {
+            final List<TestResultContainer> containers = new ArrayList<>();
+            for (ZipEntry entry : zip.list("-container.json")) {
+                throughput.onFile();
+                final IoThrottle.Permit permit = throttle.acquire(entry.getSize());
+                final Optional<TestResultContainer> container;
+                try {
+                    container = readTestResultContainer(zip, entry);
+                } finally {
+                    permit.release();
+                }
+                if (container.isPresent()) {
+                    containers.add(container.get());
+                }
+            }
+            final AttachmentSource attachments = zip.getAttachments();
+            final ContainerIndex groups = new ContainerIndex(containers);
+            final FixtureCache fixtures = newFixtureCache(attachments, visitor);
+            for (ZipEntry entry : zip.list("-result.json")) {
+                throughput.onFile();
+                final IoThrottle.Permit permit = throttle.acquire(entry.getSize());
+                InputStream inputStream = null;
+                try {
+                    inputStream = zip.open(entry);
+                    if (visit(visitor, groups, fixtures,
+                            parseTestResult(uidGenerator, attachments, visitor, inputStream))) {
+                        throughput.onResult();
+                    }
+                } catch (IOException e) {
+                    visitor.error("Could not read " + entry.getName() + " from " + archive, e);
+                } finally {
+                    closeQuietly(inputStream);
+                    permit.release();
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private boolean readTestResult(final Supplier<String> uidGenerator,
+                                   final AttachmentSource attachments,
+                                   final ResultsVisitor visitor,
+                                   final ContainerIndex groups,
+                                   final FixtureCache fixtures,
+                                   final ParseCache cache,
+                                   final IoThrottle throttle,
+                                   final File file) {
+        final IoThrottle.Permit permit = throttle.acquire(file);
+        try {
+            return readTestResult(uidGenerator, attachments, visitor, groups, fixtures, cache, file);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private boolean readTestResult(final Supplier<String> uidGenerator,
+                                   final AttachmentSource attachments,
+                                   final ResultsVisitor visitor,
+                                   final ContainerIndex groups,
+                                   final FixtureCache fixtures,
+                                   final ParseCache cache,
+                                   final File file) {
+        final String key = nonNull(cache) ? cache.key(file) : null;
+        if (nonNull(key)) {
+            final CachedResults cached = cache.get(key, file);
+            if (nonNull(cached)) {
+                for (int i = 0; i < cached.getResults().size(); i++) {
+                    final io.qameta.allure.entity.TestResult result = cached.getResults().get(i);
+                    result.setUid(uidGenerator.get());
+                    ParseCache.revisitAttachments(result, visitor);
+                    visit(visitor, groups, fixtures, new StreamingResultParser.ParsedResult(
+                            cached.getUuids().get(i), result));
+                }
+                return !cached.getResults().isEmpty();
+            }
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(file);
+            final StreamingResultParser.ParsedResult parsed = parseTestResult(uidGenerator, attachments, visitor,
+                    inputStream);
+            if (nonNull(key)) {
+                final CachedResults results = new CachedResults();
+                if (nonNull(parsed)) {
+                    results.add(parsed.getUuid(), parsed.getResult());
+                }
+                cache.put(key, file, results);
+            }
+            return visit(visitor, groups, fixtures, parsed);
+        } catch (IOException e) {
+            return false;
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    private boolean visit(final ResultsVisitor visitor,
+                          final ContainerIndex groups,
+                          final FixtureCache fixtures,
+                          final StreamingResultParser.ParsedResult parsed) {
+        if (Objects.isNull(parsed)) {
+            return false;
+        }
+        addStages(parsed.getResult(), parsed.getUuid(), groups, fixtures);
+        visitor.visitTestResult(parsed.getResult());
+        return true;
+    }
+
+    /**
+     * Parses and converts a result without container stages, returns null if
+     * the result could not be read.
+     */
+    private StreamingResultParser.ParsedResult parseTestResult(final Supplier<String> uidGenerator,
+                                                               final AttachmentSource attachments,
+                                                               final ResultsVisitor visitor,
+                                                               final InputStream inputStream) {
+        if (!streaming) {
+            final Optional<TestResult> result = readTestResult(inputStream);
+            if (!result.isPresent()) {
+                return null;
+            }
+            return new StreamingResultParser.ParsedResult(result.get().getUuid(),
+                    convert(uidGenerator, attachments, visitor, result.get()));
+        }
+        try {
+            return streamingParser.parse(inputStream, uidGenerator.get(), new StreamingResultParser.AttachmentResolver() {
+                @Override
+                public Attachment resolve(String name, String source, String type) {
+                    return convert(attachments, visitor, name, source, type);
+                }
+            });
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private io.qameta.allure.entity.TestResult convert(final Supplier<String> uidGenerator,
+                                                       final AttachmentSource attachments,
+                                                       final ResultsVisitor visitor,
+                                                       final TestResult result) {
         final io.qameta.allure.entity.TestResult dest = new io.qameta.allure.entity.TestResult();
         dest.setUid(uidGenerator.get());
         dest.setHistoryId(result.getHistoryId());
@@ -126,23 +397,29 @@ public class Allure2Plugin implements Reader {
 
 
         if (hasTestStage(result)) {
-            dest.setTestStage(getTestStage(fileList, visitor, result));
+            dest.setTestStage(getTestStage(attachments, visitor, result));
         }
 
-        final List<TestResultContainer> parents = findAllParents(groups, result.getUuid(), new HashSet<>());
+        return dest;
+    }
+
+    private void addStages(final io.qameta.allure.entity.TestResult dest,
+                           final String uuid,
+                           final ContainerIndex groups,
+                           final FixtureCache fixtures) {
+        final List<TestResultContainer> parents = groups.findAllParents(uuid);
         dest.getBeforeStages().addAll(getStages(parents, new Function<TestResultContainer, Stream<StageResult>>() {
             @Override
             public Stream<StageResult> apply(TestResultContainer testResultContainer) {
-                return getBefore(fileList, visitor, testResultContainer);
+                return StreamSupport.stream(fixtures.getBefores(testResultContainer));
             }
         }));
         dest.getAfterStages().addAll(getStages(parents, new Function<TestResultContainer, Stream<StageResult>>() {
             @Override
             public Stream<StageResult> apply(TestResultContainer testResultContainer) {
-                return getAfter(fileList, visitor, testResultContainer);
+                return StreamSupport.stream(fixtures.getAfters(testResultContainer));
             }
         }));
-        visitor.visitTestResult(dest);
     }
 
     private Status convert(final io.qameta.allure.model.Status status) {
@@ -162,6 +439,12 @@ public class Allure2Plugin implements Reader {
 
     private <T, R> List<R> convert(final List<T> source, final Function<T, R> converter) {
         return Objects.isNull(source) ? Collections.emptyList() : StreamSupport.stream(source)
+                .filter(new Predicate<T>() {
+                    @Override
+                    public boolean test(T item) {
+                        return nonNull(item);
+                    }
+                })
                 .map(converter)
                 .collect(Collectors.toList());
     }
@@ -220,20 +503,20 @@ public class Allure2Plugin implements Reader {
         return new ArrayList<>(parametersSet);
     }
 
-    private StageResult getTestStage(final List<File> fileList,
+    private StageResult getTestStage(final AttachmentSource attachments,
                                      final ResultsVisitor visitor,
                                      final TestResult result) {
         final StageResult testStage = new StageResult();
         testStage.setSteps(convert(result.getSteps(), new Function<StepResult, Step>() {
             @Override
             public Step apply(StepResult stepResult) {
-                return convert(fileList, visitor, stepResult);
+                return convert(attachments, visitor, stepResult);
             }
         }));
         testStage.setAttachments(convert(result.getAttachments(), new Function<io.qameta.allure.model.Attachment, Attachment>() {
             @Override
             public Attachment apply(io.qameta.allure.model.Attachment attachment) {
-                return convert(fileList, visitor, attachment);
+                return convert(attachments, visitor, attachment);
             }
         }));
         testStage.setStatus(convert(result.getStatus()));
@@ -256,7 +539,7 @@ public class Allure2Plugin implements Reader {
         return testStage;
     }
 
-    private Step convert(final List<File> fileList,
+    private Step convert(final AttachmentSource attachments,
                          final ResultsVisitor visitor,
                          final StepResult step) {
         final Step result = new Step()
@@ -272,13 +555,13 @@ public class Allure2Plugin implements Reader {
                 .setAttachments(convert(step.getAttachments(), new Function<io.qameta.allure.model.Attachment, Attachment>() {
                     @Override
                     public Attachment apply(io.qameta.allure.model.Attachment attachment) {
-                        return convert(fileList, visitor, attachment);
+                        return convert(attachments, visitor, attachment);
                     }
                 }))
                 .setSteps(convert(step.getSteps(), new Function<StepResult, Step>() {
                     @Override
                     public Step apply(StepResult stepResult) {
-                        return convert(fileList, visitor, stepResult);
+                        return convert(attachments, visitor, stepResult);
                     }
                 }));
         Optional.of(step)
@@ -298,29 +581,36 @@ public class Allure2Plugin implements Reader {
         return result;
     }
 
-    private Attachment convert(final List<File> fileList,
+    private Attachment convert(final AttachmentSource attachments,
                                final ResultsVisitor visitor,
                                final io.qameta.allure.model.Attachment attachment) {
-        final File attachmentFile = getFileFromList(fileList, attachment.getSource());
-        if (attachmentFile.isFile() && attachmentFile.exists()) {
-            final Attachment found = visitor.visitAttachmentFile(attachmentFile);
-            if (nonNull(attachment.getType())) {
-                found.setType(attachment.getType());
+        return convert(attachments, visitor, attachment.getName(), attachment.getSource(), attachment.getType());
+    }
+
+    private Attachment convert(final AttachmentSource attachments,
+                               final ResultsVisitor visitor,
+                               final String name,
+                               final String source,
+                               final String type) {
+        final Attachment found = attachments.visit(source, type, visitor);
+        if (nonNull(found)) {
+            if (nonNull(type)) {
+                found.setType(type);
             }
-            if (nonNull(attachment.getName())) {
-                found.setName(attachment.getName());
+            if (nonNull(name)) {
+                found.setName(name);
             }
             return found;
         } else {
-            visitor.error("Could not find attachment " + attachment.getSource() + " in directory " + fileList);
+            visitor.error("Could not find attachment " + source);
             return new Attachment()
-                    .setType(attachment.getType())
-                    .setName(attachment.getName())
+                    .setType(type)
+                    .setName(name)
                     .setSize(0L);
         }
     }
 
-    private StageResult convert(final List<File> fileList,
+    private StageResult convert(final AttachmentSource attachments,
                                 final ResultsVisitor visitor,
                                 final FixtureResult result) {
         final StageResult stageResult = new StageResult()
@@ -330,7 +620,7 @@ public class Allure2Plugin implements Reader {
                 .setSteps(convert(result.getSteps(), new Function<StepResult, Step>() {
                     @Override
                     public Step apply(StepResult stepResult) {
-                        return convert(fileList, visitor, stepResult);
+                        return convert(attachments, visitor, stepResult);
                     }
                 }))
                 .setDescription(result.getDescription())
@@ -338,7 +628,7 @@ public class Allure2Plugin implements Reader {
                 .setAttachments(convert(result.getAttachments(), new Function<io.qameta.allure.model.Attachment, Attachment>() {
                     @Override
                     public Attachment apply(io.qameta.allure.model.Attachment attachment) {
-                        return convert(fileList, visitor, attachment);
+                        return convert(attachments, visitor, attachment);
                     }
                 }))
                 .setParameters(convert(result.getParameters(), new Function<io.qameta.allure.model.Parameter, Parameter>() {
@@ -375,22 +665,15 @@ public class Allure2Plugin implements Reader {
         return StreamSupport.stream(list);
     }
 
-    private File getFileFromList(List<File> fileList, String name) {
-        File targetFile = null;
-        for (File file : fileList) {
-            if (file.getName().contains(name)) {
-                targetFile = file;
-            }
-        }
-        return targetFile;
-    }
-
-    private Stream<TestResultContainer> readTestResultsContainers(final List<File> fileList) {
-        return listFiles(fileList, "-container.json")
+    private Stream<TestResultContainer> readTestResultsContainers(final ResultsDirectoryIndex index,
+                                                                  final IoThrottle throttle,
+                                                                  final ReadThroughput throughput) {
+        return StreamSupport.stream(index.get(ResultsDirectoryIndex.Role.CONTAINER))
                 .map(new Function<File, Optional<TestResultContainer>>() {
                     @Override
                     public Optional<TestResultContainer> apply(File file) {
-                        return readTestResultContainer(file);
+                        throughput.onFile();
+                        return readTestResultContainer(file, throttle);
                     }
                 })
                 .filter(new Predicate<Optional<TestResultContainer>>() {
@@ -407,52 +690,42 @@ public class Allure2Plugin implements Reader {
                 });
     }
 
-    private Optional<TestResultContainer> readTestResultContainer(final File file) {
+    private Optional<TestResultContainer> readTestResultContainer(final File file, final IoThrottle throttle) {
+        final IoThrottle.Permit permit = throttle.acquire(file);
         InputStream inputStream = null;
         try {
             inputStream = new FileInputStream(file);
             return Optional.ofNullable(mapper.readValue(inputStream, TestResultContainer.class));
         } catch (IOException e) {
             return Optional.empty();
-        }finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        } finally {
+            closeQuietly(inputStream);
+            permit.release();
         }
     }
 
-    private Stream<TestResult> readTestResults(final List<File> fileList) {
-        return listFiles(fileList, "-result.json")
-                .map(new Function<File, Optional<TestResult>>() {
-                    @Override
-                    public Optional<TestResult> apply(File file) {
-                        return readTestResult(file);
-                    }
-                })
-                .filter(new Predicate<Optional<TestResult>>() {
-                    @Override
-                    public boolean test(Optional<TestResult> testResultOptional) {
-                        return testResultOptional.isPresent();
-                    }
-                })
-                .map(new Function<Optional<TestResult>, TestResult>() {
-                    @Override
-                    public TestResult apply(Optional<TestResult> testResultOptional) {
-                        return testResultOptional.get();
-                    }
-                });
+    private Optional<TestResultContainer> readTestResultContainer(final ZipResults zip, final ZipEntry entry) {
+        InputStream inputStream = null;
+        try {
+            inputStream = zip.open(entry);
+            return Optional.ofNullable(mapper.readValue(inputStream, TestResultContainer.class));
+        } catch (IOException e) {
+            return Optional.empty();
+        } finally {
+            closeQuietly(inputStream);
+        }
     }
 
-    private Optional<TestResult> readTestResult(final File file) {
-        InputStream inputStream = null;
+    private Optional<TestResult> readTestResult(final InputStream inputStream) {
         try {
-            inputStream = new FileInputStream(file);
             return Optional.ofNullable(mapper.readValue(inputStream, TestResult.class));
         } catch (IOException e) {
             return Optional.empty();
-        }finally {
+        }
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if (inputStream != null) {
             try {
                 inputStream.close();
             } catch (IOException e) {
@@ -461,36 +734,6 @@ public class Allure2Plugin implements Reader {
         }
     }
 
-    private List<TestResultContainer> findAllParents(final List<TestResultContainer> groups,
-                                                     final String id,
-                                                     final Set<String> seen) {
-        final List<TestResultContainer> parents = findParents(groups, id, seen);
-        final List<TestResultContainer> result = new ArrayList<>(parents);
-        for (TestResultContainer container : parents) {
-            result.addAll(findAllParents(groups, container.getUuid(), seen));
-        }
-        return result;
-    }
-
-    private List<TestResultContainer> findParents(final List<TestResultContainer> groups,
-                                                  final String id,
-                                                  final Set<String> seen) {
-        return StreamSupport.stream(groups)
-                .filter(new Predicate<TestResultContainer>() {
-                    @Override
-                    public boolean test(TestResultContainer testResultContainer) {
-                        return testResultContainer.getChildren().contains(id);
-                    }
-                })
-                .filter(new Predicate<TestResultContainer>() {
-                    @Override
-                    public boolean test(TestResultContainer testResultContainer) {
-                        return !seen.contains(testResultContainer.getUuid());
-                    }
-                })
-                .collect(Collectors.toList());
-    }
-
     private List<StageResult> getStages(final List<TestResultContainer> parents,
                                         final Function<TestResultContainer, Stream<StageResult>> getter) {
         return StreamSupport.stream(parents)
@@ -498,29 +741,20 @@ public class Allure2Plugin implements Reader {
                 .collect(Collectors.toList());
     }
 
-    private Stream<StageResult> getBefore(final List<File> fileList,
-                                          final ResultsVisitor visitor,
-                                          final TestResultContainer container) {
-        return StreamSupport.stream(convert(container.getBefores(), new Function<FixtureResult, StageResult>() {
+    private FixtureCache newFixtureCache(final AttachmentSource attachments, final ResultsVisitor visitor) {
+        return new FixtureCache(new Function<List<FixtureResult>, List<StageResult>>() {
             @Override
-            public StageResult apply(FixtureResult fixtureResult) {
-                return convert(fileList, visitor, fixtureResult);
-            }
-        })).sorted(BY_START);
-    }
-
-    private Stream<StageResult> getAfter(final List<File> fileList,
-                                         final ResultsVisitor visitor,
-                                         final TestResultContainer container) {
-        return StreamSupport.stream(convert(container.getAfters(), new Function<FixtureResult, StageResult>() {
-            @Override
-            public StageResult apply(FixtureResult fixtureResult) {
-                return convert(fileList, visitor, fixtureResult);
+            public List<StageResult> apply(List<FixtureResult> fixtures) {
+                return StreamSupport.stream(convert(fixtures, new Function<FixtureResult, StageResult>() {
+                    @Override
+                    public StageResult apply(FixtureResult fixtureResult) {
+                        return convert(attachments, visitor, fixtureResult);
+                    }
+                })).sorted(BY_START).collect(Collectors.<StageResult>toList());
             }
-        })).sorted(BY_START);
+        });
     }
 
-
     @SafeVarargs
     private static <T> T firstNonNull(final T... items) {
         return RefStreams.of(items)
@@ -0,0 +1,124 @@
+package com.github.allure.allure2;
+
+import io.qameta.allure.model.TestResultContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Child uuid to parent containers index, built once per read. Transitive
+ * ancestors are memoized per container, so resolving parents of every test
+ * result is linear in the size of the container graph. Cycles in the graph
+ * are cut at the first container that is already on the current path;
+ * ancestors found while a cycle was cut above the container are not
+ * memoized, so answers never depend on the order of lookups.
+ */
+public class ContainerIndex {
+
+    private final Map<String, List<TestResultContainer>> parents = new HashMap<>();
+
+    private final Map<String, List<TestResultContainer>> ancestors = new ConcurrentHashMap<>();
+
+    public ContainerIndex(final List<TestResultContainer> containers) {
+        for (TestResultContainer container : containers) {
+            if (container.getChildren() == null) {
+                continue;
+            }
+            for (String child : new HashSet<>(container.getChildren())) {
+                List<TestResultContainer> list = parents.get(child);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    parents.put(child, list);
+                }
+                list.add(container);
+            }
+        }
+    }
+
+    /**
+     * Returns direct parents of the given item followed by their ancestors.
+     */
+    public List<TestResultContainer> findAllParents(final String id) {
+        final List<TestResultContainer> direct = getParents(id);
+        if (direct.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Map<String, TestResultContainer> result = new LinkedHashMap<>();
+        for (TestResultContainer container : direct) {
+            result.put(container.getUuid(), container);
+        }
+        for (TestResultContainer container : direct) {
+            for (TestResultContainer ancestor : getAncestors(container.getUuid())) {
+                if (!result.containsKey(ancestor.getUuid())) {
+                    result.put(ancestor.getUuid(), ancestor);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private List<TestResultContainer> getParents(final String id) {
+        final List<TestResultContainer> direct = parents.get(id);
+        return direct == null ? Collections.<TestResultContainer>emptyList() : direct;
+    }
+
+    private List<TestResultContainer> getAncestors(final String uuid) {
+        return getAncestors(uuid, new HashMap<String, Integer>(), new int[1]);
+    }
+
+    /**
+     * Returns ancestors of the container, without the container itself.
+     * {@code path} maps containers being resolved to their depth; parents on
+     * the path are skipped to cut cycles, and {@code reached[0]} is set to the
+     * smallest depth skipped this way. A result that skipped nothing above
+     * its own depth is complete and memoized; others depend on the path.
+     */
+    private List<TestResultContainer> getAncestors(final String uuid,
+                                                   final Map<String, Integer> path,
+                                                   final int[] reached) {
+        final List<TestResultContainer> cached = ancestors.get(uuid);
+        if (cached != null) {
+            reached[0] = Integer.MAX_VALUE;
+            return cached;
+        }
+        final int depth = path.size();
+        path.put(uuid, depth);
+        int lowest = Integer.MAX_VALUE;
+        final Map<String, TestResultContainer> result = new LinkedHashMap<>();
+        final List<TestResultContainer> direct = getParents(uuid);
+        for (TestResultContainer container : direct) {
+            final Integer onPath = path.get(container.getUuid());
+            if (onPath == null) {
+                result.put(container.getUuid(), container);
+            } else {
+                lowest = Math.min(lowest, onPath);
+            }
+        }
+        for (TestResultContainer container : direct) {
+            if (path.containsKey(container.getUuid())) {
+                continue;
+            }
+            for (TestResultContainer ancestor : getAncestors(container.getUuid(), path, reached)) {
+                if (!uuid.equals(ancestor.getUuid()) && !result.containsKey(ancestor.getUuid())) {
+                    result.put(ancestor.getUuid(), ancestor);
+                }
+            }
+            lowest = Math.min(lowest, reached[0]);
+        }
+        path.remove(uuid);
+        final List<TestResultContainer> computed = Collections.unmodifiableList(
+                new ArrayList<>(result.values())
+        );
+        if (lowest >= depth) {
+            ancestors.put(uuid, computed);
+        }
+        reached[0] = lowest;
+        return computed;
+    }
+}
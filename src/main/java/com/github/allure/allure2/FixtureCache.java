@@ -0,0 +1,85 @@
+package com.github.allure.allure2;
+
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.TestResultContainer;
+import java8.util.function.Function;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Converted before/after fixtures of containers, keyed by container uuid and
+ * built once per read. Each container's fixtures are converted (and their
+ * attachments visited) exactly once, even when several threads ask for the
+ * same container.
+ * <p>
+ * Children of a container share the converted stages: the lists are
+ * unmodifiable, but the {@link StageResult} objects in them, with their
+ * steps and attachments, are the same mutable instances for every test
+ * under the container. A change made to a fixture stage of one result is
+ * seen by all its siblings; only changes that keep values equal, such as
+ * interning strings, are safe.
+ */
+public class FixtureCache {
+
+    private final ConcurrentMap<String, FutureTask<List<StageResult>>> befores = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, FutureTask<List<StageResult>>> afters = new ConcurrentHashMap<>();
+
+    private final Function<List<FixtureResult>, List<StageResult>> converter;
+
+    public FixtureCache(final Function<List<FixtureResult>, List<StageResult>> converter) {
+        this.converter = converter;
+    }
+
+    public List<StageResult> getBefores(final TestResultContainer container) {
+        return get(befores, container.getUuid(), container.getBefores());
+    }
+
+    public List<StageResult> getAfters(final TestResultContainer container) {
+        return get(afters, container.getUuid(), container.getAfters());
+    }
+
+    private List<StageResult> get(final ConcurrentMap<String, FutureTask<List<StageResult>>> cache,
+                                  final String uuid,
+                                  final List<FixtureResult> fixtures) {
+        if (uuid == null) {
+            return convert(fixtures);
+        }
+        FutureTask<List<StageResult>> task = cache.get(uuid);
+        if (task == null) {
+            final FutureTask<List<StageResult>> created = new FutureTask<>(new Callable<List<StageResult>>() {
+                @Override
+                public List<StageResult> call() {
+                    return convert(fixtures);
+                }
+            });
+            task = cache.putIfAbsent(uuid, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting fixtures of " + uuid, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not convert fixtures of " + uuid, e.getCause());
+        }
+    }
+
+    private List<StageResult> convert(final List<FixtureResult> fixtures) {
+        return Collections.unmodifiableList(converter.apply(fixtures));
+    }
+}
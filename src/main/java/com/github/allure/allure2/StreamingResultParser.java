@@ -0,0 +1,419 @@
+package com.github.allure.allure2;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.allure.ParameterComparator;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Link;
+import io.qameta.allure.entity.Parameter;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static io.qameta.allure.entity.LabelName.RESULT_FORMAT;
+
+/**
+ * Reads Allure 2 result files token by token straight into the entity model,
+ * without binding the intermediate {@link io.qameta.allure.model.TestResult}.
+ * Produces the same entity as {@link Allure2Plugin} conversion except for
+ * the before/after stages, which come from containers.
+ */
+public class StreamingResultParser {
+
+    /**
+     * Turns an attachment reference from a result file into a visited attachment.
+     */
+    public interface AttachmentResolver {
+
+        Attachment resolve(String name, String source, String type);
+    }
+
+    /**
+     * Parsed test result together with its uuid in the results directory.
+     */
+    public static class ParsedResult {
+
+        private final String uuid;
+
+        private final TestResult result;
+
+        ParsedResult(final String uuid, final TestResult result) {
+            this.uuid = uuid;
+            this.result = result;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public TestResult getResult() {
+            return result;
+        }
+    }
+
+    private static final class Details {
+        private String message;
+        private String trace;
+    }
+
+    private final JsonFactory factory;
+
+    public StreamingResultParser(final JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    public ParsedResult parse(final File file, final String uid, final AttachmentResolver resolver)
+            throws IOException {
+        return parse(factory.createParser(file), uid, resolver);
+    }
+
+    /**
+     * Parses a result from given stream. The stream is not closed.
+     */
+    public ParsedResult parse(final InputStream stream, final String uid, final AttachmentResolver resolver)
+            throws IOException {
+        return parse(factory.createParser(stream), uid, resolver);
+    }
+
+    private ParsedResult parse(final JsonParser parser, final String uid, final AttachmentResolver resolver)
+            throws IOException {
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected object at " + parser.getCurrentLocation());
+            }
+            return readTestResult(parser, uid, resolver);
+        } finally {
+            parser.close();
+        }
+    }
+
+    private ParsedResult readTestResult(final JsonParser parser, final String uid, final AttachmentResolver resolver)
+            throws IOException {
+        String uuid = null;
+        String name = null;
+        String fullName = null;
+        String historyId = null;
+        String description = null;
+        String descriptionHtml = null;
+        Status status = Status.UNKNOWN;
+        Details details = null;
+        Long start = null;
+        Long stop = null;
+        List<Label> labels = Collections.emptyList();
+        List<Link> links = Collections.emptyList();
+        List<Parameter> parameters = Collections.emptyList();
+        List<Step> steps = Collections.emptyList();
+        List<Attachment> attachments = Collections.emptyList();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("uuid".equals(field)) {
+                uuid = readString(parser);
+            } else if ("historyId".equals(field)) {
+                historyId = readString(parser);
+            } else if ("fullName".equals(field)) {
+                fullName = readString(parser);
+            } else if ("name".equals(field)) {
+                name = readString(parser);
+            } else if ("status".equals(field)) {
+                status = readStatus(parser);
+            } else if ("statusDetails".equals(field)) {
+                details = readDetails(parser);
+            } else if ("description".equals(field)) {
+                description = readString(parser);
+            } else if ("descriptionHtml".equals(field)) {
+                descriptionHtml = readString(parser);
+            } else if ("labels".equals(field)) {
+                labels = readLabels(parser);
+            } else if ("links".equals(field)) {
+                links = readLinks(parser);
+            } else if ("parameters".equals(field)) {
+                parameters = readParameters(parser);
+            } else if ("steps".equals(field)) {
+                steps = readSteps(parser, resolver);
+            } else if ("attachments".equals(field)) {
+                attachments = readAttachments(parser, resolver);
+            } else if ("start".equals(field)) {
+                start = readLong(parser);
+            } else if ("stop".equals(field)) {
+                stop = readLong(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        final TestResult dest = new TestResult();
+        dest.setUid(uid);
+        dest.setHistoryId(historyId);
+        dest.setFullName(fullName);
+        dest.setName(name != null ? name : fullName != null ? fullName : "Unknown test");
+        dest.setTime(Time.create(start, stop));
+        dest.setDescription(description);
+        dest.setDescriptionHtml(descriptionHtml);
+        dest.setStatus(status);
+        if (details != null) {
+            dest.setStatusMessage(details.message);
+            dest.setStatusTrace(details.trace);
+        }
+        dest.setLinks(links);
+        dest.setLabels(labels);
+        final TreeSet<Parameter> parametersSet = new TreeSet<>(new ParameterComparator());
+        parametersSet.addAll(parameters);
+        dest.setParameters(new ArrayList<>(parametersSet));
+        dest.addLabelIfNotExists(RESULT_FORMAT, Allure2Plugin.ALLURE2_RESULTS_FORMAT);
+
+        if (!steps.isEmpty() || !attachments.isEmpty()) {
+            final StageResult testStage = new StageResult()
+                    .setSteps(steps)
+                    .setAttachments(attachments)
+                    .setStatus(status)
+                    .setDescription(description)
+                    .setDescriptionHtml(descriptionHtml);
+            if (details != null) {
+                testStage.setStatusMessage(details.message);
+                testStage.setStatusTrace(details.trace);
+            }
+            dest.setTestStage(testStage);
+        }
+        return new ParsedResult(uuid, dest);
+    }
+
+    private List<Step> readSteps(final JsonParser parser, final AttachmentResolver resolver) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        final List<Step> steps = new ArrayList<>();
+        while (nextObject(parser)) {
+            steps.add(readStep(parser, resolver));
+        }
+        return steps;
+    }
+
+    private Step readStep(final JsonParser parser, final AttachmentResolver resolver) throws IOException {
+        final Step step = new Step()
+                .setStatus(Status.UNKNOWN)
+                .setParameters(Collections.<Parameter>emptyList())
+                .setAttachments(Collections.<Attachment>emptyList())
+                .setSteps(Collections.<Step>emptyList());
+        Long start = null;
+        Long stop = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("name".equals(field)) {
+                step.setName(readString(parser));
+            } else if ("status".equals(field)) {
+                step.setStatus(readStatus(parser));
+            } else if ("statusDetails".equals(field)) {
+                final Details details = readDetails(parser);
+                if (details != null) {
+                    step.setStatusMessage(details.message);
+                    step.setStatusTrace(details.trace);
+                }
+            } else if ("parameters".equals(field)) {
+                step.setParameters(readParameters(parser));
+            } else if ("attachments".equals(field)) {
+                step.setAttachments(readAttachments(parser, resolver));
+            } else if ("steps".equals(field)) {
+                step.setSteps(readSteps(parser, resolver));
+            } else if ("start".equals(field)) {
+                start = readLong(parser);
+            } else if ("stop".equals(field)) {
+                stop = readLong(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return step.setTime(new Time()
+                .setStart(start)
+                .setStop(stop)
+                .setDuration(start != null && stop != null ? stop - start : null));
+    }
+
+    private List<Attachment> readAttachments(final JsonParser parser, final AttachmentResolver resolver)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        final List<Attachment> attachments = new ArrayList<>();
+        while (nextObject(parser)) {
+            String name = null;
+            String source = null;
+            String type = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    name = readString(parser);
+                } else if ("source".equals(field)) {
+                    source = readString(parser);
+                } else if ("type".equals(field)) {
+                    type = readString(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            attachments.add(resolver.resolve(name, source, type));
+        }
+        return attachments;
+    }
+
+    private List<Label> readLabels(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        final List<Label> labels = new ArrayList<>();
+        while (nextObject(parser)) {
+            final Label label = new Label();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    label.setName(readString(parser));
+                } else if ("value".equals(field)) {
+                    label.setValue(readString(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            labels.add(label);
+        }
+        return labels;
+    }
+
+    private List<Link> readLinks(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        final List<Link> links = new ArrayList<>();
+        while (nextObject(parser)) {
+            final Link link = new Link();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    link.setName(readString(parser));
+                } else if ("url".equals(field)) {
+                    link.setUrl(readString(parser));
+                } else if ("type".equals(field)) {
+                    link.setType(readString(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            links.add(link);
+        }
+        return links;
+    }
+
+    private List<Parameter> readParameters(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        final List<Parameter> parameters = new ArrayList<>();
+        while (nextObject(parser)) {
+            final Parameter parameter = new Parameter();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    parameter.setName(readString(parser));
+                } else if ("value".equals(field)) {
+                    parameter.setValue(readString(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            parameters.add(parameter);
+        }
+        return parameters;
+    }
+
+    private Details readDetails(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        final Details details = new Details();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("message".equals(field)) {
+                details.message = readString(parser);
+            } else if ("trace".equals(field)) {
+                details.trace = readString(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Moves to the next object of the current array, skipping null and other
+     * elements, or returns false at the end of the array.
+     */
+    private static boolean nextObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Unexpected end of array at " + parser.getCurrentLocation());
+            }
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        return false;
+    }
+
+    private static Status readStatus(final JsonParser parser) throws IOException {
+        final String value = readString(parser);
+        if (value != null) {
+            for (Status status : Status.values()) {
+                if (status.value().equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+        }
+        return Status.UNKNOWN;
+    }
+
+    private static String readString(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.getCurrentToken().isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Long readLong(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
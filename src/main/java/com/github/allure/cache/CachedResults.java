@@ -0,0 +1,58 @@
+package com.github.allure.cache;
+
+import io.qameta.allure.entity.TestResult;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converted results of one result file as stored in {@link ParseCache}.
+ * Uuids are kept next to results so readers can re-attach container
+ * fixtures, which are not part of the cached results.
+ */
+public class CachedResults implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> uuids = new ArrayList<>();
+
+    private final List<TestResult> results = new ArrayList<>();
+
+    private final Map<String, String> environment = new HashMap<>();
+
+    private String contentHash;
+
+    public CachedResults add(final String uuid, final TestResult result) {
+        uuids.add(uuid);
+        results.add(result);
+        return this;
+    }
+
+    public List<String> getUuids() {
+        return uuids;
+    }
+
+    public List<TestResult> getResults() {
+        return results;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Returns the content hash of the result file the results were read
+     * from, to verify the entry is still up to date.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public CachedResults setContentHash(final String contentHash) {
+        this.contentHash = contentHash;
+        return this;
+    }
+}
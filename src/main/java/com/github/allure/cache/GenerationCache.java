@@ -0,0 +1,152 @@
+package com.github.allure.cache;
+
+import io.qameta.allure.core.LaunchResults;
+import java8.util.function.Supplier;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data computed once per generation and shared by the aggregators that need
+ * it, such as trees written both as a file and as a widget. Values are keyed
+ * by the owning plugin and the kind of data, and live between
+ * {@link #open(List)} and {@link #close(List)} of the launches; concurrent
+ * requests for the same value wait for a single computation.
+ * <p>
+ * Outside of an open generation every request computes its value, so
+ * aggregators behave the same when run on their own. Cached values are
+ * shared and must not be changed by callers.
+ */
+public final class GenerationCache {
+
+    private static final Map<List<LaunchResults>, GenerationCache> OPEN =
+            Collections.synchronizedMap(new IdentityHashMap<List<LaunchResults>, GenerationCache>());
+
+    private final ConcurrentMap<String, FutureTask<Object>> values = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> hits = new ConcurrentHashMap<>();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private GenerationCache() {
+    }
+
+    /**
+     * Starts caching values computed for the launches.
+     */
+    public static GenerationCache open(final List<LaunchResults> launches) {
+        final GenerationCache cache = new GenerationCache();
+        OPEN.put(launches, cache);
+        return cache;
+    }
+
+    /**
+     * Drops values of the launches, returning the cache to read its
+     * statistics, or null if none was open.
+     */
+    public static GenerationCache close(final List<LaunchResults> launches) {
+        return OPEN.remove(launches);
+    }
+
+    /**
+     * Returns the value of given kind for the launches, computing it with
+     * the supplier on the first request of the generation.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(final List<LaunchResults> launches,
+                            final Class<?> owner,
+                            final String kind,
+                            final Supplier<T> supplier) {
+        final GenerationCache cache = OPEN.get(launches);
+        if (cache == null) {
+            return supplier.get();
+        }
+        return (T) cache.get(owner.getName() + "#" + kind, supplier);
+    }
+
+    /**
+     * Returns the number of requests answered from the cache, by key.
+     */
+    public Map<String, Long> getHits() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (String key : values.keySet()) {
+            final AtomicLong count = hits.get(key);
+            result.put(key, count == null ? 0L : count.get());
+        }
+        return result;
+    }
+
+    public long getHitCount() {
+        long total = 0;
+        for (AtomicLong count : hits.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of values computed.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private Object get(final String key, final Supplier<?> supplier) {
+        FutureTask<Object> task = values.get(key);
+        if (task == null) {
+            final FutureTask<Object> created = new FutureTask<>(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return supplier.get();
+                }
+            });
+            task = values.putIfAbsent(key, created);
+            if (task == null) {
+                misses.incrementAndGet();
+                created.run();
+                return await(key, created);
+            }
+        }
+        countHit(key);
+        return await(key, task);
+    }
+
+    private void countHit(final String key) {
+        AtomicLong count = hits.get(key);
+        if (count == null) {
+            final AtomicLong created = new AtomicLong();
+            count = hits.putIfAbsent(key, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static Object await(final String key, final FutureTask<Object> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing " + key, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Could not compute " + key, cause);
+        }
+    }
+}
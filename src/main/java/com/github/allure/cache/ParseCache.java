@@ -0,0 +1,348 @@
+package com.github.allure.cache;
+
+import com.github.allure.utils.TypedAttachmentVisitor;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in on-disk cache of converted results, shared by the readers when added
+ * to the configuration extensions. Entries are keyed by the result file path,
+ * size and modification time, and stored as gzipped serialized
+ * {@link CachedResults} along with the content hash of the file. Files are
+ * read only to verify the hash when an entry is found, see
+ * {@link #setVerifyContent(boolean)}. The least recently used entries are
+ * evicted once the cache directory grows over the size cap.
+ */
+public class ParseCache implements Extension {
+
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    private static final String MD_5 = "md5";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+
+    private final long maxBytes;
+
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    private volatile boolean verifyContent = true;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ParseCache(final File directory, final long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create cache directory " + directory);
+        }
+        loadEntries();
+    }
+
+    /**
+     * Makes found entries trusted on path, size and modification time alone,
+     * without reading the file to compare its content hash. Verification is
+     * on by default.
+     */
+    public ParseCache setVerifyContent(final boolean verifyContent) {
+        this.verifyContent = verifyContent;
+        return this;
+    }
+
+    /**
+     * Computes the cache key of given result file from its path, size and
+     * modification time, or returns null if the file does not exist.
+     */
+    public String key(final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        final MessageDigest digest = getMessageDigest();
+        digest.update(file.getAbsolutePath().getBytes(UTF_8));
+        digest.update(Long.toString(file.length()).getBytes(UTF_8));
+        digest.update(Long.toString(file.lastModified()).getBytes(UTF_8));
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * Returns cached results of given file or null on a miss. An entry whose
+     * content hash differs from the file is dropped.
+     */
+    public CachedResults get(final String key, final File source) {
+        if (key == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        final File file = getEntryFile(key);
+        synchronized (this) {
+            if (!entries.containsKey(key)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            entries.get(key);
+        }
+        ObjectInputStream input = null;
+        try {
+            input = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+            final CachedResults results = (CachedResults) input.readObject();
+            if (verifyContent && !contentHash(source).equals(results.getContentHash())) {
+                return miss(key);
+            }
+            file.setLastModified(System.currentTimeMillis());
+            hits.incrementAndGet();
+            return results;
+        } catch (IOException e) {
+            return miss(key);
+        } catch (ClassNotFoundException e) {
+            return miss(key);
+        } catch (ClassCastException e) {
+            return miss(key);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /**
+     * Stores results of given file along with its content hash.
+     */
+    public void put(final String key, final File source, final CachedResults results) {
+        if (key == null) {
+            return;
+        }
+        try {
+            results.setContentHash(contentHash(source));
+        } catch (IOException e) {
+            return;
+        }
+        final File file = getEntryFile(key);
+        final File temp = new File(directory, key + ".tmp" + Thread.currentThread().getId());
+        ObjectOutputStream output = null;
+        try {
+            output = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temp))));
+            output.writeObject(results);
+        } catch (IOException e) {
+            closeQuietly(output);
+            temp.delete();
+            return;
+        }
+        closeQuietly(output);
+        synchronized (this) {
+            final Long previous = entries.remove(key);
+            if (previous != null) {
+                totalBytes -= previous;
+            }
+            file.delete();
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                return;
+            }
+            entries.put(key, file.length());
+            totalBytes += file.length();
+            evict();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntriesCount() {
+        return entries.size();
+    }
+
+    /**
+     * Visits attachments of a cached result again, so the current visitor
+     * registers them. Every cached attachment gets its own instance with its
+     * cached name and type, as the visitor may return an attachment shared
+     * by other results. Attachment files that are gone keep their cached
+     * data.
+     */
+    public static void revisitAttachments(final TestResult result, final ResultsVisitor visitor) {
+        revisitStage(result.getTestStage(), visitor);
+        for (StageResult stage : result.getBeforeStages()) {
+            revisitStage(stage, visitor);
+        }
+        for (StageResult stage : result.getAfterStages()) {
+            revisitStage(stage, visitor);
+        }
+    }
+
+    private static void revisitStage(final StageResult stage, final ResultsVisitor visitor) {
+        if (stage == null) {
+            return;
+        }
+        revisitAttachments(stage.getAttachments(), visitor);
+        revisitSteps(stage.getSteps(), visitor);
+    }
+
+    private static void revisitSteps(final List<Step> steps, final ResultsVisitor visitor) {
+        if (steps == null) {
+            return;
+        }
+        for (Step step : steps) {
+            revisitAttachments(step.getAttachments(), visitor);
+            revisitSteps(step.getSteps(), visitor);
+        }
+    }
+
+    private static void revisitAttachments(final List<Attachment> attachments, final ResultsVisitor visitor) {
+        if (attachments == null) {
+            return;
+        }
+        for (int i = 0; i < attachments.size(); i++) {
+            final Attachment cached = attachments.get(i);
+            if (cached.getSource() == null) {
+                continue;
+            }
+            final File file = new File(cached.getSource());
+            if (file.isFile()) {
+                final Attachment visited = visitor instanceof TypedAttachmentVisitor
+                        ? ((TypedAttachmentVisitor) visitor).visitAttachmentFile(file, cached.getType())
+                        : visitor.visitAttachmentFile(file);
+                attachments.set(i, new Attachment()
+                        .setUid(visited.getUid())
+                        .setName(cached.getName())
+                        .setSource(visited.getSource())
+                        .setType(cached.getType() == null ? visited.getType() : cached.getType())
+                        .setSize(visited.getSize()));
+            }
+        }
+    }
+
+    private void loadEntries() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final List<File> sorted = new ArrayList<>(Arrays.asList(files));
+        Collections.sort(sorted, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.valueOf(first.lastModified()).compareTo(second.lastModified());
+            }
+        });
+        for (File file : sorted) {
+            final String name = file.getName();
+            if (name.endsWith(ENTRY_SUFFIX)) {
+                entries.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()), file.length());
+                totalBytes += file.length();
+            } else if (name.contains(".tmp")) {
+                file.delete();
+            }
+        }
+        evict();
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            getEntryFile(eldest.getKey()).delete();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private CachedResults miss(final String key) {
+        remove(key);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private synchronized void remove(final String key) {
+        final Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        getEntryFile(key).delete();
+    }
+
+    private static String contentHash(final File file) throws IOException {
+        final MessageDigest digest = getMessageDigest();
+        final InputStream inputStream = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            closeQuietly(inputStream);
+        }
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    private File getEntryFile(final String key) {
+        return new File(directory, key + ENTRY_SUFFIX);
+    }
+
+    private static MessageDigest getMessageDigest() {
+        try {
+            return MessageDigest.getInstance(MD_5);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find md5 hashing algorithm", e);
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.allure.cache;
+
+import com.github.allure.utils.TypedAttachmentVisitor;
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.TestResult;
+
+import java.io.File;
+
+/**
+ * Forwards everything to the delegate and records visited results, so a
+ * reader can store them in {@link ParseCache} once a file is done.
+ */
+public class RecordingResultsVisitor implements ResultsVisitor, TypedAttachmentVisitor {
+
+    private final ResultsVisitor delegate;
+
+    private final CachedResults results;
+
+    public RecordingResultsVisitor(final ResultsVisitor delegate, final CachedResults results) {
+        this.delegate = delegate;
+        this.results = results;
+    }
+
+    @Override
+    public Attachment visitAttachmentFile(final File attachmentFile) {
+        return delegate.visitAttachmentFile(attachmentFile);
+    }
+
+    @Override
+    public Attachment visitAttachmentFile(final File attachmentFile, final String declaredType) {
+        if (delegate instanceof TypedAttachmentVisitor) {
+            return ((TypedAttachmentVisitor) delegate).visitAttachmentFile(attachmentFile, declaredType);
+        }
+        return delegate.visitAttachmentFile(attachmentFile);
+    }
+
+    @Override
+    public void visitTestResult(final TestResult result) {
+        results.add(null, result);
+        delegate.visitTestResult(result);
+    }
+
+    @Override
+    public void visitExtra(final String name, final Object object) {
+        delegate.visitExtra(name, object);
+    }
+
+    @Override
+    public void error(final String message, final Exception e) {
+        delegate.error(message, e);
+    }
+
+    @Override
+    public void error(final String message) {
+        delegate.error(message);
+    }
+}
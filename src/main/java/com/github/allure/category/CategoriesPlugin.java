@@ -15,6 +15,10 @@
  */
 package com.github.allure.category;
 
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.spill.SpillingResultStore;
+import com.github.allure.utils.ResultsDirectoryIndex;
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.qameta.allure.*;
 import io.qameta.allure.context.JacksonContext;
@@ -23,7 +27,6 @@ import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.core.ResultsVisitor;
 import io.qameta.allure.csv.CsvExportCategory;
 import io.qameta.allure.entity.Statistic;
-import io.qameta.allure.entity.Status;
 import io.qameta.allure.entity.TestResult;
 import io.qameta.allure.tree.*;
 
@@ -33,7 +36,6 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import java.util.*;
-import java.util.regex.Pattern;
 
 import java8.util.Comparators;
 import java8.util.Optional;
@@ -48,8 +50,6 @@ import java8.util.stream.StreamSupport;
 import static io.qameta.allure.entity.Statistic.comparator;
 import static io.qameta.allure.entity.TestResult.comparingByTimeAsc;
 import static io.qameta.allure.tree.TreeUtils.calculateStatisticByLeafs;
-import static java8.util.Objects.isNull;
-import static java8.util.Objects.nonNull;
 
 /**
  * Plugin that generates data for Categories tab.
@@ -75,6 +75,12 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
             };
     //@formatter:on
 
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private List<CategoryAssigner> assigners = Collections.emptyList();
+
     public CategoriesPlugin() {
         super(Arrays.asList(
                 new JsonAggregator(), new CsvExportAggregator(), new WidgetAggregator()
@@ -86,12 +92,7 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
                             final ResultsVisitor visitor,
                             final List<File> fileList) {
         final JacksonContext context = configuration.getContext(JacksonContext.class);
-        Optional<File> file = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals(JSON_FILE_NAME);
-            }
-        }).findFirst();
+        Optional<File> file = Optional.ofNullable(ResultsDirectoryIndex.of(fileList).find(JSON_FILE_NAME));
 
         if(file.isPresent()) {
             if (file.get().exists()) {
@@ -115,6 +116,16 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
 
     @SuppressWarnings("PMD.DefaultPackage")
     /* default */public  Tree<TestResult> getData(final List<LaunchResults> launchResults) {
+        return GenerationCache.get(launchResults, CategoriesPlugin.class, "tree",
+                new Supplier<Tree<TestResult>>() {
+                    @Override
+                    public Tree<TestResult> get() {
+                        return createTree(launchResults);
+                    }
+                });
+    }
+
+    private Tree<TestResult> createTree(final List<LaunchResults> launchResults) {
 
         final Tree<TestResult> categories = new TestResultTree(CATEGORIES, new TreeClassifier<TestResult>() {
             @Override
@@ -147,39 +158,48 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
     }
 
 
+    /**
+     * Adds matching categories to visible results of every launch. Results
+     * of large launches are assigned in parallel chunks; spilled launches
+     * are assigned sequentially so results are loaded from disk once.
+     */
     @SuppressWarnings("PMD.DefaultPackage")
-    /* default */ static void addCategoriesForResults(final List<LaunchResults> launchesResults) {
-        StreamSupport.stream(launchesResults).forEach(new Consumer<LaunchResults>() {
-            @Override
-            public void accept(LaunchResults launch) {
-                final List<Category> categories = launch.getExtra(CATEGORIES, new Supplier<List<Category>>() {
-                    @Override
-                    public List<Category> get() {
-                        return Collections.emptyList();
-                    }
-                });
-                StreamSupport.stream(launch.getResults()).forEach(new Consumer<TestResult>() {
+    /* default */ static List<CategoryAssigner> addCategoriesForResults(final List<LaunchResults> launchesResults) {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final List<CategoryAssigner> assigners = new ArrayList<>();
+        for (LaunchResults launch : launchesResults) {
+            final List<Category> categories = launch.getExtra(CATEGORIES, new Supplier<List<Category>>() {
+                @Override
+                public List<Category> get() {
+                    return Collections.emptyList();
+                }
+            });
+            final CategoryAssigner assigner = new CategoryAssigner(categories);
+            assigners.add(assigner);
+            final Set<TestResult> results = launch.getResults();
+            final int chunkSize = Math.max(MIN_CHUNK_SIZE, results.size() / (threads * CHUNKS_PER_THREAD) + 1);
+            if (threads == 1 || results.size() <= chunkSize || results instanceof SpillingResultStore.StoredResults) {
+                for (TestResult result : results) {
+                    assigner.assign(result);
+                }
+                continue;
+            }
+            final List<TestResult> all = Arrays.asList(results.toArray(new TestResult[results.size()]));
+            final BoundedExecutor executor = new BoundedExecutor("allure-categories", threads);
+            for (int from = 0; from < all.size(); from += chunkSize) {
+                final List<TestResult> chunk = all.subList(from, Math.min(all.size(), from + chunkSize));
+                executor.submit(new Runnable() {
                     @Override
-                    public void accept(TestResult result) {
-                        final List<Category> resultCategories = result.getExtraBlock(CATEGORIES, new ArrayList<>());
-                        StreamSupport.stream(categories).forEach(new Consumer<Category>() {
-                            @Override
-                            public void accept(Category category) {
-                                if (matches(result, category)) {
-                                    resultCategories.add(category);
-                                }
-                            }
-                        });
-                        if (resultCategories.isEmpty() && Status.FAILED.equals(result.getStatus())) {
-                            result.getExtraBlock(CATEGORIES, new ArrayList<Category>()).add(FAILED_TESTS);
-                        }
-                        if (resultCategories.isEmpty() && Status.BROKEN.equals(result.getStatus())) {
-                            result.getExtraBlock(CATEGORIES, new ArrayList<Category>()).add(BROKEN_TESTS);
+                    public void run() {
+                        for (TestResult result : chunk) {
+                            assigner.assign(result);
                         }
                     }
                 });
             }
-        });
+            executor.awaitAll();
+        }
+        return assigners;
     }
 
     protected static List<TreeLayer> groupByCategories(final TestResult testResult) {
@@ -196,22 +216,32 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
         return Arrays.asList(categoriesLayer, messageLayer);
     }
 
-    public static boolean matches(final TestResult result, final Category category) {
-        final boolean matchesStatus = category.getMatchedStatuses().isEmpty()
-                || nonNull(result.getStatus())
-                && category.getMatchedStatuses().contains(result.getStatus());
-        final boolean matchesMessage = isNull(category.getMessageRegex())
-                || nonNull(result.getStatusMessage())
-                && matches(result.getStatusMessage(), category.getMessageRegex());
-        final boolean matchesTrace = isNull(category.getTraceRegex())
-                || nonNull(result.getStatusTrace())
-                && matches(result.getStatusTrace(), category.getTraceRegex());
-        final boolean matchesFlaky = result.isFlaky() == category.isFlaky();
-        return matchesStatus && matchesMessage && matchesTrace && matchesFlaky;
+    /**
+     * Returns matchers used by the last aggregation, with counts of checked
+     * and matched results and time spent in expressions per category.
+     */
+    public List<CategoryMatcher> getMatchers() {
+        final List<CategoryMatcher> matchers = new ArrayList<>();
+        for (CategoryAssigner assigner : assigners) {
+            matchers.addAll(assigner.getMatchers());
+        }
+        return matchers;
+    }
+
+    /**
+     * Returns assigners used by the last aggregation, one per launch, with
+     * counts of distinct failure signatures.
+     */
+    public List<CategoryAssigner> getAssigners() {
+        return assigners;
     }
 
-    private static boolean matches(final String message, final String pattern) {
-        return Pattern.compile(pattern, Pattern.DOTALL).matcher(message).matches();
+    /**
+     * Checks a single result, compiling the category. Use
+     * {@link CategoryMatcher} to check many results.
+     */
+    public static boolean matches(final TestResult result, final Category category) {
+        return new CategoryMatcher(category).matches(result);
     }
 
     protected static TreeWidgetItem toWidgetItem(final TestResultTreeGroup group) {
@@ -225,7 +255,7 @@ public class CategoriesPlugin extends CompositeAggregator implements Reader {
     public void aggregate(final Configuration configuration,
                           final List<LaunchResults> launchesResults,
                           final String outputDirectory) throws IOException {
-        addCategoriesForResults(launchesResults);
+        assigners = addCategoriesForResults(launchesResults);
         super.aggregate(configuration, launchesResults, outputDirectory);
     }
 
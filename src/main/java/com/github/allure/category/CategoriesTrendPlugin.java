@@ -18,6 +18,11 @@ package com.github.allure.category;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticsContributor;
+import com.github.allure.stats.TrendItemAccumulator;
 import com.github.allure.trend.AbstractTrendPlugin;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
@@ -25,6 +30,7 @@ import io.qameta.allure.core.LaunchResults;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.qameta.allure.entity.ExecutorInfo;
@@ -36,18 +42,30 @@ import java8.util.function.Function;
 import java8.util.function.Supplier;
 import java8.util.stream.Collectors;
 import java8.util.stream.RefStreams;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 /**
  * Plugin that generates data for Categories-trend graph.
  */
-public class CategoriesTrendPlugin extends AbstractTrendPlugin<CategoriesTrendItem> {
+public class CategoriesTrendPlugin extends AbstractTrendPlugin<CategoriesTrendItem> implements StatisticsContributor {
 
-    private static final String JSON_FILE_NAME = "categories-trend.json";
+    public static final String JSON_FILE_NAME = "categories-trend.json";
 
     public static final String CATEGORIES_TREND_BLOCK_NAME = "categories-trend";
 
+    private static final AccumulatorFactory<TrendItemAccumulator<CategoriesTrendItem>> CATEGORIES =
+            new AccumulatorFactory<TrendItemAccumulator<CategoriesTrendItem>>() {
+                @Override
+                public TrendItemAccumulator<CategoriesTrendItem> create() {
+                    return new TrendItemAccumulator<CategoriesTrendItem>(new CategoriesTrendItem()) {
+                        @Override
+                        protected void update(final CategoriesTrendItem item, final TestResult result) {
+                            item.increaseCategories(result);
+                        }
+                    };
+                }
+            };
+
     public CategoriesTrendPlugin() {
         super(Arrays.asList(new JsonAggregator(), new WidgetAggregator()), JSON_FILE_NAME, CATEGORIES_TREND_BLOCK_NAME);
     }
@@ -58,7 +76,22 @@ public class CategoriesTrendPlugin extends AbstractTrendPlugin<CategoriesTrendIt
         return Optional.ofNullable(mapper.treeToValue(child, CategoriesTrendItem.class));
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(CATEGORIES);
+    }
+
     public  List<CategoriesTrendItem> getData(final List<LaunchResults> launchesResults) {
+        return GenerationCache.get(launchesResults, CategoriesTrendPlugin.class, "trend",
+                new Supplier<List<CategoriesTrendItem>>() {
+                    @Override
+                    public List<CategoriesTrendItem> get() {
+                        return createData(launchesResults);
+                    }
+                });
+    }
+
+    private List<CategoriesTrendItem> createData(final List<LaunchResults> launchesResults) {
         final CategoriesTrendItem item = createCurrent(launchesResults);
         final List<CategoriesTrendItem> data = getHistoryItems(launchesResults);
 
@@ -103,19 +136,7 @@ public class CategoriesTrendPlugin extends AbstractTrendPlugin<CategoriesTrendIt
                 item.setReportUrl(executorInfo.getReportUrl());
             }
         });
-        StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getAllResults());
-                    }
-                })
-                .forEach(new Consumer<TestResult>() {
-                    @Override
-                    public void accept(TestResult testResult) {
-                        item.increaseCategories(testResult);
-                    }
-                });
+        FusedStatistics.get(launchesResults, CATEGORIES).copyTo(item);
         return item;
     }
 
@@ -0,0 +1,85 @@
+package com.github.allure.category;
+
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.allure.category.CategoriesPlugin.BROKEN_TESTS;
+import static com.github.allure.category.CategoriesPlugin.CATEGORIES;
+import static com.github.allure.category.CategoriesPlugin.FAILED_TESTS;
+
+/**
+ * Adds categories of one launch to its results. Categories matched for a
+ * {@link FailureSignature} are remembered, so each distinct failure is
+ * checked against the categories once, however many results share it.
+ * Results may be assigned from several threads at once.
+ */
+public class CategoryAssigner {
+
+    private final List<CategoryMatcher> matchers;
+
+    private final ConcurrentMap<FailureSignature, List<Category>> signatures = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    public CategoryAssigner(final List<Category> categories) {
+        this.matchers = CategoryMatcher.compile(categories);
+    }
+
+    public List<CategoryMatcher> getMatchers() {
+        return matchers;
+    }
+
+    /**
+     * Returns the number of distinct signatures classified.
+     */
+    public int getSignatureCount() {
+        return signatures.size();
+    }
+
+    /**
+     * Returns the number of results that reused categories of an already
+     * classified signature.
+     */
+    public long getSignatureHits() {
+        return hits.get();
+    }
+
+    public void assign(final TestResult result) {
+        final FailureSignature signature = new FailureSignature(result);
+        List<Category> matched = signatures.get(signature);
+        if (matched == null) {
+            final List<Category> classified = classify(result);
+            matched = signatures.putIfAbsent(signature, classified);
+            if (matched == null) {
+                matched = classified;
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        final List<Category> resultCategories = result.getExtraBlock(CATEGORIES, new ArrayList<Category>());
+        resultCategories.addAll(matched);
+        if (resultCategories.isEmpty() && Status.FAILED.equals(result.getStatus())) {
+            resultCategories.add(FAILED_TESTS);
+        }
+        if (resultCategories.isEmpty() && Status.BROKEN.equals(result.getStatus())) {
+            resultCategories.add(BROKEN_TESTS);
+        }
+    }
+
+    private List<Category> classify(final TestResult result) {
+        final List<Category> matched = new ArrayList<>();
+        for (CategoryMatcher matcher : matchers) {
+            if (matcher.matches(result)) {
+                matched.add(matcher.getCategory());
+            }
+        }
+        return Collections.unmodifiableList(matched);
+    }
+}
@@ -0,0 +1,314 @@
+package com.github.allure.category;
+
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Category with its regular expressions compiled once. Results are checked
+ * against the matched statuses and the flaky flag first, then the message
+ * and trace must contain the literal parts every match of the expression
+ * has; only results passing these checks are matched against the
+ * expressions.
+ * <p>
+ * Counts of checked, pre-filtered and matched results and the time spent in
+ * expressions are kept to find expensive categories.
+ */
+public class CategoryMatcher {
+
+    private static final String SIMPLE_ESCAPES = "dDsSwWhHvVRXAzZGtnrfae";
+
+    private final Category category;
+
+    private final EnumSet<Status> statuses;
+
+    private final Pattern messagePattern;
+
+    private final String[] messageLiterals;
+
+    private final Pattern tracePattern;
+
+    private final String[] traceLiterals;
+
+    private final AtomicLong checked = new AtomicLong();
+
+    private final AtomicLong candidates = new AtomicLong();
+
+    private final AtomicLong matched = new AtomicLong();
+
+    private final AtomicLong regexNanos = new AtomicLong();
+
+    public CategoryMatcher(final Category category) {
+        this.category = category;
+        this.statuses = category.getMatchedStatuses() == null || category.getMatchedStatuses().isEmpty()
+                ? null
+                : EnumSet.copyOf(category.getMatchedStatuses());
+        this.messagePattern = compile(category.getMessageRegex());
+        this.messageLiterals = literals(category.getMessageRegex());
+        this.tracePattern = compile(category.getTraceRegex());
+        this.traceLiterals = literals(category.getTraceRegex());
+    }
+
+    public static List<CategoryMatcher> compile(final List<Category> categories) {
+        final List<CategoryMatcher> matchers = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            matchers.add(new CategoryMatcher(category));
+        }
+        return matchers;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Returns the number of results checked against the category.
+     */
+    public long getChecked() {
+        return checked.get();
+    }
+
+    /**
+     * Returns the number of results that passed all pre-filters and were
+     * matched against the expressions.
+     */
+    public long getCandidates() {
+        return candidates.get();
+    }
+
+    public long getMatched() {
+        return matched.get();
+    }
+
+    /**
+     * Returns nanoseconds spent matching expressions.
+     */
+    public long getRegexNanos() {
+        return regexNanos.get();
+    }
+
+    public boolean matches(final TestResult result) {
+        checked.incrementAndGet();
+        if (statuses != null && (result.getStatus() == null || !statuses.contains(result.getStatus()))) {
+            return false;
+        }
+        if (result.isFlaky() != category.isFlaky()) {
+            return false;
+        }
+        final String message = result.getStatusMessage();
+        final String trace = result.getStatusTrace();
+        if (!containsAll(messagePattern, message, messageLiterals)
+                || !containsAll(tracePattern, trace, traceLiterals)) {
+            return false;
+        }
+        candidates.incrementAndGet();
+        final long start = System.nanoTime();
+        final boolean matches = (messagePattern == null || messagePattern.matcher(message).matches())
+                && (tracePattern == null || tracePattern.matcher(trace).matches());
+        regexNanos.addAndGet(System.nanoTime() - start);
+        if (matches) {
+            matched.incrementAndGet();
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return category.getName() + ": checked " + checked + ", candidates " + candidates
+                + ", matched " + matched + ", regex " + regexNanos.get() / 1000000 + " ms";
+    }
+
+    private static boolean containsAll(final Pattern pattern, final String text, final String... literals) {
+        if (pattern == null) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+        for (String literal : literals) {
+            if (!text.contains(literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Pattern compile(final String regex) {
+        return regex == null ? null : Pattern.compile(regex, Pattern.DOTALL);
+    }
+
+    /**
+     * Returns literal substrings every string matching the expression
+     * contains. Expressions with top level alternatives, inline flags or
+     * unknown escapes give none; groups, classes, optional parts and escapes
+     * with their arguments are skipped.
+     */
+    public static String[] literals(final String regex) {
+        final List<String> literals = new ArrayList<>();
+        if (regex == null) {
+            return new String[0];
+        }
+        final StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    break;
+                }
+                final char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    run.append(regex, i + 2, end < 0 ? regex.length() : end);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else if (Character.isLetterOrDigit(next)) {
+                    i = skipEscape(regex, i);
+                    if (i < 0) {
+                        return new String[0];
+                    }
+                    flush(run, literals);
+                } else {
+                    run.append(next);
+                    i += 2;
+                }
+            } else if (c == '[') {
+                flush(run, literals);
+                i = skipClass(regex, i);
+            } else if (c == '(') {
+                if (hasInlineFlags(regex, i)) {
+                    return new String[0];
+                }
+                flush(run, literals);
+                i = skipGroup(regex, i);
+            } else if (c == '|') {
+                return new String[0];
+            } else if (c == '?' || c == '*' || c == '{') {
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                flush(run, literals);
+                i = c == '{' ? skipTo(regex, i, '}') : i + 1;
+            } else if (c == '+' || c == '.' || c == '^' || c == '$') {
+                flush(run, literals);
+                i++;
+            } else {
+                run.append(c);
+                i++;
+            }
+        }
+        flush(run, literals);
+        return literals.toArray(new String[literals.size()]);
+    }
+
+    private static void flush(final StringBuilder run, final List<String> literals) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private static boolean hasInlineFlags(final String regex, final int start) {
+        if (start + 1 >= regex.length() || regex.charAt(start + 1) != '?') {
+            return false;
+        }
+        for (int i = start + 2; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == ')' || c == ':') {
+                return i > start + 2;
+            }
+            if (!Character.isLetter(c) && c != '-') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index after the escape starting at given backslash, with
+     * its argument, or -1 if the escape is not known.
+     */
+    private static int skipEscape(final String regex, final int start) {
+        final char letter = regex.charAt(start + 1);
+        final int next = start + 2;
+        if (SIMPLE_ESCAPES.indexOf(letter) >= 0) {
+            return next;
+        }
+        switch (letter) {
+            case 'x':
+                return next < regex.length() && regex.charAt(next) == '{'
+                        ? skipTo(regex, next, '}')
+                        : Math.min(regex.length(), next + 2);
+            case 'u':
+                return Math.min(regex.length(), next + 4);
+            case 'c':
+                return Math.min(regex.length(), next + 1);
+            case 'b':
+            case 'B':
+                return next < regex.length() && regex.charAt(next) == '{' ? skipTo(regex, next, '}') : next;
+            case 'p':
+            case 'P':
+            case 'N':
+                return next < regex.length() && regex.charAt(next) == '{'
+                        ? skipTo(regex, next, '}')
+                        : Math.min(regex.length(), next + 1);
+            case 'k':
+                return skipTo(regex, next, '>');
+            case '0':
+                return skipDigits(regex, next, 3);
+            default:
+                return Character.isDigit(letter) ? skipDigits(regex, next, Integer.MAX_VALUE) : -1;
+        }
+    }
+
+    private static int skipDigits(final String regex, final int start, final int limit) {
+        int i = start;
+        while (i < regex.length() && i - start < limit && Character.isDigit(regex.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipClass(final String regex, final int start) {
+        int depth = 0;
+        int first = start + 1;
+        for (int i = start; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+                first = i + 1 < regex.length() && regex.charAt(i + 1) == '^' ? i + 2 : i + 1;
+            } else if (c == ']' && i > first && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return regex.length();
+    }
+
+    private static int skipGroup(final String regex, final int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return regex.length();
+    }
+
+    private static int skipTo(final String regex, final int start, final char end) {
+        final int index = regex.indexOf(end, start);
+        return index < 0 ? regex.length() : index + 1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.allure.category;
+
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+
+/**
+ * Everything categories are matched against: status, flaky flag, status
+ * message and trace. Results with equal signatures get the same categories.
+ * Hashes of message and trace are computed once; equal hashes are confirmed
+ * by comparing the texts, so different failures never share categories.
+ */
+public final class FailureSignature {
+
+    private final Status status;
+
+    private final boolean flaky;
+
+    private final String message;
+
+    private final String trace;
+
+    private final int hash;
+
+    public FailureSignature(final TestResult result) {
+        this.status = result.getStatus();
+        this.flaky = result.isFlaky();
+        this.message = result.getStatusMessage();
+        this.trace = result.getStatusTrace();
+        int value = status == null ? 0 : status.hashCode();
+        value = 31 * value + (flaky ? 1 : 0);
+        value = 31 * value + (message == null ? 0 : message.hashCode());
+        value = 31 * value + (trace == null ? 0 : trace.hashCode());
+        this.hash = value;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof FailureSignature)) {
+            return false;
+        }
+        final FailureSignature other = (FailureSignature) object;
+        return hash == other.hash
+                && status == other.status
+                && flaky == other.flaky
+                && same(message, other.message)
+                && same(trace, other.trace);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static boolean same(final String first, final String second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.allure.columns;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense int ids of label names and values. Ids are given in order of first
+ * appearance, starting from zero; null is a value like any other.
+ */
+public class LabelDictionary implements Serializable {
+
+    public static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Returns the id of the value, adding it if it is new.
+     */
+    public int add(final String value) {
+        final Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        ids.put(value, values.size());
+        values.add(value);
+        return values.size() - 1;
+    }
+
+    /**
+     * Returns the id of the value or {@link #NOT_FOUND}.
+     */
+    public int find(final String value) {
+        final Integer id = ids.get(value);
+        return id == null ? NOT_FOUND : id;
+    }
+
+    public String get(final int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,257 @@
+package com.github.allure.columns;
+
+import com.github.allure.severity.SeverityLevel;
+import io.qameta.allure.entity.GroupTime;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.LabelName;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hot fields of test results copied into primitive arrays, one row per
+ * result, so statistics can be computed in a plain loop without touching
+ * result objects. Statuses and severities are stored as ordinals, times as
+ * longs with {@link #NO_VALUE} for missing ones, and labels as ids of a
+ * {@link LabelDictionary}, all labels of a row being stored next to each
+ * other.
+ * <p>
+ * Columns are a snapshot taken when they are built: only the hidden flag
+ * is updated afterwards, through {@link #setHidden(TestResult, boolean)}.
+ */
+public class ResultColumns implements Serializable {
+
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    public static final byte NO_STATUS = -1;
+
+    private static final Status[] STATUSES = Status.values();
+
+    private static final SeverityLevel[] SEVERITIES = SeverityLevel.values();
+
+    private static final String SEVERITY = LabelName.SEVERITY.value();
+
+    private final int size;
+
+    private final byte[] status;
+
+    private final byte[] severity;
+
+    private final long[] start;
+
+    private final long[] stop;
+
+    private final long[] duration;
+
+    private final int[] labelOffsets;
+
+    private final int[] labelNames;
+
+    private final int[] labelValues;
+
+    private final BitSet hidden;
+
+    private final LabelDictionary dictionary = new LabelDictionary();
+
+    private final Map<TestResult, Integer> rows = new IdentityHashMap<>();
+
+    public ResultColumns(final Collection<TestResult> results) {
+        size = results.size();
+        status = new byte[size];
+        severity = new byte[size];
+        start = new long[size];
+        stop = new long[size];
+        duration = new long[size];
+        labelOffsets = new int[size + 1];
+        hidden = new BitSet(size);
+        int labels = 0;
+        for (TestResult result : results) {
+            labels += result.getLabels() == null ? 0 : result.getLabels().size();
+        }
+        labelNames = new int[labels];
+        labelValues = new int[labels];
+
+        int row = 0;
+        int label = 0;
+        for (TestResult result : results) {
+            rows.put(result, row);
+            status[row] = result.getStatus() == null ? NO_STATUS : (byte) result.getStatus().ordinal();
+            hidden.set(row, result.isHidden());
+            final Time time = result.getTime();
+            start[row] = time == null ? NO_VALUE : valueOf(time.getStart());
+            stop[row] = time == null ? NO_VALUE : valueOf(time.getStop());
+            duration[row] = time == null ? NO_VALUE : valueOf(time.getDuration());
+            SeverityLevel level = null;
+            boolean severityFound = false;
+            labelOffsets[row] = label;
+            final List<Label> resultLabels = result.getLabels();
+            if (resultLabels != null) {
+                for (Label item : resultLabels) {
+                    labelNames[label] = dictionary.add(item.getName());
+                    labelValues[label] = dictionary.add(item.getValue());
+                    label++;
+                    if (!severityFound && SEVERITY.equals(item.getName())) {
+                        severityFound = true;
+                        level = severityOf(item.getValue());
+                    }
+                }
+            }
+            severity[row] = (byte) (level == null ? SeverityLevel.NORMAL : level).ordinal();
+            row++;
+        }
+        labelOffsets[size] = label;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row of the result or -1 if it is not in the columns.
+     */
+    public int rowOf(final TestResult result) {
+        final Integer row = rows.get(result);
+        return row == null ? -1 : row;
+    }
+
+    public boolean isHidden(final int row) {
+        return hidden.get(row);
+    }
+
+    public void setHidden(final TestResult result, final boolean value) {
+        final int row = rowOf(result);
+        if (row >= 0) {
+            hidden.set(row, value);
+        }
+    }
+
+    /**
+     * Returns the status ordinal of the row or {@link #NO_STATUS}.
+     */
+    public int getStatusOrdinal(final int row) {
+        return status[row];
+    }
+
+    public Status getStatus(final int row) {
+        return status[row] == NO_STATUS ? null : STATUSES[status[row]];
+    }
+
+    /**
+     * Returns the severity ordinal of the row, normal when the result has no
+     * known severity label, as {@code SeverityPlugin} does.
+     */
+    public int getSeverityOrdinal(final int row) {
+        return severity[row];
+    }
+
+    public SeverityLevel getSeverity(final int row) {
+        return SEVERITIES[severity[row]];
+    }
+
+    public long getStart(final int row) {
+        return start[row];
+    }
+
+    public long getStop(final int row) {
+        return stop[row];
+    }
+
+    public long getDuration(final int row) {
+        return duration[row];
+    }
+
+    public LabelDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the value id of the first label of the row with given name id,
+     * or {@link LabelDictionary#NOT_FOUND}.
+     */
+    public int findLabel(final int row, final int nameId) {
+        for (int i = labelOffsets[row]; i < labelOffsets[row + 1]; i++) {
+            if (labelNames[i] == nameId) {
+                return labelValues[i];
+            }
+        }
+        return LabelDictionary.NOT_FOUND;
+    }
+
+    /**
+     * Adds statuses of visible rows to the statistic, as
+     * {@link Statistic#update(Status)} would one by one.
+     */
+    public void updateStatistic(final Statistic statistic) {
+        final long[] counts = new long[STATUSES.length];
+        for (int row = hidden.nextClearBit(0); row < size; row = hidden.nextClearBit(row + 1)) {
+            if (status[row] != NO_STATUS) {
+                counts[status[row]]++;
+            }
+        }
+        statistic.setFailed(statistic.getFailed() + counts[Status.FAILED.ordinal()]);
+        statistic.setBroken(statistic.getBroken() + counts[Status.BROKEN.ordinal()]);
+        statistic.setPassed(statistic.getPassed() + counts[Status.PASSED.ordinal()]);
+        statistic.setSkipped(statistic.getSkipped() + counts[Status.SKIPPED.ordinal()]);
+        statistic.setUnknown(statistic.getUnknown() + counts[Status.UNKNOWN.ordinal()]);
+    }
+
+    /**
+     * Adds times of visible rows to the group time, as
+     * {@link GroupTime#update(io.qameta.allure.entity.Timeable)} would one
+     * by one.
+     */
+    public void updateTime(final GroupTime time) {
+        long minStart = valueOf(time.getStart());
+        long maxStop = valueOf(time.getStop());
+        long minDuration = valueOf(time.getMinDuration());
+        long maxDuration = valueOf(time.getMaxDuration());
+        long sumDuration = valueOf(time.getSumDuration());
+        for (int row = hidden.nextClearBit(0); row < size; row = hidden.nextClearBit(row + 1)) {
+            if (start[row] != NO_VALUE && (minStart == NO_VALUE || start[row] < minStart)) {
+                minStart = start[row];
+            }
+            if (stop[row] != NO_VALUE && (maxStop == NO_VALUE || stop[row] > maxStop)) {
+                maxStop = stop[row];
+            }
+            final long value = duration[row];
+            if (value != NO_VALUE) {
+                minDuration = minDuration == NO_VALUE ? value : Math.min(minDuration, value);
+                maxDuration = maxDuration == NO_VALUE ? value : Math.max(maxDuration, value);
+                sumDuration = sumDuration == NO_VALUE ? value : sumDuration + value;
+            }
+        }
+        time.setStart(toLong(minStart));
+        time.setStop(toLong(maxStop));
+        time.setMinDuration(toLong(minDuration));
+        time.setMaxDuration(toLong(maxDuration));
+        time.setSumDuration(toLong(sumDuration));
+        if (minStart != NO_VALUE && maxStop != NO_VALUE) {
+            time.setDuration(maxStop - minStart);
+        }
+    }
+
+    private static SeverityLevel severityOf(final String value) {
+        for (SeverityLevel level : SEVERITIES) {
+            if (level.value().equalsIgnoreCase(value)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    private static long valueOf(final Long value) {
+        return value == null ? NO_VALUE : value;
+    }
+
+    private static Long toLong(final long value) {
+        return value == NO_VALUE ? null : value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.allure.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size worker pool with a bounded task queue. When the queue is full the
+ * submitting thread runs the task itself, so producers can never get ahead of
+ * the workers by more than the queue capacity.
+ */
+public class BoundedExecutor {
+
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    private final ThreadPoolExecutor executor;
+
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    public BoundedExecutor(final String name, final int threads) {
+        this(name, threads, threads * QUEUE_SIZE_PER_THREAD);
+    }
+
+    public BoundedExecutor(final String name, final int threads, final int queueCapacity) {
+        final int size = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(
+                size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)),
+                new NamedThreadFactory(name),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    public void submit(final Runnable task) {
+        final Future<?> future = executor.submit(task);
+        synchronized (futures) {
+            futures.add(future);
+        }
+    }
+
+    /**
+     * Waits for every submitted task and shuts the pool down. The first task
+     * failure is rethrown once all tasks are finished.
+     */
+    public void awaitAll() {
+        RuntimeException failure = null;
+        try {
+            final List<Future<?>> submitted;
+            synchronized (futures) {
+                submitted = new ArrayList<>(futures);
+                futures.clear();
+            }
+            for (Future<?> future : submitted) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = asRuntimeException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + executor, e);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException asRuntimeException(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private final String name;
+
+        NamedThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
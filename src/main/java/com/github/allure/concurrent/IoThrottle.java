@@ -0,0 +1,113 @@
+package com.github.allure.concurrent;
+
+import com.github.allure.utils.Contexts;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+
+import java.io.File;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global bound on result files read at once and on their total size. Readers
+ * take a permit for every result file or archive entry while they read it;
+ * add one to the configuration to keep concurrent reads of many results
+ * directories from overloading shared storage.
+ * <p>
+ * A reader thread holds at most one permit at a time. A file larger than the
+ * byte budget takes the whole budget, so it is read alone.
+ */
+public class IoThrottle implements Extension {
+
+    private static final IoThrottle UNLIMITED = new IoThrottle(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final int KILOBYTE = 1024;
+
+    private final Semaphore files;
+
+    private final Semaphore kilobytes;
+
+    private final int maxKilobytes;
+
+    private final AtomicInteger open = new AtomicInteger();
+
+    private final AtomicInteger peakOpen = new AtomicInteger();
+
+    private final AtomicLong waits = new AtomicLong();
+
+    public IoThrottle(final int maxOpenFiles, final long maxBytesInFlight) {
+        this.files = new Semaphore(Math.max(1, maxOpenFiles));
+        this.maxKilobytes = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, maxBytesInFlight / KILOBYTE));
+        this.kilobytes = new Semaphore(maxKilobytes);
+    }
+
+    /**
+     * Returns the configured throttle, or one that never blocks.
+     */
+    public static IoThrottle find(final Configuration configuration) {
+        final IoThrottle throttle = Contexts.find(configuration, IoThrottle.class);
+        return throttle == null ? UNLIMITED : throttle;
+    }
+
+    public Permit acquire(final File file) {
+        return acquire(file.length());
+    }
+
+    /**
+     * Blocks until one more file of given size may be read.
+     */
+    public Permit acquire(final long bytes) {
+        final int size = (int) Math.min(maxKilobytes, Math.max(1L, (bytes + KILOBYTE - 1) / KILOBYTE));
+        if (!files.tryAcquire()) {
+            waits.incrementAndGet();
+            files.acquireUninterruptibly();
+        }
+        if (!kilobytes.tryAcquire(size)) {
+            waits.incrementAndGet();
+            kilobytes.acquireUninterruptibly(size);
+        }
+        final int current = open.incrementAndGet();
+        int peak = peakOpen.get();
+        while (current > peak && !peakOpen.compareAndSet(peak, current)) {
+            peak = peakOpen.get();
+        }
+        return new Permit(size);
+    }
+
+    public int getPeakOpenFiles() {
+        return peakOpen.get();
+    }
+
+    public long getWaits() {
+        return waits.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("peak %d open files, %d waits", getPeakOpenFiles(), getWaits());
+    }
+
+    /**
+     * Permission to read one file. Releasing it more than once has no effect.
+     */
+    public final class Permit {
+
+        private final int size;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final int size) {
+            this.size = size;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                open.decrementAndGet();
+                kilobytes.release(size);
+                files.release();
+            }
+        }
+    }
+}
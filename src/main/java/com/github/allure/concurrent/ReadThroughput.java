@@ -0,0 +1,56 @@
+package com.github.allure.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Files and results counters of a single reader run.
+ */
+public class ReadThroughput {
+
+    private final AtomicLong files = new AtomicLong();
+
+    private final AtomicLong results = new AtomicLong();
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile long stopNanos;
+
+    public void onFile() {
+        files.incrementAndGet();
+    }
+
+    public void onResult() {
+        results.incrementAndGet();
+    }
+
+    public ReadThroughput stop() {
+        stopNanos = System.nanoTime();
+        return this;
+    }
+
+    public long getFiles() {
+        return files.get();
+    }
+
+    public long getResults() {
+        return results.get();
+    }
+
+    public long getElapsedMillis() {
+        final long stop = stopNanos == 0 ? System.nanoTime() : stopNanos;
+        return TimeUnit.NANOSECONDS.toMillis(stop - startNanos);
+    }
+
+    public double getFilesPerSecond() {
+        final long stop = stopNanos == 0 ? System.nanoTime() : stopNanos;
+        final long elapsed = Math.max(1L, stop - startNanos);
+        return files.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files, %d results in %d ms (%.1f files/sec)",
+                getFiles(), getResults(), getElapsedMillis(), getFilesPerSecond());
+    }
+}
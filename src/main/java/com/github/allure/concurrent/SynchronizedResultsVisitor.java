@@ -0,0 +1,79 @@
+package com.github.allure.concurrent;
+
+import com.github.allure.ConcurrentResultsVisitor;
+import com.github.allure.utils.TypedAttachmentVisitor;
+import com.github.allure.utils.ZipAttachmentVisitor;
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.TestResult;
+
+import java.io.File;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Serializes all calls to a visitor that is not safe for concurrent use, so
+ * readers can hand results over from several worker threads.
+ */
+public class SynchronizedResultsVisitor implements ResultsVisitor, TypedAttachmentVisitor, ZipAttachmentVisitor {
+
+    private final ResultsVisitor delegate;
+
+    public SynchronizedResultsVisitor(final ResultsVisitor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the visitor itself if it is already safe to share between
+     * threads, otherwise wraps it.
+     */
+    public static ResultsVisitor wrap(final ResultsVisitor visitor) {
+        if (visitor instanceof ConcurrentResultsVisitor || visitor instanceof SynchronizedResultsVisitor) {
+            return visitor;
+        }
+        return new SynchronizedResultsVisitor(visitor);
+    }
+
+    @Override
+    public synchronized Attachment visitAttachmentFile(final File attachmentFile) {
+        return delegate.visitAttachmentFile(attachmentFile);
+    }
+
+    @Override
+    public synchronized Attachment visitAttachmentFile(final File attachmentFile, final String declaredType) {
+        if (delegate instanceof TypedAttachmentVisitor) {
+            return ((TypedAttachmentVisitor) delegate).visitAttachmentFile(attachmentFile, declaredType);
+        }
+        return delegate.visitAttachmentFile(attachmentFile);
+    }
+
+    @Override
+    public synchronized Attachment visitAttachmentEntry(final ZipFile zipFile, final ZipEntry entry) {
+        if (delegate instanceof ZipAttachmentVisitor) {
+            return ((ZipAttachmentVisitor) delegate).visitAttachmentEntry(zipFile, entry);
+        }
+        delegate.error("Could not read attachment " + entry.getName() + " from " + zipFile.getName()
+                + ": visitor does not support archives");
+        return null;
+    }
+
+    @Override
+    public synchronized void visitTestResult(final TestResult result) {
+        delegate.visitTestResult(result);
+    }
+
+    @Override
+    public synchronized void visitExtra(final String name, final Object object) {
+        delegate.visitExtra(name, object);
+    }
+
+    @Override
+    public synchronized void error(final String message, final Exception e) {
+        delegate.error(message, e);
+    }
+
+    @Override
+    public synchronized void error(final String message) {
+        delegate.error(message);
+    }
+}
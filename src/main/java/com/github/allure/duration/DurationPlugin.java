@@ -16,48 +16,54 @@
 package com.github.allure.duration;
 
 import com.github.allure.severity.SeverityPlugin;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.ListAccumulator;
+import com.github.allure.stats.StatisticsContributor;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.TestResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import java8.util.function.Function;
-import java8.util.stream.Collectors;
-import java8.util.stream.Stream;
-import java8.util.stream.StreamSupport;
-
 /**
  * Plugin that generates data for Duration graph.
  *
  * @since 2.0
  */
-public class DurationPlugin extends CommonJsonAggregator {
+public class DurationPlugin extends CommonJsonAggregator implements StatisticsContributor {
+
+    private static final AccumulatorFactory<ListAccumulator<DurationData>> DURATION_DATA =
+            new AccumulatorFactory<ListAccumulator<DurationData>>() {
+                @Override
+                public ListAccumulator<DurationData> create() {
+                    return new ListAccumulator<DurationData>() {
+                        @Override
+                        protected DurationData createItem(final TestResult result) {
+                            return createData(result);
+                        }
+                    };
+                }
+            };
 
     public DurationPlugin() {
         super(Constants.WIDGETS_DIR, "duration.json");
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(DURATION_DATA);
+    }
+
     @Override
     protected List<DurationData> getData(final List<LaunchResults> launchesResults) {
-        return StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return  StreamSupport.stream(launchResults.getResults());
-                    }
-                })
-                .map(new Function<TestResult, DurationData>() {
-                    @Override
-                    public DurationData apply(TestResult testResult) {
-                        return createData(testResult);
-                    }
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(FusedStatistics.get(launchesResults, DURATION_DATA).getItems());
     }
 
-    private DurationData createData(final TestResult result) {
+    private static DurationData createData(final TestResult result) {
         return new DurationData()
                 .setUid(result.getUid())
                 .setName(result.getName())
@@ -32,6 +32,26 @@ public class DurationTrendItem extends TrendItem {
 
     public void updateTime(final Timeable timeable) {
         time.update(timeable);
+        updateMetric();
+    }
+
+    /**
+     * Adds times that are already aggregated.
+     */
+    public void updateTime(final GroupTime groupTime) {
+        if (groupTime.getStart() != null && (time.getStart() == null || groupTime.getStart() < time.getStart())) {
+            time.setStart(groupTime.getStart());
+        }
+        if (groupTime.getStop() != null && (time.getStop() == null || groupTime.getStop() > time.getStop())) {
+            time.setStop(groupTime.getStop());
+        }
+        if (time.getStart() != null && time.getStop() != null) {
+            time.setDuration(time.getStop() - time.getStart());
+        }
+        updateMetric();
+    }
+
+    private void updateMetric() {
         if (time.getDuration() != null) {
             setMetric(DURATION_KEY, time.getDuration());
         } else {
@@ -18,6 +18,11 @@ package com.github.allure.duration;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticAccumulator;
+import com.github.allure.stats.StatisticsContributor;
 import com.github.allure.trend.AbstractTrendPlugin;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
@@ -25,10 +30,10 @@ import io.qameta.allure.core.LaunchResults;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.qameta.allure.entity.ExecutorInfo;
-import io.qameta.allure.entity.TestResult;
 import java8.util.Optional;
 import java8.util.function.BinaryOperator;
 import java8.util.function.Consumer;
@@ -36,17 +41,16 @@ import java8.util.function.Function;
 import java8.util.function.Supplier;
 import java8.util.stream.Collectors;
 import java8.util.stream.RefStreams;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 /**
  * Plugin that generates data for Duration-Trend graph.
  */
-public class DurationTrendPlugin extends AbstractTrendPlugin<DurationTrendItem> {
+public class DurationTrendPlugin extends AbstractTrendPlugin<DurationTrendItem> implements StatisticsContributor {
 
-    protected static final String JSON_FILE_NAME = "duration-trend.json";
+    public static final String JSON_FILE_NAME = "duration-trend.json";
 
-    private static final String DURATION_TREND_BLOCK_NAME = "duration-trend";
+    public static final String DURATION_TREND_BLOCK_NAME = "duration-trend";
 
     public DurationTrendPlugin() {
         super(Arrays.asList(new JsonAggregator(), new WidgetAggregator()), JSON_FILE_NAME, DURATION_TREND_BLOCK_NAME);
@@ -58,8 +62,23 @@ public class DurationTrendPlugin extends AbstractTrendPlugin<DurationTrendItem>
         return Optional.ofNullable(mapper.treeToValue(child, DurationTrendItem.class));
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(StatisticAccumulator.VISIBLE);
+    }
+
     @SuppressWarnings("PMD.DefaultPackage")
     /* default */ static List<DurationTrendItem> getData(final List<LaunchResults> launchesResults) {
+        return GenerationCache.get(launchesResults, DurationTrendPlugin.class, "trend",
+                new Supplier<List<DurationTrendItem>>() {
+                    @Override
+                    public List<DurationTrendItem> get() {
+                        return createData(launchesResults);
+                    }
+                });
+    }
+
+    private static List<DurationTrendItem> createData(final List<LaunchResults> launchesResults) {
         final DurationTrendItem item = new DurationTrendPlugin().createCurrent(launchesResults);
         final List<DurationTrendItem> data = getHistoryItems(launchesResults);
 
@@ -104,19 +123,7 @@ public class DurationTrendPlugin extends AbstractTrendPlugin<DurationTrendItem>
                 item.setReportUrl(executorInfo.getReportUrl());
             }
         });
-        StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getResults());
-                    }
-                })
-                .forEach(new Consumer<TestResult>() {
-                    @Override
-                    public void accept(TestResult testResult) {
-                        item.updateTime(testResult);
-                    }
-                });
+        item.updateTime(FusedStatistics.get(launchesResults, StatisticAccumulator.VISIBLE).getTime());
         return item;
     }
 
@@ -15,6 +15,7 @@
  */
 package com.github.allure.executor;
 
+import com.github.allure.utils.ResultsDirectoryIndex;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.Reader;
@@ -55,12 +56,7 @@ public class ExecutorPlugin extends CommonJsonAggregator implements Reader {
                             final ResultsVisitor visitor,
                             final List<File> fileList) {
         final JacksonContext context = configuration.getContext(JacksonContext.class);
-        Optional<File> file = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals(JSON_FILE_NAME);
-            }
-        }).findFirst();
+        Optional<File> file = Optional.ofNullable(ResultsDirectoryIndex.of(fileList).find(JSON_FILE_NAME));
         if(file.isPresent()) {
             if (file.get().exists()) {
                 InputStream is = null;
@@ -1,5 +1,6 @@
 package com.github.allure.features;
 
+import com.github.allure.IndexedLaunchResults;
 import com.github.allure.category.CategoriesPlugin;
 import io.qameta.allure.Aggregator;
 import io.qameta.allure.CompositeAggregator;
@@ -12,16 +13,16 @@ import io.qameta.allure.entity.Statistic;
 import io.qameta.allure.entity.TestResult;
 import io.qameta.allure.tree.*;
 import java8.util.Comparators;
-import java8.util.function.Consumer;
 import java8.util.function.Function;
 import java8.util.function.Predicate;
 import java8.util.stream.Collectors;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 import java.io.File;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static io.qameta.allure.entity.Statistic.comparator;
@@ -30,34 +31,39 @@ import static io.qameta.allure.tree.TreeUtils.groupByLabels;
 
 public class FeaturePlugin  {
 
+    /**
+     * Returns the tree of visible results by feature. Results of indexed
+     * launches are added group by group from their label index instead of
+     * being classified one by one.
+     */
     public Tree<TestResult> getData(final List<LaunchResults> launchResults) {
-
-        final Tree<TestResult> features = new TestResultTree(
-                "features", new TreeClassifier<TestResult>() {
-            @Override
-            public List<TreeLayer> classify(TestResult testResult) {
-                return groupByLabels(testResult, LabelName.FEATURE);
-            }
-        });
-        StreamSupport.stream(launchResults)
-                .map(new Function<LaunchResults, Set<TestResult>>() {
-                    @Override
-                    public Set<TestResult> apply(LaunchResults launchResults) {
-                        return launchResults.getResults();
-                    }
-                })
-                .flatMap(new Function<Set<TestResult>, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(Set<TestResult> testResults) {
-                        return StreamSupport.stream(testResults);
+        final FeatureClassifier classifier = new FeatureClassifier();
+        final Tree<TestResult> features = new TestResultTree("features", classifier);
+        for (LaunchResults launch : launchResults) {
+            if (launch instanceof IndexedLaunchResults) {
+                final Map<TestResult, Boolean> grouped = new IdentityHashMap<>();
+                final Map<String, Set<TestResult>> groups =
+                        ((IndexedLaunchResults) launch).groupByLabel(LabelName.FEATURE.value());
+                for (Map.Entry<String, Set<TestResult>> group : groups.entrySet()) {
+                    classifier.layers = Collections.<TreeLayer>singletonList(new DefaultTreeLayer(group.getKey()));
+                    for (TestResult testResult : group.getValue()) {
+                        features.add(testResult);
+                        grouped.put(testResult, Boolean.TRUE);
                     }
-                })
-                .forEach(new Consumer<TestResult>() {
-                    @Override
-                    public void accept(TestResult testResult) {
+                }
+                classifier.layers = Collections.emptyList();
+                for (TestResult testResult : launch.getResults()) {
+                    if (!grouped.containsKey(testResult)) {
                         features.add(testResult);
                     }
-                });
+                }
+                classifier.layers = null;
+            } else {
+                for (TestResult testResult : launch.getResults()) {
+                    features.add(testResult);
+                }
+            }
+        }
         return features;
     }
 
@@ -99,4 +105,18 @@ public class FeaturePlugin  {
                 .setName(group.getName())
                 .setStatistic(calculateStatisticByLeafs(group));
     }
+
+    /**
+     * Classifies results by their feature labels, or into given layers while
+     * a group of the label index is added.
+     */
+    private static final class FeatureClassifier implements TreeClassifier<TestResult> {
+
+        private List<TreeLayer> layers;
+
+        @Override
+        public List<TreeLayer> classify(final TestResult testResult) {
+            return layers != null ? layers : groupByLabels(testResult, LabelName.FEATURE);
+        }
+    }
 }
@@ -15,6 +15,8 @@
  */
 package com.github.allure.history;
 
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.utils.ResultsDirectoryIndex;
 import com.fasterxml.jackson.core.type.TypeReference;
 
 
@@ -57,9 +59,9 @@ import static io.qameta.allure.Constants.HISTORY_DIR;
 public class HistoryPlugin implements Reader, Aggregator {
 
     public static final String EXECUTORS_BLOCK_NAME = "executor";
-    private static final String HISTORY_BLOCK_NAME = "history";
+    public static final String HISTORY_BLOCK_NAME = "history";
 
-    private static final String HISTORY_FILE_NAME = "history.json";
+    public static final String HISTORY_FILE_NAME = "history.json";
 
     //@formatter:off
     private static final TypeReference<Map<String, HistoryData>> HISTORY_TYPE =
@@ -121,6 +123,16 @@ public class HistoryPlugin implements Reader, Aggregator {
                                 return new HashMap<String, HistoryData>();
                             }
                         });
+                        if (launchResults instanceof IndexedLaunchResults) {
+                            final Map<String, Set<TestResult>> groups =
+                                    ((IndexedLaunchResults) launchResults).groupByHistoryId();
+                            for (Set<TestResult> group : groups.values()) {
+                                for (TestResult testResult : group) {
+                                    updateHistory(history, testResult, executorInfo);
+                                }
+                            }
+                            return history;
+                        }
                         StreamSupport.stream(launchResults.getResults())
                                 .filter(new Predicate<TestResult>() {
                                     @Override
@@ -158,16 +170,7 @@ public class HistoryPlugin implements Reader, Aggregator {
         if (!data.getItems().isEmpty()) {
             result.addExtraBlock(HISTORY_BLOCK_NAME, copy(data));
         }
-        final HistoryItem newItem = new HistoryItem()
-                .setUid(result.getUid())
-                .setStatus(result.getStatus())
-                .setStatusDetails(result.getStatusMessage())
-                .setTime(result.getTime());
-
-        if (Objects.nonNull(info.getReportUrl())) {
-            newItem.setReportUrl(createReportUrl(info.getReportUrl(), result.getUid()));
-        }
-
+        final HistoryItem newItem = createItem(result, info);
         final List<HistoryItem> newItems = RefStreams.concat(RefStreams.of(newItem), StreamSupport.stream(data.getItems()))
                 .limit(5)
                 .collect(Collectors.toList());
@@ -185,6 +188,21 @@ public class HistoryPlugin implements Reader, Aggregator {
                 .setItems(items);
     }
 
+    /**
+     * Returns the history item of the result in the report of given executor.
+     */
+    public static HistoryItem createItem(final TestResult result, final ExecutorInfo info) {
+        final HistoryItem item = new HistoryItem()
+                .setUid(result.getUid())
+                .setStatus(result.getStatus())
+                .setStatusDetails(result.getStatusMessage())
+                .setTime(result.getTime());
+        if (Objects.nonNull(info.getReportUrl())) {
+            item.setReportUrl(createReportUrl(info.getReportUrl(), result.getUid()));
+        }
+        return item;
+    }
+
     private static String createReportUrl(final String reportUrl, final String uuid) {
         final String pattern = reportUrl.endsWith("index.html") ? "%s#testresult/%s" : "%s/#testresult/%s";
         return String.format(pattern, reportUrl, uuid);
@@ -194,34 +212,21 @@ public class HistoryPlugin implements Reader, Aggregator {
     @Override
     public void readResults(Configuration configuration, ResultsVisitor visitor, List<File> fileList) {
         final JacksonContext context = configuration.getContext(JacksonContext.class);
-        Optional<File> historyFile = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals(HISTORY_BLOCK_NAME);
-            }
-        }).findFirst();
-        if (historyFile.isPresent()) {
-            Optional<File> file = StreamSupport.stream(Arrays.asList(historyFile.get().listFiles())).filter(new Predicate<File>() {
-                @Override
-                public boolean test(File file) {
-                    return file.getName().equals(HISTORY_FILE_NAME);
-                }
-            }).findFirst();
-            if (file.isPresent()) {
-                if (file.get().exists()) {
-                    InputStream is = null;
+        Optional<File> file = Optional.ofNullable(ResultsDirectoryIndex.of(fileList).find(HISTORY_BLOCK_NAME, HISTORY_FILE_NAME));
+        if (file.isPresent()) {
+            if (file.get().exists()) {
+                InputStream is = null;
+                try {
+                    is = new FileInputStream(file.get());
+                    final Map<String, HistoryData> history = context.getValue().readValue(is, HISTORY_TYPE);
+                    visitor.visitExtra(HISTORY_BLOCK_NAME, history);
+                } catch (IOException e) {
+                    visitor.error("Could not read history file " + file.get(), e);
+                }finally {
                     try {
-                        is = new FileInputStream(file.get());
-                        final Map<String, HistoryData> history = context.getValue().readValue(is, HISTORY_TYPE);
-                        visitor.visitExtra(HISTORY_BLOCK_NAME, history);
+                        is.close();
                     } catch (IOException e) {
-                        visitor.error("Could not read history file " + file.get(), e);
-                    }finally {
-                        try {
-                            is.close();
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
+                        e.printStackTrace();
                     }
                 }
             }
@@ -18,24 +18,27 @@ package com.github.allure.history;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticAccumulator;
+import com.github.allure.stats.StatisticsContributor;
 import com.github.allure.trend.AbstractTrendPlugin;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.ExecutorInfo;
 import io.qameta.allure.entity.Statistic;
-import io.qameta.allure.entity.Status;
-import io.qameta.allure.entity.TestResult;
 
 import java8.util.*;
 import java8.util.function.*;
 import java8.util.stream.Collectors;
 import java8.util.stream.RefStreams;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -44,7 +47,7 @@ import java.util.List;
  *
  * @since 2.0
  */
-public class HistoryTrendPlugin extends AbstractTrendPlugin<HistoryTrendItem> {
+public class HistoryTrendPlugin extends AbstractTrendPlugin<HistoryTrendItem> implements StatisticsContributor {
 
     public static final String JSON_FILE_NAME = "history-trend.json";
 
@@ -65,8 +68,23 @@ public class HistoryTrendPlugin extends AbstractTrendPlugin<HistoryTrendItem> {
         return Optional.ofNullable(mapper.treeToValue(child, HistoryTrendItem.class));
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(StatisticAccumulator.VISIBLE);
+    }
+
     @SuppressWarnings("PMD.DefaultPackage")
     /* default */public static List<HistoryTrendItem> getData(final List<LaunchResults> launchesResults) {
+        return GenerationCache.get(launchesResults, HistoryTrendPlugin.class, "trend",
+                new Supplier<List<HistoryTrendItem>>() {
+                    @Override
+                    public List<HistoryTrendItem> get() {
+                        return createData(launchesResults);
+                    }
+                });
+    }
+
+    private static List<HistoryTrendItem> createData(final List<LaunchResults> launchesResults) {
         final HistoryTrendItem item = new HistoryTrendPlugin().createCurrent(launchesResults);
         final List<HistoryTrendItem> data = getHistoryItems(launchesResults);
 
@@ -78,35 +96,8 @@ public class HistoryTrendPlugin extends AbstractTrendPlugin<HistoryTrendItem> {
 
 
     private  HistoryTrendItem createCurrent(final List<LaunchResults> launchesResults) {
-        final Statistic statistic = StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getResults());
-                    }
-                })
-                .map(new Function<TestResult, Status>() {
-                    @Override
-                    public Status apply(TestResult testResult) {
-                        return testResult.getStatus();
-                    }
-                })
-                .collect(new Supplier<Statistic>() {
-                    @Override
-                    public Statistic get() {
-                        return new Statistic();
-                    }
-                }, new BiConsumer<Statistic, Status>() {
-                    @Override
-                    public void accept(Statistic statistic, Status status) {
-                        statistic.update(status);
-                    }
-                }, new BiConsumer<Statistic, Statistic>() {
-                    @Override
-                    public void accept(Statistic statistic, Statistic statistic2) {
-                        statistic.merge(statistic2);
-                    }
-                });
+        final Statistic statistic = new Statistic();
+        statistic.merge(FusedStatistics.get(launchesResults, StatisticAccumulator.VISIBLE).getStatistic());
 
         final HistoryTrendItem item = new HistoryTrendItem()
                 .setStatistic(statistic);
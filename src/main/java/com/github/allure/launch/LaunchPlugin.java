@@ -15,6 +15,12 @@
  */
 package com.github.allure.launch;
 
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.stats.Accumulator;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticsContributor;
+import com.github.allure.utils.ResultsDirectoryIndex;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.Reader;
@@ -23,6 +29,7 @@ import io.qameta.allure.core.Configuration;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.core.ResultsVisitor;
 import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.TestResult;
 import java8.util.function.Function;
 import java8.util.function.Predicate;
 import java8.util.stream.StreamSupport;
@@ -32,8 +39,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import java8.util.Optional;
 import java8.util.stream.Collectors;
@@ -41,11 +50,19 @@ import java8.util.stream.Collectors;
 /**
  * @author charlie (Dmitry Baev).
  */
-public class LaunchPlugin extends CommonJsonAggregator implements Reader {
+public class LaunchPlugin extends CommonJsonAggregator implements Reader, StatisticsContributor {
 
     private static final String LAUNCH_BLOCK_NAME = "launch";
     private static final String JSON_FILE_NAME = "launch.json";
 
+    private static final AccumulatorFactory<LaunchStatistics> LAUNCH_STATISTICS =
+            new AccumulatorFactory<LaunchStatistics>() {
+                @Override
+                public LaunchStatistics create() {
+                    return new LaunchStatistics();
+                }
+            };
+
     public LaunchPlugin() {
         super(Constants.WIDGETS_DIR, JSON_FILE_NAME);
     }
@@ -56,47 +73,40 @@ public class LaunchPlugin extends CommonJsonAggregator implements Reader {
                             final List<File> fileList) {
         final JacksonContext context = configuration.getContext(JacksonContext.class);
 
-        Optional<File> launchFolder = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals(LAUNCH_BLOCK_NAME);
-            }
-        }).findFirst();
-        if (launchFolder.isPresent()) {
-            Optional<File> launchFile = StreamSupport.stream(Arrays.asList(launchFolder.get().listFiles())).filter(new Predicate<File>() {
-                @Override
-                public boolean test(File file) {
-                    return file.getName().equals(JSON_FILE_NAME);
-                }
-            }).findFirst();
-            if (launchFile.isPresent()) {
-                if (launchFile.get().exists()) {
-                    InputStream is = null;
-                    try  {
-                        is = new FileInputStream(launchFile.get());
-                        final LaunchInfo info = context.getValue().readValue(is, LaunchInfo.class);
-                        visitor.visitExtra(LAUNCH_BLOCK_NAME, info);
+        Optional<File> launchFile = Optional.ofNullable(ResultsDirectoryIndex.of(fileList).find(LAUNCH_BLOCK_NAME, JSON_FILE_NAME));
+        if (launchFile.isPresent()) {
+            if (launchFile.get().exists()) {
+                InputStream is = null;
+                try  {
+                    is = new FileInputStream(launchFile.get());
+                    final LaunchInfo info = context.getValue().readValue(is, LaunchInfo.class);
+                    visitor.visitExtra(LAUNCH_BLOCK_NAME, info);
+                } catch (IOException e) {
+                    visitor.error("Could not read launch file " + launchFile.get(), e);
+                }finally {
+                    try {
+                        is.close();
                     } catch (IOException e) {
-                        visitor.error("Could not read launch file " + launchFile.get(), e);
-                    }finally {
-                        try {
-                            is.close();
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
+                        e.printStackTrace();
                     }
                 }
             }
         }
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(LAUNCH_STATISTICS);
+    }
+
     @Override
     public List<LaunchInfo> getData(final List<LaunchResults> launches) {
+        final LaunchStatistics statistics = FusedStatistics.get(launches, LAUNCH_STATISTICS);
         return StreamSupport.stream(launches)
                 .map(new Function<LaunchResults, Optional<LaunchInfo>>() {
                     @Override
                     public Optional<LaunchInfo> apply(LaunchResults launchResults) {
-                        return updateLaunchInfo(launchResults);
+                        return updateLaunchInfo(launchResults, statistics);
                     }
                 })
                 .filter(new Predicate<Optional<LaunchInfo>>() {
@@ -114,17 +124,57 @@ public class LaunchPlugin extends CommonJsonAggregator implements Reader {
                 .collect(Collectors.toList());
     }
 
-    private Optional<LaunchInfo> updateLaunchInfo(final LaunchResults results) {
+    private Optional<LaunchInfo> updateLaunchInfo(final LaunchResults results, final LaunchStatistics statistics) {
         final Optional<LaunchInfo> extra = results.getExtra(LAUNCH_BLOCK_NAME);
         extra.map(new Function<LaunchInfo, LaunchInfo>() {
             @Override
             public LaunchInfo apply(LaunchInfo launchInfo) {
                 final Statistic statistic = new Statistic();
+                statistic.merge(statistics.get(results));
                 launchInfo.setStatistic(statistic);
-                results.getResults().forEach(statistic::update);
                 return launchInfo;
             }
         });
         return extra;
     }
+
+    /**
+     * Statistic of visible results of every launch.
+     */
+    private static class LaunchStatistics extends Accumulator<LaunchStatistics> {
+
+        private final Map<LaunchResults, Statistic> statistics = new IdentityHashMap<>();
+
+        Statistic get(final LaunchResults launch) {
+            Statistic statistic = statistics.get(launch);
+            if (statistic == null) {
+                statistic = new Statistic();
+                statistics.put(launch, statistic);
+            }
+            return statistic;
+        }
+
+        @Override
+        public boolean acceptLaunch(final LaunchResults launch) {
+            if (!(launch instanceof IndexedLaunchResults)) {
+                return false;
+            }
+            ((IndexedLaunchResults) launch).getColumns().updateStatistic(get(launch));
+            return true;
+        }
+
+        @Override
+        public void accept(final LaunchResults launch, final TestResult result) {
+            if (!result.isHidden()) {
+                get(launch).update(result);
+            }
+        }
+
+        @Override
+        public void merge(final LaunchStatistics other) {
+            for (Map.Entry<LaunchResults, Statistic> entry : other.statistics.entrySet()) {
+                get(entry.getKey()).merge(entry.getValue());
+            }
+        }
+    }
 }
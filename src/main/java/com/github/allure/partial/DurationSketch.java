@@ -0,0 +1,109 @@
+package com.github.allure.partial;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable histogram of durations in logarithmic buckets. Every bucket
+ * spans values within {@link #RELATIVE_ERROR} of each other, so quantiles
+ * have the same relative error however many sketches are merged; the size
+ * depends on the range of durations, not on their number.
+ */
+public class DurationSketch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final double RELATIVE_ERROR = 0.02;
+
+    private static final double GAMMA = (1 + RELATIVE_ERROR) / (1 - RELATIVE_ERROR);
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    protected Map<Integer, Long> buckets = new TreeMap<>();
+
+    protected long count;
+
+    protected long zeros;
+
+    public Map<Integer, Long> getBuckets() {
+        return buckets;
+    }
+
+    public DurationSketch setBuckets(final Map<Integer, Long> buckets) {
+        this.buckets = new TreeMap<>(buckets);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public DurationSketch setCount(final long count) {
+        this.count = count;
+        return this;
+    }
+
+    public long getZeros() {
+        return zeros;
+    }
+
+    public DurationSketch setZeros(final long zeros) {
+        this.zeros = zeros;
+        return this;
+    }
+
+    public DurationSketch add(final long duration) {
+        count++;
+        if (duration <= 0) {
+            zeros++;
+        } else {
+            final int index = (int) Math.ceil(Math.log(duration) / LOG_GAMMA);
+            final Long current = buckets.get(index);
+            buckets.put(index, current == null ? 1L : current + 1);
+        }
+        return this;
+    }
+
+    public DurationSketch merge(final DurationSketch other) {
+        count += other.count;
+        zeros += other.zeros;
+        for (Map.Entry<Integer, Long> entry : other.buckets.entrySet()) {
+            final Long current = buckets.get(entry.getKey());
+            buckets.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the duration at given quantile, from 0 to 1, or null if the
+     * sketch is empty.
+     */
+    public Long quantile(final double quantile) {
+        if (count == 0) {
+            return null;
+        }
+        final long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank < zeros) {
+            return 0L;
+        }
+        long seen = zeros;
+        int index = 0;
+        for (Map.Entry<Integer, Long> entry : buckets.entrySet()) {
+            seen += entry.getValue();
+            index = entry.getKey();
+            if (rank < seen) {
+                break;
+            }
+        }
+        return valueOf(index);
+    }
+
+    /**
+     * Returns the duration standing for all durations of the bucket with
+     * given index.
+     */
+    public static long valueOf(final int index) {
+        return Math.round(2 * Math.pow(GAMMA, index) / (GAMMA + 1));
+    }
+}
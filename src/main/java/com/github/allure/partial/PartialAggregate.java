@@ -0,0 +1,194 @@
+package com.github.allure.partial;
+
+import com.github.allure.history.HistoryData;
+import com.github.allure.history.HistoryItem;
+import com.github.allure.stats.StatisticAccumulator;
+import io.qameta.allure.entity.ExecutorInfo;
+import io.qameta.allure.entity.GroupTime;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Time;
+import io.qameta.allure.tree.TreeWidgetItem;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated data of one shard of a run: everything widgets and trends need,
+ * without the test results. Partials are merged in any order and any
+ * grouping, merging two of them gives the partial of both shards.
+ * <p>
+ * History holds only what the shard adds: for every history id, the
+ * statistic and the newest items of this run.
+ */
+public class PartialAggregate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int HISTORY_ITEMS_LIMIT = 5;
+
+    private static final Comparator<HistoryItem> NEWEST_FIRST = new Comparator<HistoryItem>() {
+        @Override
+        public int compare(final HistoryItem left, final HistoryItem right) {
+            final long first = startOf(left);
+            final long second = startOf(right);
+            return first < second ? 1 : first > second ? -1 : 0;
+        }
+    };
+
+    protected ExecutorInfo executor;
+
+    protected Statistic statistic = new Statistic();
+
+    protected GroupTime time = new GroupTime();
+
+    protected DurationSketch durations = new DurationSketch();
+
+    protected Map<String, Long> categories = new HashMap<>();
+
+    protected Map<String, TreeWidgetItem> categoryItems = new HashMap<>();
+
+    protected Map<String, Long> retries = new HashMap<>();
+
+    protected Map<String, HistoryData> history = new HashMap<>();
+
+    public ExecutorInfo getExecutor() {
+        return executor;
+    }
+
+    public PartialAggregate setExecutor(final ExecutorInfo executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public Statistic getStatistic() {
+        return statistic;
+    }
+
+    public PartialAggregate setStatistic(final Statistic statistic) {
+        this.statistic = statistic;
+        return this;
+    }
+
+    public GroupTime getTime() {
+        return time;
+    }
+
+    public PartialAggregate setTime(final GroupTime time) {
+        this.time = time;
+        return this;
+    }
+
+    public DurationSketch getDurations() {
+        return durations;
+    }
+
+    public PartialAggregate setDurations(final DurationSketch durations) {
+        this.durations = durations;
+        return this;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public PartialAggregate setCategories(final Map<String, Long> categories) {
+        this.categories = categories;
+        return this;
+    }
+
+    /**
+     * Returns the statistic of every top level category, by name.
+     */
+    public Map<String, TreeWidgetItem> getCategoryItems() {
+        return categoryItems;
+    }
+
+    public PartialAggregate setCategoryItems(final Map<String, TreeWidgetItem> categoryItems) {
+        this.categoryItems = categoryItems;
+        return this;
+    }
+
+    public Map<String, Long> getRetries() {
+        return retries;
+    }
+
+    public PartialAggregate setRetries(final Map<String, Long> retries) {
+        this.retries = retries;
+        return this;
+    }
+
+    public Map<String, HistoryData> getHistory() {
+        return history;
+    }
+
+    public PartialAggregate setHistory(final Map<String, HistoryData> history) {
+        this.history = history;
+        return this;
+    }
+
+    /**
+     * Adds data of the other partial to this one.
+     */
+    public PartialAggregate merge(final PartialAggregate other) {
+        if (executor == null || other.executor != null && isLater(other.executor, executor)) {
+            executor = other.executor;
+        }
+        statistic.merge(other.statistic);
+        StatisticAccumulator.mergeTime(time, other.time);
+        durations.merge(other.durations);
+        addAll(categories, other.categories);
+        for (Map.Entry<String, TreeWidgetItem> entry : other.categoryItems.entrySet()) {
+            final TreeWidgetItem current = categoryItems.get(entry.getKey());
+            if (current == null) {
+                categoryItems.put(entry.getKey(), entry.getValue());
+            } else {
+                current.getStatistic().merge(entry.getValue().getStatistic());
+            }
+        }
+        addAll(retries, other.retries);
+        for (Map.Entry<String, HistoryData> entry : other.history.entrySet()) {
+            final HistoryData current = history.get(entry.getKey());
+            if (current == null) {
+                history.put(entry.getKey(), entry.getValue());
+            } else {
+                mergeHistory(current, entry.getValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds statistic and items of the delta to the history data, newest
+     * items first.
+     */
+    public static HistoryData mergeHistory(final HistoryData data, final HistoryData delta) {
+        data.getStatistic().merge(delta.getStatistic());
+        final List<HistoryItem> items = new ArrayList<>(delta.getItems());
+        items.addAll(data.getItems());
+        Collections.sort(items, NEWEST_FIRST);
+        data.setItems(new ArrayList<>(items.subList(0, Math.min(HISTORY_ITEMS_LIMIT, items.size()))));
+        return data;
+    }
+
+    private static void addAll(final Map<String, Long> counts, final Map<String, Long> other) {
+        for (Map.Entry<String, Long> entry : other.entrySet()) {
+            final Long current = counts.get(entry.getKey());
+            counts.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+        }
+    }
+
+    private static boolean isLater(final ExecutorInfo first, final ExecutorInfo second) {
+        return first.getBuildOrder() != null
+                && (second.getBuildOrder() == null || first.getBuildOrder() > second.getBuildOrder());
+    }
+
+    private static long startOf(final HistoryItem item) {
+        final Time time = item.getTime();
+        return time == null || time.getStart() == null ? Long.MIN_VALUE : time.getStart();
+    }
+}
@@ -0,0 +1,262 @@
+package com.github.allure.partial;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.category.CategoriesPlugin;
+import com.github.allure.category.CategoriesTrendItem;
+import com.github.allure.duration.DurationData;
+import com.github.allure.category.CategoriesTrendPlugin;
+import com.github.allure.duration.DurationTrendItem;
+import com.github.allure.duration.DurationTrendPlugin;
+import com.github.allure.history.HistoryData;
+import com.github.allure.history.HistoryPlugin;
+import com.github.allure.history.HistoryTrendItem;
+import com.github.allure.history.HistoryTrendPlugin;
+import com.github.allure.retry.RetryTrendItem;
+import com.github.allure.retry.RetryTrendPlugin;
+import com.github.allure.status.StatusChartData;
+import com.github.allure.summary.SummaryData;
+import com.github.allure.trend.TrendItem;
+import com.github.allure.utils.ResultsDirectoryIndex;
+import io.qameta.allure.Constants;
+import io.qameta.allure.Reader;
+import io.qameta.allure.context.JacksonContext;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.ExecutorInfo;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.Time;
+import io.qameta.allure.tree.TreeWidgetData;
+import io.qameta.allure.tree.TreeWidgetItem;
+import java8.util.function.Supplier;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.qameta.allure.entity.Statistic.comparator;
+
+/**
+ * Combines partial aggregates of shards into widgets, trends and history of
+ * the whole run. Partials are read and merged one at a time, so memory does
+ * not depend on the number of shards or results.
+ * <p>
+ * Duration and status chart widgets list one entry per test; without the
+ * results, entries are written from the merged duration sketch and
+ * statistic, with durations rounded to their sketch bucket and no test
+ * names. They are streamed, so they are never held in memory.
+ * <p>
+ * Trends and history of previous runs are read from the {@code history}
+ * directory of the results directory given to
+ * {@link #setPreviousResults(File)}, as readers of a regular generation do.
+ */
+public class PartialAggregateMerger {
+
+    private static final int TREND_LIMIT = 20;
+
+    private static final int CATEGORIES_WIDGET_LIMIT = 10;
+
+    private final Configuration configuration;
+
+    private LaunchResults previous;
+
+    public PartialAggregateMerger(final Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Reads previous history and trends from given results directory.
+     */
+    public PartialAggregateMerger setPreviousResults(final File resultsDirectory) {
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        final List<File> files = ResultsDirectoryIndex.build(resultsDirectory);
+        for (Reader reader : Arrays.<Reader>asList(new HistoryPlugin(), new HistoryTrendPlugin(),
+                new DurationTrendPlugin(), new CategoriesTrendPlugin(), new RetryTrendPlugin())) {
+            reader.readResults(configuration, visitor, files);
+        }
+        this.previous = visitor.getLaunchResults();
+        return this;
+    }
+
+    public PartialAggregate merge(final List<File> partials) throws IOException {
+        final ObjectMapper mapper = getMapper();
+        final PartialAggregate merged = new PartialAggregate();
+        for (File partial : partials) {
+            merged.merge(mapper.readValue(partial, PartialAggregate.class));
+        }
+        return merged;
+    }
+
+    /**
+     * Merges given partials and writes widgets, trends and history, along
+     * with the merged partial, which can be merged further.
+     */
+    public PartialAggregate generate(final List<File> partials, final String outputDirectory) throws IOException {
+        final PartialAggregate merged = merge(partials);
+        final ObjectMapper mapper = getMapper();
+        final File output = new File(outputDirectory);
+        final File widgets = new File(output, Constants.WIDGETS_DIR);
+        final File history = new File(output, Constants.HISTORY_DIR);
+        for (File directory : Arrays.asList(widgets, history)) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create directory " + directory);
+            }
+        }
+        mapper.writeValue(new File(output, PartialAggregatePlugin.PARTIAL_FILE_NAME), merged);
+        mapper.writeValue(new File(widgets, "summary.json"), new SummaryData()
+                .setReportName("Allure Report")
+                .setStatistic(merged.getStatistic())
+                .setTime(merged.getTime()));
+        writeDurations(mapper, new File(widgets, "duration.json"), merged.getDurations());
+        writeStatuses(mapper, new File(widgets, "status-chart.json"), merged.getStatistic());
+        mapper.writeValue(new File(widgets, CategoriesPlugin.JSON_FILE_NAME), getCategoriesWidget(merged));
+
+        final HistoryTrendItem historyTrend = new HistoryTrendItem().setStatistic(merged.getStatistic());
+        final ExecutorInfo executor = merged.getExecutor();
+        if (executor != null) {
+            historyTrend.setBuildOrder(executor.getBuildOrder());
+            historyTrend.setReportName(executor.getReportName());
+            historyTrend.setReportUrl(executor.getReportUrl());
+        }
+        writeTrend(mapper, output, HistoryTrendPlugin.JSON_FILE_NAME,
+                trend(historyTrend, HistoryTrendPlugin.HISTORY_TREND_BLOCK_NAME));
+
+        final DurationTrendItem durationTrend = setExecutor(new DurationTrendItem(), executor);
+        durationTrend.updateTime(merged.getTime());
+        writeTrend(mapper, output, DurationTrendPlugin.JSON_FILE_NAME,
+                trend(durationTrend, DurationTrendPlugin.DURATION_TREND_BLOCK_NAME));
+
+        final CategoriesTrendItem categoriesTrend = setExecutor(new CategoriesTrendItem(), executor);
+        categoriesTrend.addMetrics(merged.getCategories());
+        writeTrend(mapper, output, CategoriesTrendPlugin.JSON_FILE_NAME,
+                trend(categoriesTrend, CategoriesTrendPlugin.CATEGORIES_TREND_BLOCK_NAME));
+
+        final RetryTrendItem retryTrend = setExecutor(new RetryTrendItem(), executor);
+        retryTrend.addMetrics(merged.getRetries());
+        writeTrend(mapper, output, RetryTrendPlugin.JSON_FILE_NAME,
+                trend(retryTrend, RetryTrendPlugin.RETRY_TREND_BLOCK_NAME));
+
+        mapper.writeValue(new File(history, HistoryPlugin.HISTORY_FILE_NAME), getHistory(merged));
+        return merged;
+    }
+
+    private static void writeDurations(final ObjectMapper mapper,
+                                       final File file,
+                                       final DurationSketch durations) throws IOException {
+        final JsonGenerator generator = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8);
+        try {
+            generator.writeStartArray();
+            writeRepeated(generator, new DurationData().setTime(new Time().setDuration(0L)), durations.getZeros());
+            for (Map.Entry<Integer, Long> bucket : durations.getBuckets().entrySet()) {
+                final long duration = DurationSketch.valueOf(bucket.getKey());
+                writeRepeated(generator, new DurationData().setTime(new Time().setDuration(duration)),
+                        bucket.getValue());
+            }
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+
+    private static void writeStatuses(final ObjectMapper mapper,
+                                      final File file,
+                                      final Statistic statistic) throws IOException {
+        final JsonGenerator generator = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8);
+        try {
+            generator.writeStartArray();
+            writeRepeated(generator, new StatusChartData().setStatus(Status.FAILED), statistic.getFailed());
+            writeRepeated(generator, new StatusChartData().setStatus(Status.BROKEN), statistic.getBroken());
+            writeRepeated(generator, new StatusChartData().setStatus(Status.PASSED), statistic.getPassed());
+            writeRepeated(generator, new StatusChartData().setStatus(Status.SKIPPED), statistic.getSkipped());
+            writeRepeated(generator, new StatusChartData().setStatus(Status.UNKNOWN), statistic.getUnknown());
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+
+    private static void writeRepeated(final JsonGenerator generator,
+                                      final Object item,
+                                      final long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            generator.writeObject(item);
+        }
+    }
+
+    private static TreeWidgetData getCategoriesWidget(final PartialAggregate merged) {
+        final List<TreeWidgetItem> items = new ArrayList<>(merged.getCategoryItems().values());
+        final Comparator<Statistic> byStatistic = comparator();
+        Collections.sort(items, new Comparator<TreeWidgetItem>() {
+            @Override
+            public int compare(final TreeWidgetItem left, final TreeWidgetItem right) {
+                return byStatistic.compare(right.getStatistic(), left.getStatistic());
+            }
+        });
+        return new TreeWidgetData()
+                .setItems(new ArrayList<>(items.subList(0, Math.min(CATEGORIES_WIDGET_LIMIT, items.size()))))
+                .setTotal(items.size());
+    }
+
+    private Map<String, HistoryData> getHistory(final PartialAggregate merged) {
+        final Map<String, HistoryData> history = previous == null
+                ? new HashMap<String, HistoryData>()
+                : new HashMap<>(previous.getExtra(HistoryPlugin.HISTORY_BLOCK_NAME,
+                new Supplier<Map<String, HistoryData>>() {
+                    @Override
+                    public Map<String, HistoryData> get() {
+                        return new HashMap<>();
+                    }
+                }));
+        for (Map.Entry<String, HistoryData> entry : merged.getHistory().entrySet()) {
+            final HistoryData data = history.get(entry.getKey());
+            if (data == null) {
+                history.put(entry.getKey(), entry.getValue());
+            } else {
+                PartialAggregate.mergeHistory(data, entry.getValue());
+            }
+        }
+        return history;
+    }
+
+    private <T> List<T> trend(final T current, final String blockName) {
+        final List<T> items = new ArrayList<>();
+        items.add(current);
+        if (previous != null) {
+            items.addAll(previous.getExtra(blockName, new Supplier<List<T>>() {
+                @Override
+                public List<T> get() {
+                    return new ArrayList<>();
+                }
+            }));
+        }
+        return items.size() > TREND_LIMIT ? new ArrayList<>(items.subList(0, TREND_LIMIT)) : items;
+    }
+
+    private static void writeTrend(final ObjectMapper mapper, final File output,
+                                   final String fileName, final Object data) throws IOException {
+        mapper.writeValue(new File(new File(output, Constants.HISTORY_DIR), fileName), data);
+        mapper.writeValue(new File(new File(output, Constants.WIDGETS_DIR), fileName), data);
+    }
+
+    private static <T extends TrendItem> T setExecutor(final T item, final ExecutorInfo executor) {
+        if (executor != null) {
+            item.setBuildOrder(executor.getBuildOrder());
+            item.setReportName(executor.getReportName());
+            item.setReportUrl(executor.getReportUrl());
+        }
+        return item;
+    }
+
+    private ObjectMapper getMapper() {
+        return configuration.getContext(JacksonContext.class).getValue();
+    }
+}
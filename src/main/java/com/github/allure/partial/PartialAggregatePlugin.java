@@ -0,0 +1,97 @@
+package com.github.allure.partial;
+
+import com.github.allure.category.CategoriesPlugin;
+import com.github.allure.category.CategoriesTrendItem;
+import com.github.allure.history.HistoryData;
+import com.github.allure.history.HistoryPlugin;
+import com.github.allure.retry.RetryTrendItem;
+import com.github.allure.trend.AbstractTrendPlugin;
+import io.qameta.allure.Aggregator;
+import io.qameta.allure.context.JacksonContext;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.ExecutorInfo;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.tree.TestResultTreeGroup;
+import io.qameta.allure.tree.TreeNode;
+import io.qameta.allure.tree.TreeWidgetItem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static io.qameta.allure.tree.TreeUtils.calculateStatisticByLeafs;
+
+/**
+ * Writes the {@link PartialAggregate} of a shard to
+ * {@value #PARTIAL_FILE_NAME}, to be combined with partials of other shards
+ * by {@link PartialAggregateMerger}. Not added by default, add it to the
+ * configuration of shard runs.
+ */
+public class PartialAggregatePlugin implements Aggregator {
+
+    public static final String PARTIAL_FILE_NAME = "partial-aggregate.json";
+
+    @Override
+    public void aggregate(final Configuration configuration,
+                          final List<LaunchResults> launchesResults,
+                          final String outputDirectory) throws IOException {
+        final File output = new File(outputDirectory);
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Could not create directory " + output);
+        }
+        configuration.getContext(JacksonContext.class).getValue()
+                .writeValue(new File(output, PARTIAL_FILE_NAME), getData(launchesResults));
+    }
+
+    public PartialAggregate getData(final List<LaunchResults> launchesResults) {
+        final ExecutorInfo executor = AbstractTrendPlugin.extractLatestExecutor(launchesResults).orElse(null);
+        final ExecutorInfo historyExecutor = executor == null ? new ExecutorInfo() : executor;
+        final PartialAggregate partial = new PartialAggregate().setExecutor(executor);
+        final CategoriesTrendItem categories = new CategoriesTrendItem();
+        final RetryTrendItem retries = new RetryTrendItem();
+        for (LaunchResults launchResults : launchesResults) {
+            for (TestResult result : launchResults.getResults()) {
+                partial.getStatistic().update(result);
+                partial.getTime().update(result);
+                if (result.getTime() != null && result.getTime().getDuration() != null) {
+                    partial.getDurations().add(result.getTime().getDuration());
+                }
+                if (result.getHistoryId() != null) {
+                    addHistory(partial, result, historyExecutor);
+                }
+            }
+            for (TestResult result : launchResults.getAllResults()) {
+                categories.increaseCategories(result);
+                retries.update(result);
+            }
+        }
+        partial.setCategories(categories.getData());
+        partial.setRetries(retries.getData());
+        for (TreeNode node : new CategoriesPlugin().getData(launchesResults).getChildren()) {
+            if (node instanceof TestResultTreeGroup) {
+                final TestResultTreeGroup group = (TestResultTreeGroup) node;
+                partial.getCategoryItems().put(group.getName(), new TreeWidgetItem()
+                        .setUid(group.getUid())
+                        .setName(group.getName())
+                        .setStatistic(calculateStatisticByLeafs(group)));
+            }
+        }
+        return partial;
+    }
+
+    private static void addHistory(final PartialAggregate partial,
+                                   final TestResult result,
+                                   final ExecutorInfo executor) {
+        final HistoryData delta = new HistoryData().setStatistic(new Statistic());
+        delta.getStatistic().update(result);
+        delta.getItems().add(HistoryPlugin.createItem(result, executor));
+        final HistoryData current = partial.getHistory().get(result.getHistoryId());
+        if (current == null) {
+            partial.getHistory().put(result.getHistoryId(), delta);
+        } else {
+            PartialAggregate.mergeHistory(current, delta);
+        }
+    }
+}
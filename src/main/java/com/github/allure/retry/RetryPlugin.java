@@ -15,6 +15,7 @@
  */
 package com.github.allure.retry;
 
+import com.github.allure.IndexedLaunchResults;
 import io.qameta.allure.Aggregator;
 import io.qameta.allure.core.Configuration;
 import io.qameta.allure.core.LaunchResults;
@@ -28,12 +29,10 @@ import java.util.function.BiConsumer;
 import java8.util.*;
 import java8.util.Objects;
 import java8.util.Optional;
-import java8.util.function.BinaryOperator;
 import java8.util.function.Consumer;
 import java8.util.function.Function;
 import java8.util.function.Predicate;
 import java8.util.stream.Collectors;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 import static io.qameta.allure.entity.TestResult.comparingByTimeAsc;
@@ -53,45 +52,53 @@ public class RetryPlugin implements Aggregator {
                           final List<LaunchResults> launchesResults,
                           final String outputDirectory) {
 
-        final Map<String, List<TestResult>> byHistory = StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getAllResults());
-                    }
-                })
-                .filter(new Predicate<TestResult>() {
-                    @Override
-                    public boolean test(TestResult testResult) {
-                        return Objects.nonNull(testResult.getHistoryId());
-                    }
-                })
-                .collect(Collectors.toMap(new Function<TestResult, String>() {
-                    @Override
-                    public String apply(TestResult testResult) {
-                        return testResult.getHistoryId();
-                    }
-                }, new Function<TestResult, List<TestResult>>() {
-                    @Override
-                    public List<TestResult> apply(TestResult testResult) {
-                        return Arrays.asList(testResult);
-                    }
-                }, new BinaryOperator<List<TestResult>>() {
-                    @Override
-                    public List<TestResult> apply(List<TestResult> testResults, List<TestResult> testResults2) {
-                        return merge(testResults, testResults2);
-                    }
-                }));
+        final Map<String, List<TestResult>> byHistory = groupByHistoryId(launchesResults);
 
         StreamSupport.stream(byHistory.entrySet()).forEach(new Consumer<Map.Entry<String, List<TestResult>>>() {
             @Override
             public void accept(Map.Entry<String, List<TestResult>> testResults) {
-                findLatest(testResults.getValue()).ifPresent(addRetries(testResults.getValue()));
+                findLatest(testResults.getValue()).ifPresent(addRetries(launchesResults, testResults.getValue()));
             }
         });
     }
 
-    private Consumer<TestResult> addRetries(final List<TestResult> results) {
+    /**
+     * Groups results of all launches by history id. Indexed launches are
+     * grouped by their history id index, which holds visible results only;
+     * retries run before anything else hides results.
+     */
+    private Map<String, List<TestResult>> groupByHistoryId(final List<LaunchResults> launchesResults) {
+        final Map<String, List<TestResult>> byHistory = new HashMap<>();
+        for (LaunchResults launchResults : launchesResults) {
+            if (launchResults instanceof IndexedLaunchResults) {
+                final Map<String, Set<TestResult>> groups =
+                        ((IndexedLaunchResults) launchResults).groupByHistoryId();
+                for (Map.Entry<String, Set<TestResult>> group : groups.entrySet()) {
+                    historyGroup(byHistory, group.getKey()).addAll(group.getValue());
+                }
+            } else {
+                for (TestResult result : launchResults.getAllResults()) {
+                    if (Objects.nonNull(result.getHistoryId())) {
+                        historyGroup(byHistory, result.getHistoryId()).add(result);
+                    }
+                }
+            }
+        }
+        return byHistory;
+    }
+
+    private static List<TestResult> historyGroup(final Map<String, List<TestResult>> byHistory,
+                                                 final String historyId) {
+        List<TestResult> group = byHistory.get(historyId);
+        if (group == null) {
+            group = new ArrayList<>();
+            byHistory.put(historyId, group);
+        }
+        return group;
+    }
+
+    private Consumer<TestResult> addRetries(final List<LaunchResults> launchesResults,
+                                            final List<TestResult> results) {
         return new Consumer<TestResult>() {
             @Override
             public void accept(TestResult latest) {
@@ -106,7 +113,7 @@ public class RetryPlugin implements Aggregator {
                         .map(new Function<TestResult, TestResult>() {
                             @Override
                             public TestResult apply(TestResult testResult) {
-                                return prepareRetry(testResult);
+                                return prepareRetry(launchesResults, testResult);
                             }
                         })
                         .map(new Function<TestResult, RetryItem>() {
@@ -136,8 +143,16 @@ public class RetryPlugin implements Aggregator {
         };
     }
 
-    private TestResult prepareRetry(final TestResult result) {
-        result.setHidden(true);
+    private TestResult prepareRetry(final List<LaunchResults> launchesResults, final TestResult result) {
+        boolean indexed = false;
+        for (LaunchResults launchResults : launchesResults) {
+            if (launchResults instanceof IndexedLaunchResults) {
+                indexed |= ((IndexedLaunchResults) launchResults).setHidden(result, true);
+            }
+        }
+        if (!indexed) {
+            result.setHidden(true);
+        }
         result.setRetry(true);
         return result;
     }
@@ -160,12 +175,4 @@ public class RetryPlugin implements Aggregator {
                 })
                 .min(Comparators.reversed(comparingByTimeAsc()));
     }
-
-    private List<TestResult> merge(final List<TestResult> first,
-                                   final List<TestResult> second) {
-        final List<TestResult> merged = new ArrayList<>();
-        merged.addAll(first);
-        merged.addAll(second);
-        return merged;
-    }
 }
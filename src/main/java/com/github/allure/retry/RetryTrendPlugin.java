@@ -18,6 +18,11 @@ package com.github.allure.retry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticsContributor;
+import com.github.allure.stats.TrendItemAccumulator;
 import com.github.allure.trend.AbstractTrendPlugin;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
@@ -25,6 +30,7 @@ import io.qameta.allure.core.LaunchResults;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.qameta.allure.entity.ExecutorInfo;
@@ -36,18 +42,30 @@ import java8.util.function.Function;
 import java8.util.function.Supplier;
 import java8.util.stream.Collectors;
 import java8.util.stream.RefStreams;
-import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
 /**
  * Plugin that generates data for Retry-Trend graph.
  */
-public class RetryTrendPlugin extends AbstractTrendPlugin<RetryTrendItem> {
+public class RetryTrendPlugin extends AbstractTrendPlugin<RetryTrendItem> implements StatisticsContributor {
 
-    private static final String JSON_FILE_NAME = "retry-trend.json";
+    public static final String JSON_FILE_NAME = "retry-trend.json";
 
     public static final String RETRY_TREND_BLOCK_NAME = "retry-trend";
 
+    private static final AccumulatorFactory<TrendItemAccumulator<RetryTrendItem>> RETRIES =
+            new AccumulatorFactory<TrendItemAccumulator<RetryTrendItem>>() {
+                @Override
+                public TrendItemAccumulator<RetryTrendItem> create() {
+                    return new TrendItemAccumulator<RetryTrendItem>(new RetryTrendItem()) {
+                        @Override
+                        protected void update(final RetryTrendItem item, final TestResult result) {
+                            item.update(result);
+                        }
+                    };
+                }
+            };
+
     public RetryTrendPlugin() {
         super(Arrays.asList(new JsonAggregator(), new WidgetAggregator()), JSON_FILE_NAME, RETRY_TREND_BLOCK_NAME);
     }
@@ -58,8 +76,23 @@ public class RetryTrendPlugin extends AbstractTrendPlugin<RetryTrendItem> {
         return Optional.ofNullable(mapper.treeToValue(child, RetryTrendItem.class));
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(RETRIES);
+    }
+
     @SuppressWarnings("PMD.DefaultPackage")
     /* default */public static List<RetryTrendItem> getData(final List<LaunchResults> launchesResults) {
+        return GenerationCache.get(launchesResults, RetryTrendPlugin.class, "trend",
+                new Supplier<List<RetryTrendItem>>() {
+                    @Override
+                    public List<RetryTrendItem> get() {
+                        return createData(launchesResults);
+                    }
+                });
+    }
+
+    private static List<RetryTrendItem> createData(final List<LaunchResults> launchesResults) {
         final RetryTrendItem item = new RetryTrendPlugin().createCurrent(launchesResults);
         final List<RetryTrendItem> data = getHistoryItems(launchesResults);
 
@@ -104,19 +137,7 @@ public class RetryTrendPlugin extends AbstractTrendPlugin<RetryTrendItem> {
                 item.setReportUrl(executorInfo.getReportUrl());
             }
         });
-        StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getAllResults());
-                    }
-                })
-                .forEach(new Consumer<TestResult>() {
-                    @Override
-                    public void accept(TestResult testResult) {
-                        item.update(testResult);
-                    }
-                });
+        FusedStatistics.get(launchesResults, RETRIES).copyTo(item);
         return item;
     }
 
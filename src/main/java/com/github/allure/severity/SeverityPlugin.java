@@ -15,6 +15,9 @@
  */
 package com.github.allure.severity;
 
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.ListAccumulator;
 import io.qameta.allure.Aggregator;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.CompositeAggregator;
@@ -23,13 +26,13 @@ import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.TestResult;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import java8.util.Optional;
 import java8.util.function.Consumer;
 import java8.util.function.Function;
-import java8.util.stream.Collectors;
 import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
 
@@ -85,28 +88,33 @@ public class SeverityPlugin extends CompositeAggregator {
     }
 
     public static class WidgetAggregator extends CommonJsonAggregator {
+
+        private static final AccumulatorFactory<ListAccumulator<SeverityData>> SEVERITY_DATA =
+                new AccumulatorFactory<ListAccumulator<SeverityData>>() {
+                    @Override
+                    public ListAccumulator<SeverityData> create() {
+                        return new ListAccumulator<SeverityData>() {
+                            @Override
+                            protected SeverityData createItem(final TestResult result) {
+                                return createData(result);
+                            }
+                        };
+                    }
+                };
+
         public WidgetAggregator() {
             super("widgets", JSON_FILE_NAME);
         }
 
+        /**
+         * Computed on its own, not in the shared pass: the plugin modifies
+         * results, so it runs before the pass is computed.
+         */
         public List<SeverityData> getData(final List<LaunchResults> launchesResults) {
-            return StreamSupport.stream(launchesResults)
-                    .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                        @Override
-                        public Stream<TestResult> apply(LaunchResults launchResults) {
-                            return StreamSupport.stream(launchResults.getResults());
-                        }
-                    })
-                    .map(new Function<TestResult, SeverityData>() {
-                        @Override
-                        public SeverityData apply(TestResult testResult) {
-                            return createData(testResult);
-                        }
-                    })
-                    .collect(Collectors.toList());
+            return new ArrayList<>(FusedStatistics.get(launchesResults, SEVERITY_DATA).getItems());
         }
 
-        private SeverityData createData(final TestResult result) {
+        private static SeverityData createData(final TestResult result) {
             return new SeverityData()
                     .setUid(result.getUid())
                     .setName(result.getName())
@@ -0,0 +1,76 @@
+package com.github.allure.spill;
+
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fields of a test result that stay in heap while the full result is
+ * spilled to disk, together with the location of its latest copy.
+ */
+public class ResultSummary {
+
+    private final String uid;
+
+    private String historyId;
+
+    private Status status;
+
+    private Time time;
+
+    private List<Label> labels;
+
+    private boolean hidden;
+
+    long offset = -1;
+
+    int length;
+
+    ResultSummary(final TestResult result) {
+        this.uid = result.getUid();
+        update(result);
+    }
+
+    final void update(final TestResult result) {
+        this.historyId = result.getHistoryId();
+        this.status = result.getStatus();
+        this.time = result.getTime();
+        this.labels = result.getLabels() == null
+                ? Collections.<Label>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(result.getLabels()));
+        this.hidden = result.isHidden();
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public String getHistoryId() {
+        return historyId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Time getTime() {
+        return time;
+    }
+
+    public List<Label> getLabels() {
+        return labels;
+    }
+
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    public boolean isSpilled() {
+        return offset >= 0;
+    }
+}
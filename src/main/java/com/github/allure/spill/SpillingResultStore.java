@@ -0,0 +1,378 @@
+package com.github.allure.spill;
+
+import io.qameta.allure.entity.TestResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Bounded-memory store of test results. A {@link ResultSummary} of every
+ * result stays in heap; full results are kept in heap only while used heap
+ * is under the threshold. Over it, the least recently used half of them is
+ * serialized to an append-only segment file and loaded back by uid when
+ * needed.
+ * <p>
+ * Results are written again every time they are spilled, so changes made to
+ * a loaded result are kept. A spilled result that is still referenced
+ * elsewhere is returned as the same instance until it is garbage collected.
+ * Nothing is spilled between {@link #beginChanges()} and
+ * {@link #endChanges()}: aggregators that change results may keep them, as
+ * retries grouped by history id are, and change them later, so every result
+ * loaded meanwhile stays in heap until changes end. Older copies stay in the
+ * segment until the store is closed.
+ */
+public class SpillingResultStore implements Closeable {
+
+    public static final double DEFAULT_HEAP_THRESHOLD = 0.75;
+
+    private static final int CHECK_INTERVAL = 256;
+
+    private final File segment;
+
+    private final RandomAccessFile file;
+
+    private final double heapThreshold;
+
+    private final Map<String, ResultSummary> summaries = new LinkedHashMap<>();
+
+    private final Map<String, TestResult> hot = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, EvictedResult> evicted = new HashMap<>();
+
+    private final ReferenceQueue<TestResult> collected = new ReferenceQueue<>();
+
+    private int changes;
+
+    private int operations;
+
+    private long spilled;
+
+    private long loaded;
+
+    public SpillingResultStore(final File directory) throws IOException {
+        this(directory, DEFAULT_HEAP_THRESHOLD);
+    }
+
+    /**
+     * Creates a store with a segment file in given directory. Results are
+     * spilled once used heap exceeds given share of the maximum heap size.
+     */
+    public SpillingResultStore(final File directory, final double heapThreshold) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create spill directory " + directory);
+        }
+        this.segment = File.createTempFile("results", ".segment", directory);
+        this.segment.deleteOnExit();
+        this.file = new RandomAccessFile(segment, "rw");
+        this.heapThreshold = heapThreshold;
+    }
+
+    public synchronized boolean add(final TestResult result) {
+        final ResultSummary summary = new ResultSummary(result);
+        if (summaries.containsKey(summary.getUid())) {
+            return false;
+        }
+        summaries.put(summary.getUid(), summary);
+        hot.put(summary.getUid(), result);
+        checkHeap();
+        return true;
+    }
+
+    /**
+     * Returns the full result with given uid, reading it from the segment
+     * file if it was spilled, or null if there is no such result.
+     */
+    public synchronized TestResult get(final String uid) {
+        final TestResult result = hot.get(uid);
+        if (result != null) {
+            return result;
+        }
+        final ResultSummary summary = summaries.get(uid);
+        if (summary == null || !summary.isSpilled()) {
+            return null;
+        }
+        final EvictedResult reference = evicted.remove(uid);
+        TestResult read = reference == null ? null : reference.get();
+        if (read == null) {
+            read = read(summary);
+            loaded++;
+        }
+        hot.put(uid, read);
+        checkHeap();
+        return read;
+    }
+
+    public synchronized ResultSummary getSummary(final String uid) {
+        return summaries.get(uid);
+    }
+
+    public synchronized List<ResultSummary> getSummaries() {
+        return new ArrayList<>(summaries.values());
+    }
+
+    public synchronized int size() {
+        return summaries.size();
+    }
+
+    public synchronized long getSpilledCount() {
+        return spilled;
+    }
+
+    public synchronized long getLoadedCount() {
+        return loaded;
+    }
+
+    public synchronized long getSegmentSize() throws IOException {
+        return file.length();
+    }
+
+    /**
+     * Stops spilling until {@link #endChanges()}, so results loaded
+     * meanwhile can be kept and changed by callers. Calls may be nested.
+     */
+    public synchronized void beginChanges() {
+        changes++;
+    }
+
+    /**
+     * Allows spilling again, with the results changed meanwhile written in
+     * their current state once spilled.
+     */
+    public synchronized void endChanges() {
+        if (changes == 0) {
+            throw new IllegalStateException("No changes to end");
+        }
+        if (--changes == 0) {
+            operations = CHECK_INTERVAL - 1;
+            checkHeap();
+        }
+    }
+
+    public synchronized boolean isChanging() {
+        return changes > 0;
+    }
+
+    /**
+     * Writes the least recently used half of results kept in heap to the
+     * segment file. Does nothing while results are being changed.
+     */
+    public synchronized void spill() {
+        if (changes > 0) {
+            return;
+        }
+        int count = Math.max(1, hot.size() / 2);
+        final Iterator<Map.Entry<String, TestResult>> iterator = hot.entrySet().iterator();
+        while (count-- > 0 && iterator.hasNext()) {
+            final Map.Entry<String, TestResult> entry = iterator.next();
+            write(summaries.get(entry.getKey()), entry.getValue());
+            evicted.put(entry.getKey(), new EvictedResult(entry.getKey(), entry.getValue(), collected));
+            iterator.remove();
+            spilled++;
+        }
+        Reference<? extends TestResult> reference;
+        while ((reference = collected.poll()) != null) {
+            final String uid = ((EvictedResult) reference).uid;
+            if (evicted.get(uid) == reference) {
+                evicted.remove(uid);
+            }
+        }
+    }
+
+    /**
+     * Live view of all results, iterated in insertion order. Adding to the
+     * view adds to the store; results are loaded one at a time.
+     */
+    public StoredResults asSet() {
+        return new StoredResults(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        hot.clear();
+        evicted.clear();
+        summaries.clear();
+        file.close();
+        if (!segment.delete()) {
+            segment.deleteOnExit();
+        }
+    }
+
+    private void checkHeap() {
+        if (++operations % CHECK_INTERVAL != 0 || hot.isEmpty() || changes > 0) {
+            return;
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        final long used = runtime.totalMemory() - runtime.freeMemory();
+        if (used > runtime.maxMemory() * heapThreshold) {
+            spill();
+        }
+    }
+
+    private void write(final ResultSummary summary, final TestResult result) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream output = new ObjectOutputStream(bytes);
+            output.writeObject(result);
+            output.close();
+            final long offset = file.length();
+            file.seek(offset);
+            file.write(bytes.toByteArray());
+            summary.update(result);
+            summary.offset = offset;
+            summary.length = bytes.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not spill result " + summary.getUid() + " to " + segment, e);
+        }
+    }
+
+    private TestResult read(final ResultSummary summary) {
+        try {
+            final byte[] bytes = new byte[summary.length];
+            file.seek(summary.offset);
+            file.readFully(bytes);
+            final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes));
+            try {
+                return (TestResult) input.readObject();
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read result " + summary.getUid() + " from " + segment, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Could not read result " + summary.getUid() + " from " + segment, e);
+        }
+    }
+
+    private synchronized List<String> uids() {
+        return new ArrayList<>(summaries.keySet());
+    }
+
+    private static final class EvictedResult extends WeakReference<TestResult> {
+
+        private final String uid;
+
+        EvictedResult(final String uid, final TestResult result, final ReferenceQueue<TestResult> queue) {
+            super(result, queue);
+            this.uid = uid;
+        }
+    }
+
+    /**
+     * Set view of the store. Iterators work on a snapshot of uids taken when
+     * they are created.
+     */
+    public final class StoredResults extends AbstractSet<TestResult> {
+
+        private final boolean visibleOnly;
+
+        private StoredResults(final boolean visibleOnly) {
+            this.visibleOnly = visibleOnly;
+        }
+
+        public SpillingResultStore getStore() {
+            return SpillingResultStore.this;
+        }
+
+        /**
+         * Returns a view of results that are not hidden.
+         */
+        public StoredResults visible() {
+            return new StoredResults(true);
+        }
+
+        @Override
+        public boolean add(final TestResult result) {
+            if (visibleOnly) {
+                throw new UnsupportedOperationException();
+            }
+            return SpillingResultStore.this.add(result);
+        }
+
+        @Override
+        public boolean addAll(final Collection<? extends TestResult> results) {
+            boolean changed = false;
+            for (TestResult result : results) {
+                changed |= add(result);
+            }
+            return changed;
+        }
+
+        @Override
+        public boolean contains(final Object object) {
+            if (!(object instanceof TestResult)) {
+                return false;
+            }
+            final TestResult result = get(((TestResult) object).getUid());
+            return result != null && (!visibleOnly || !result.isHidden());
+        }
+
+        @Override
+        public int size() {
+            if (!visibleOnly) {
+                return SpillingResultStore.this.size();
+            }
+            int size = 0;
+            for (Iterator<TestResult> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<TestResult> iterator() {
+            final Iterator<String> uids = uids().iterator();
+            return new Iterator<TestResult>() {
+
+                private TestResult next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public TestResult next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    final TestResult current = next;
+                    next = advance();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                private TestResult advance() {
+                    while (uids.hasNext()) {
+                        final TestResult result = get(uids.next());
+                        if (result != null && (!visibleOnly || !result.isHidden())) {
+                            return result;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.allure.stats;
+
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+
+/**
+ * State of one statistic computed by {@link FusedStatistics}. A pass may
+ * split results between several accumulators created by the same
+ * {@link AccumulatorFactory} and merge them in the order of results.
+ *
+ * @param <A> the accumulator type itself
+ */
+public abstract class Accumulator<A extends Accumulator<A>> {
+
+    /**
+     * Adds the whole launch at once. Returns false, the default, to get its
+     * results one by one instead.
+     */
+    public boolean acceptLaunch(final LaunchResults launch) {
+        return false;
+    }
+
+    /**
+     * Adds a result of the launch. Hidden results are passed as well.
+     */
+    public abstract void accept(LaunchResults launch, TestResult result);
+
+    /**
+     * Adds the state of an accumulator that saw later results.
+     */
+    public abstract void merge(A other);
+}
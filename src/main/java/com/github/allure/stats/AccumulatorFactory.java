@@ -0,0 +1,12 @@
+package com.github.allure.stats;
+
+/**
+ * Creates accumulators of one statistic. The factory instance identifies
+ * the statistic, so it is usually a constant.
+ *
+ * @param <A> the accumulator type
+ */
+public interface AccumulatorFactory<A extends Accumulator<A>> {
+
+    A create();
+}
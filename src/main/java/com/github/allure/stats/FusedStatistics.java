@@ -0,0 +1,200 @@
+package com.github.allure.stats;
+
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.spill.SpillingResultStore;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes statistics of many aggregators in one pass over test results.
+ * Every result is passed once to an accumulator of each statistic instead of
+ * every aggregator streaming all results on its own.
+ * <p>
+ * Statistics of a generation are registered with
+ * {@link #prepare(List, List, int)} before aggregators run, and computed all
+ * together on the first {@link #get(List, AccumulatorFactory)}, so they see
+ * results as left by aggregators that modify them. Large launches are split
+ * into chunks, each counted by its own accumulators on a worker thread; the
+ * accumulators are then merged in the order of chunks. Spilled launches are
+ * read sequentially, so results are loaded from disk once.
+ * <p>
+ * Statistics that were not registered are computed on their own, so
+ * aggregators give the same data when run outside of a prepared generation.
+ */
+public final class FusedStatistics {
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final Map<List<LaunchResults>, FusedStatistics> PREPARED =
+            Collections.synchronizedMap(new IdentityHashMap<List<LaunchResults>, FusedStatistics>());
+
+    private final List<LaunchResults> launches;
+
+    private final List<AccumulatorFactory<?>> factories;
+
+    private final int parallelism;
+
+    private Map<AccumulatorFactory<?>, Accumulator<?>> accumulators;
+
+    private FusedStatistics(final List<LaunchResults> launches,
+                            final List<AccumulatorFactory<?>> factories,
+                            final int parallelism) {
+        this.launches = launches;
+        this.factories = factories;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Registers statistics of given aggregators that implement
+     * {@link StatisticsContributor}, to be computed in one pass over the
+     * launches. Other aggregators are ignored.
+     */
+    public static void prepare(final List<LaunchResults> launches,
+                               final List<?> aggregators,
+                               final int parallelism) {
+        final List<AccumulatorFactory<?>> factories = new ArrayList<>();
+        for (Object aggregator : aggregators) {
+            if (aggregator instanceof StatisticsContributor) {
+                for (AccumulatorFactory<?> factory
+                        : ((StatisticsContributor) aggregator).getAccumulatorFactories()) {
+                    if (!factories.contains(factory)) {
+                        factories.add(factory);
+                    }
+                }
+            }
+        }
+        PREPARED.put(launches, new FusedStatistics(launches, factories, Math.max(1, parallelism)));
+    }
+
+    /**
+     * Drops statistics of the launches, to be called once aggregators are
+     * finished.
+     */
+    public static void release(final List<LaunchResults> launches) {
+        PREPARED.remove(launches);
+    }
+
+    /**
+     * Returns the accumulator of the statistic over all launches. It is
+     * shared by all callers and must not be changed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Accumulator<A>> A get(final List<LaunchResults> launches,
+                                                   final AccumulatorFactory<A> factory) {
+        final FusedStatistics prepared = PREPARED.get(launches);
+        if (prepared != null && prepared.factories.contains(factory)) {
+            return (A) prepared.getAccumulators().get(factory);
+        }
+        final List<AccumulatorFactory<?>> single = Collections.<AccumulatorFactory<?>>singletonList(factory);
+        return (A) compute(launches, single, 1).get(factory);
+    }
+
+    /**
+     * Computes given statistics in one pass, using up to given number of
+     * threads for large launches.
+     */
+    public static Map<AccumulatorFactory<?>, Accumulator<?>> compute(final List<LaunchResults> launches,
+                                                                     final List<AccumulatorFactory<?>> factories,
+                                                                     final int parallelism) {
+        final List<Accumulator<?>> roots = create(factories);
+        for (LaunchResults launch : launches) {
+            final List<Integer> pending = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                if (!roots.get(i).acceptLaunch(launch)) {
+                    pending.add(i);
+                }
+            }
+            if (!pending.isEmpty()) {
+                accept(launch, factories, roots, pending, parallelism);
+            }
+        }
+        final Map<AccumulatorFactory<?>, Accumulator<?>> result = new LinkedHashMap<>();
+        for (int i = 0; i < factories.size(); i++) {
+            result.put(factories.get(i), roots.get(i));
+        }
+        return result;
+    }
+
+    private synchronized Map<AccumulatorFactory<?>, Accumulator<?>> getAccumulators() {
+        if (accumulators == null) {
+            accumulators = compute(launches, factories, parallelism);
+        }
+        return accumulators;
+    }
+
+    private static void accept(final LaunchResults launch,
+                               final List<AccumulatorFactory<?>> factories,
+                               final List<Accumulator<?>> roots,
+                               final List<Integer> pending,
+                               final int parallelism) {
+        final Collection<TestResult> results = launch.getAllResults();
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE, results.size() / (parallelism * CHUNKS_PER_THREAD) + 1);
+        if (parallelism == 1 || results.size() <= chunkSize
+                || results instanceof SpillingResultStore.StoredResults) {
+            final List<Accumulator<?>> targets = new ArrayList<>();
+            for (Integer index : pending) {
+                targets.add(roots.get(index));
+            }
+            accept(launch, results, targets);
+            return;
+        }
+        final List<TestResult> all = Arrays.asList(results.toArray(new TestResult[results.size()]));
+        final List<List<Accumulator<?>>> chunks = new ArrayList<>();
+        final BoundedExecutor executor = new BoundedExecutor("allure-statistics", parallelism);
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            final List<Accumulator<?>> chunk = new ArrayList<>();
+            for (Integer index : pending) {
+                chunk.add(factories.get(index).create());
+            }
+            chunks.add(chunk);
+            final List<TestResult> part = all.subList(from, Math.min(all.size(), from + chunkSize));
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    accept(launch, part, chunk);
+                }
+            });
+        }
+        executor.awaitAll();
+        for (List<Accumulator<?>> chunk : chunks) {
+            for (int i = 0; i < pending.size(); i++) {
+                merge(roots.get(pending.get(i)), chunk.get(i));
+            }
+        }
+    }
+
+    private static void accept(final LaunchResults launch,
+                               final Collection<TestResult> results,
+                               final List<Accumulator<?>> accumulators) {
+        final int size = accumulators.size();
+        for (TestResult result : results) {
+            for (int i = 0; i < size; i++) {
+                accumulators.get(i).accept(launch, result);
+            }
+        }
+    }
+
+    private static List<Accumulator<?>> create(final List<AccumulatorFactory<?>> factories) {
+        final List<Accumulator<?>> accumulators = new ArrayList<>();
+        for (AccumulatorFactory<?> factory : factories) {
+            accumulators.add(factory.create());
+        }
+        return accumulators;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void merge(final Accumulator target, final Accumulator other) {
+        target.merge(other);
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.allure.stats;
+
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Item for every visible result, in the order of results.
+ *
+ * @param <T> the item type
+ */
+public abstract class ListAccumulator<T> extends Accumulator<ListAccumulator<T>> {
+
+    private final List<T> items = new ArrayList<>();
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    @Override
+    public void accept(final LaunchResults launch, final TestResult result) {
+        if (!result.isHidden()) {
+            items.add(createItem(result));
+        }
+    }
+
+    @Override
+    public void merge(final ListAccumulator<T> other) {
+        items.addAll(other.items);
+    }
+
+    protected abstract T createItem(TestResult result);
+}
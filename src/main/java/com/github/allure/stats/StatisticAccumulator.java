@@ -0,0 +1,90 @@
+package com.github.allure.stats;
+
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.columns.ResultColumns;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.GroupTime;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.TestResult;
+
+/**
+ * Statistic and time of visible results. Indexed launches are counted from
+ * their columns.
+ */
+public class StatisticAccumulator extends Accumulator<StatisticAccumulator> {
+
+    public static final AccumulatorFactory<StatisticAccumulator> VISIBLE =
+            new AccumulatorFactory<StatisticAccumulator>() {
+                @Override
+                public StatisticAccumulator create() {
+                    return new StatisticAccumulator();
+                }
+            };
+
+    private final Statistic statistic = new Statistic();
+
+    private final GroupTime time = new GroupTime();
+
+    public Statistic getStatistic() {
+        return statistic;
+    }
+
+    public GroupTime getTime() {
+        return time;
+    }
+
+    @Override
+    public boolean acceptLaunch(final LaunchResults launch) {
+        if (!(launch instanceof IndexedLaunchResults)) {
+            return false;
+        }
+        final ResultColumns columns = ((IndexedLaunchResults) launch).getColumns();
+        columns.updateStatistic(statistic);
+        columns.updateTime(time);
+        return true;
+    }
+
+    @Override
+    public void accept(final LaunchResults launch, final TestResult result) {
+        if (!result.isHidden()) {
+            statistic.update(result);
+            time.update(result);
+        }
+    }
+
+    @Override
+    public void merge(final StatisticAccumulator other) {
+        statistic.merge(other.statistic);
+        mergeTime(time, other.time);
+    }
+
+    /**
+     * Adds the other time to the first one, as if the first had been
+     * updated with all results of the other.
+     */
+    public static GroupTime mergeTime(final GroupTime time, final GroupTime other) {
+        if (other.getStart() != null && (time.getStart() == null || other.getStart() < time.getStart())) {
+            time.setStart(other.getStart());
+        }
+        if (other.getStop() != null && (time.getStop() == null || other.getStop() > time.getStop())) {
+            time.setStop(other.getStop());
+        }
+        if (other.getMinDuration() != null
+                && (time.getMinDuration() == null || other.getMinDuration() < time.getMinDuration())) {
+            time.setMinDuration(other.getMinDuration());
+        }
+        if (other.getMaxDuration() != null
+                && (time.getMaxDuration() == null || other.getMaxDuration() > time.getMaxDuration())) {
+            time.setMaxDuration(other.getMaxDuration());
+        }
+        if (other.getSumDuration() != null) {
+            time.setSumDuration(time.getSumDuration() == null
+                    ? other.getSumDuration()
+                    : time.getSumDuration() + other.getSumDuration());
+        }
+        if (time.getStart() != null && time.getStop() != null) {
+            time.setDuration(time.getStop() - time.getStart());
+        }
+        return time;
+    }
+}
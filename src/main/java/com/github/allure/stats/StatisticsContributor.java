@@ -0,0 +1,12 @@
+package com.github.allure.stats;
+
+import java.util.List;
+
+/**
+ * Aggregator that reads statistics from {@link FusedStatistics}. Statistics
+ * of all contributors of a generation are computed in one pass.
+ */
+public interface StatisticsContributor {
+
+    List<AccumulatorFactory<?>> getAccumulatorFactories();
+}
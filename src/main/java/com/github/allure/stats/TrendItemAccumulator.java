@@ -0,0 +1,39 @@
+package com.github.allure.stats;
+
+import com.github.allure.trend.TrendItem;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+
+/**
+ * Metrics of a trend item counted over all results, hidden ones included.
+ *
+ * @param <T> the trend item type
+ */
+public abstract class TrendItemAccumulator<T extends TrendItem> extends Accumulator<TrendItemAccumulator<T>> {
+
+    private final T item;
+
+    protected TrendItemAccumulator(final T item) {
+        this.item = item;
+    }
+
+    /**
+     * Adds counted metrics to the item, leaving this accumulator as is.
+     */
+    public T copyTo(final T target) {
+        target.addMetrics(item.getData());
+        return target;
+    }
+
+    @Override
+    public void accept(final LaunchResults launch, final TestResult result) {
+        update(item, result);
+    }
+
+    @Override
+    public void merge(final TrendItemAccumulator<T> other) {
+        item.addMetrics(other.item.getData());
+    }
+
+    protected abstract void update(T item, TestResult result);
+}
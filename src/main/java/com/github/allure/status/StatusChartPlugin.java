@@ -16,43 +16,48 @@
 package com.github.allure.status;
 
 import com.github.allure.severity.SeverityPlugin;
-
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.ListAccumulator;
+import com.github.allure.stats.StatisticsContributor;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.TestResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import java8.util.function.Function;
-import java8.util.stream.Collectors;
-import java8.util.stream.Stream;
-import java8.util.stream.StreamSupport;
+public class StatusChartPlugin extends CommonJsonAggregator implements StatisticsContributor {
 
-public class StatusChartPlugin extends CommonJsonAggregator {
+    private static final AccumulatorFactory<ListAccumulator<StatusChartData>> STATUS_CHART_DATA =
+            new AccumulatorFactory<ListAccumulator<StatusChartData>>() {
+                @Override
+                public ListAccumulator<StatusChartData> create() {
+                    return new ListAccumulator<StatusChartData>() {
+                        @Override
+                        protected StatusChartData createItem(final TestResult result) {
+                            return createData(result);
+                        }
+                    };
+                }
+            };
 
     public StatusChartPlugin() {
         super(Constants.WIDGETS_DIR, "status-chart.json");
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(STATUS_CHART_DATA);
+    }
+
     public List<StatusChartData> getData(final List<LaunchResults> launchesResults) {
-        return StreamSupport.stream(launchesResults)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getResults());
-                    }
-                })
-                .map(new Function<TestResult, StatusChartData>() {
-                    @Override
-                    public StatusChartData apply(TestResult testResult) {
-                        return createData(testResult);
-                    }
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(FusedStatistics.get(launchesResults, STATUS_CHART_DATA).getItems());
     }
 
-    public StatusChartData createData(final TestResult result) {
+    public static StatusChartData createData(final TestResult result) {
         return new StatusChartData()
                 .setUid(result.getUid())
                 .setName(result.getName())
@@ -16,6 +16,7 @@
 package com.github.allure.suites;
 
 
+import com.github.allure.cache.GenerationCache;
 import io.qameta.allure.*;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.csv.CsvExportSuite;
@@ -31,6 +32,7 @@ import java.util.Set;
 import java8.util.function.Consumer;
 import java8.util.function.Function;
 import java8.util.function.Predicate;
+import java8.util.function.Supplier;
 import java8.util.stream.Collectors;
 import java8.util.stream.Stream;
 import java8.util.stream.StreamSupport;
@@ -55,6 +57,16 @@ public class SuitesPlugin extends CompositeAggregator {
     }
 
     public static Tree<TestResult> getData(final List<LaunchResults> launchResults) {
+        return GenerationCache.get(launchResults, SuitesPlugin.class, "tree",
+                new Supplier<Tree<TestResult>>() {
+                    @Override
+                    public Tree<TestResult> get() {
+                        return createTree(launchResults);
+                    }
+                });
+    }
+
+    private static Tree<TestResult> createTree(final List<LaunchResults> launchResults) {
         final Tree<TestResult> xunit = new TestResultTree(SUITES, new TreeClassifier<TestResult>() {
             @Override
             public List<TreeLayer> classify(TestResult item) {
@@ -15,22 +15,21 @@
  */
 package com.github.allure.summary;
 
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.StatisticAccumulator;
+import com.github.allure.stats.StatisticsContributor;
 import io.qameta.allure.CommonJsonAggregator;
 import io.qameta.allure.Constants;
 import io.qameta.allure.core.LaunchResults;
 import io.qameta.allure.entity.GroupTime;
 import io.qameta.allure.entity.Statistic;
-import io.qameta.allure.entity.TestResult;
-import java8.util.function.Consumer;
-import java8.util.function.Function;
-import java8.util.stream.Stream;
-import java8.util.stream.StreamSupport;
-
 
+import java.util.Collections;
 import java.util.List;
 
 
-public class SummaryPlugin extends CommonJsonAggregator {
+public class SummaryPlugin extends CommonJsonAggregator implements StatisticsContributor {
 
     protected static final String JSON_FILE_NAME = "summary.json";
 
@@ -38,29 +37,19 @@ public class SummaryPlugin extends CommonJsonAggregator {
         super(Constants.WIDGETS_DIR, JSON_FILE_NAME);
     }
 
+    @Override
+    public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+        return Collections.<AccumulatorFactory<?>>singletonList(StatisticAccumulator.VISIBLE);
+    }
+
     @Override
     public SummaryData getData(List<LaunchResults> launches) {
-        final SummaryData data = new SummaryData()
-                .setStatistic(new Statistic())
-                .setTime(new GroupTime())
+        final StatisticAccumulator accumulator = FusedStatistics.get(launches, StatisticAccumulator.VISIBLE);
+        final Statistic statistic = new Statistic();
+        statistic.merge(accumulator.getStatistic());
+        return new SummaryData()
+                .setStatistic(statistic)
+                .setTime(StatisticAccumulator.mergeTime(new GroupTime(), accumulator.getTime()))
                 .setReportName("Allure Report");
-
-        StreamSupport.stream(launches)
-                .flatMap(new Function<LaunchResults, Stream<TestResult>>() {
-                    @Override
-                    public Stream<TestResult> apply(LaunchResults launchResults) {
-                        return StreamSupport.stream(launchResults.getResults());
-                    }
-                })
-                .forEach(new Consumer<TestResult>() {
-                    @Override
-                    public void accept(TestResult testResult) {
-                        data.getStatistic().update(testResult);
-                        data.getTime().update(testResult);
-                    }
-                });
-        return data;
     }
-
-
 }
@@ -15,6 +15,8 @@
  */
 package com.github.allure.trend;
 
+import com.github.allure.cache.GenerationCache;
+import com.github.allure.utils.ResultsDirectoryIndex;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,6 +35,7 @@ import java8.util.Spliterator;
 import java8.util.Spliterators;
 import java8.util.function.Function;
 import java8.util.function.Predicate;
+import java8.util.function.Supplier;
 import java8.util.stream.StreamSupport;
 
 
@@ -40,7 +43,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -72,60 +74,46 @@ public abstract class AbstractTrendPlugin<T> extends CompositeAggregator impleme
                             final ResultsVisitor visitor,
                             final List<File> fileList) {
         final JacksonContext context = configuration.getContext(JacksonContext.class);
-        Optional<File> historyFile = StreamSupport.stream(fileList).filter(new Predicate<File>() {
-            @Override
-            public boolean test(File file) {
-                return file.getName().equals(HISTORY_DIR);
-            }
-        }).findFirst();
-        if(historyFile.isPresent()) {
-            Optional<File> file = StreamSupport.stream(Arrays.asList(historyFile.get().listFiles())).filter(new Predicate<File>() {
-                @Override
-                public boolean test(File file) {
-                    return file.getName().equals(jsonFileName);
+        Optional<File> file = Optional.ofNullable(ResultsDirectoryIndex.of(fileList).find(HISTORY_DIR, jsonFileName));
+        if (file.isPresent() && file.get().exists()) {
+            InputStream is = null;
+            try  {
+                is = new FileInputStream(file.get());
+                final ObjectMapper mapper = context.getValue();
+                final JsonNode jsonNode = mapper.readTree(is);
+                final List<T> history;
+                if (jsonNode != null) {
+                    history = getStream(jsonNode)
+                            .map(new Function<JsonNode, Optional<T>>() {
+                                @Override
+                                public Optional<T> apply(JsonNode jsonNode) {
+                                    return parseItem(file.get(), mapper, jsonNode);
+                                }
+                            })
+                            .filter(new Predicate<Optional<T>>() {
+                                @Override
+                                public boolean test(Optional<T> tOptional) {
+                                    return tOptional.isPresent();
+                                }
+                            })
+                            .map(new Function<Optional<T>, T>() {
+                                @Override
+                                public T apply(Optional<T> tOptional) {
+                                    return tOptional.get();
+                                }
+                            })
+                            .collect(Collectors.toList());
+                } else {
+                    history = Collections.emptyList();
                 }
-            }).findFirst();
-
-            if (file.get().exists()) {
-                InputStream is = null;
-                try  {
-                    is = new FileInputStream(file.get());
-                    final ObjectMapper mapper = context.getValue();
-                    final JsonNode jsonNode = mapper.readTree(is);
-                    final List<T> history;
-                    if (jsonNode != null) {
-                        history = getStream(jsonNode)
-                                .map(new Function<JsonNode, Optional<T>>() {
-                                    @Override
-                                    public Optional<T> apply(JsonNode jsonNode) {
-                                        return parseItem(file.get(), mapper, jsonNode);
-                                    }
-                                })
-                                .filter(new Predicate<Optional<T>>() {
-                                    @Override
-                                    public boolean test(Optional<T> tOptional) {
-                                        return tOptional.isPresent();
-                                    }
-                                })
-                                .map(new Function<Optional<T>, T>() {
-                                    @Override
-                                    public T apply(Optional<T> tOptional) {
-                                        return tOptional.get();
-                                    }
-                                })
-                                .collect(Collectors.toList());
-                    } else {
-                        history = Collections.emptyList();
-                    }
-                    visitor.visitExtra(trendBlockName, history);
+                visitor.visitExtra(trendBlockName, history);
+            } catch (IOException e) {
+                visitor.error("Could not read " + trendBlockName + " file " + file.get(), e);
+            }finally {
+                try {
+                    is.close();
                 } catch (IOException e) {
-                    visitor.error("Could not read " + trendBlockName + " file " + historyFile, e);
-                }finally {
-                    try {
-                        is.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+                    e.printStackTrace();
                 }
             }
         }
@@ -147,7 +135,17 @@ public abstract class AbstractTrendPlugin<T> extends CompositeAggregator impleme
 
     protected abstract Optional<T> parseItem(ObjectMapper mapper, JsonNode child) throws JsonProcessingException;
 
-    protected static Optional<ExecutorInfo> extractLatestExecutor(final List<LaunchResults> launches) {
+    public static Optional<ExecutorInfo> extractLatestExecutor(final List<LaunchResults> launches) {
+        return GenerationCache.get(launches, AbstractTrendPlugin.class, "latest-executor",
+                new Supplier<Optional<ExecutorInfo>>() {
+                    @Override
+                    public Optional<ExecutorInfo> get() {
+                        return findLatestExecutor(launches);
+                    }
+                });
+    }
+
+    private static Optional<ExecutorInfo> findLatestExecutor(final List<LaunchResults> launches) {
         final Comparator<ExecutorInfo> comparator = Comparators.comparing(ExecutorInfo::getBuildOrder, Comparators.nullsFirst(Comparators.naturalOrder()));
         return StreamSupport.stream(launches)
                 .map(new Function<LaunchResults, Optional<Object>>() {
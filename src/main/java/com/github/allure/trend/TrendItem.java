@@ -47,6 +47,16 @@ public class TrendItem implements Serializable {
         this.data.put(metric, value);
     }
 
+    /**
+     * Adds given values to the metrics of this item.
+     */
+    public void addMetrics(final Map<String, Long> metrics) {
+        for (Map.Entry<String, Long> entry : metrics.entrySet()) {
+            final Long current = data.get(entry.getKey());
+            data.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+        }
+    }
+
     public Long getBuildOrder() {
         return this.buildOrder;
     }
@@ -2,9 +2,9 @@ package com.github.allure.utils;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class AllureUtils {
     public static final String TEST_SUITE_FILE_SUFFIX = "-testsuite";
@@ -17,27 +17,61 @@ public class AllureUtils {
 
     public static List<File> listFiles(String glob, List<File>... directories) throws IOException {
         List<File> result = new ArrayList<>();
+        final Pattern pattern = toPattern(glob);
         for (List<File> directory : directories) {
             for(File file:directory) {
-                result.addAll(listFiles(glob, file));
+                result.addAll(listFiles(pattern, file));
             }
         }
         return result;
     }
 
+    /**
+     * Returns files matching the glob: the file itself, or files directly
+     * inside it if it is a directory. Only {@code *} and {@code ?} wildcards
+     * are supported.
+     */
     public static List<File> listFiles(String glob, File directory) throws IOException {
+        return listFiles(toPattern(glob), directory);
+    }
+
+    private static List<File> listFiles(final Pattern pattern, final File directory) {
         List<File> result = new ArrayList<>();
         if (!directory.isDirectory()) {
+            if (pattern.matcher(directory.getName()).matches()) {
+                result.add(directory);
+            }
             return result;
         }
-        {
-            for (File file : directory.listFiles()) {
-                if (!file.isDirectory()) {
-                    result.add(file);
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return result;
+        }
+        for (File file : files) {
+            if (pattern.matcher(file.getName()).matches() && !file.isDirectory()) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private static Pattern toPattern(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        int literal = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literal < i) {
+                    regex.append(Pattern.quote(glob.substring(literal, i)));
                 }
+                regex.append(c == '*' ? ".*" : ".");
+                literal = i + 1;
             }
-            return result;
         }
+        if (literal < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literal)));
+        }
+        return Pattern.compile(regex.toString());
     }
 
     public static List<File> listTestSuiteXmlFiles(List<File>... directories) throws IOException {
@@ -0,0 +1,74 @@
+package com.github.allure.utils;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import java8.util.function.Function;
+
+/**
+ * Name index of attachment candidates built once per read. Lookups try the
+ * exact name first and fall back to the legacy "name contains source" scan,
+ * whose results, misses included, are remembered.
+ */
+public class AttachmentIndex<T> {
+
+    private static final Object MISSING = new Object();
+
+    private final List<T> items;
+
+    private final Function<T, String> naming;
+
+    private final Map<String, T> byName = new HashMap<>();
+
+    private final Map<String, Object> bySubstring = new ConcurrentHashMap<>();
+
+    public AttachmentIndex(final List<T> items, final Function<T, String> naming) {
+        this.items = items;
+        this.naming = naming;
+        for (T item : items) {
+            byName.put(naming.apply(item), item);
+        }
+    }
+
+    public static AttachmentIndex<File> forFiles(final List<File> files) {
+        return new AttachmentIndex<>(files, new Function<File, String>() {
+            @Override
+            public String apply(File file) {
+                return file.getName();
+            }
+        });
+    }
+
+    /**
+     * Returns the item for given attachment source or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public T find(final String source) {
+        if (source == null) {
+            return null;
+        }
+        final T exact = byName.get(source);
+        if (exact != null) {
+            return exact;
+        }
+        final Object cached = bySubstring.get(source);
+        if (cached != null) {
+            return cached == MISSING ? null : (T) cached;
+        }
+        T found = null;
+        for (T item : items) {
+            if (naming.apply(item).contains(source)) {
+                found = item;
+            }
+        }
+        bySubstring.put(source, found == null ? MISSING : found);
+        return found;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+
+/**
+ * Place readers resolve attachment references from result files in: a results
+ * directory or a results archive.
+ */
+public interface AttachmentSource {
+
+    /**
+     * Visits the attachment with given source and returns it, or returns null
+     * if there is no such attachment. The type declared by the result file,
+     * if any, is passed to visitors that accept it, see
+     * {@link TypedAttachmentVisitor}.
+     */
+    Attachment visit(String source, String declaredType, ResultsVisitor visitor);
+}
@@ -0,0 +1,26 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.core.Configuration;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Lookup of optional contexts. {@link Configuration#getContext(Class)} fails
+ * when there is no such context, which is expected for opt-in features.
+ */
+public final class Contexts {
+
+    private Contexts() {
+    }
+
+    /**
+     * Returns the context of given type or null if it is not configured.
+     */
+    public static <T> T find(final Configuration configuration, final Class<T> contextType) {
+        try {
+            return configuration.getContext(contextType);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+}
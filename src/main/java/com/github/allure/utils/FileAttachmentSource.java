@@ -0,0 +1,31 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Attachments stored as plain files of a results directory.
+ */
+public class FileAttachmentSource implements AttachmentSource {
+
+    private final AttachmentIndex<File> index;
+
+    public FileAttachmentSource(final List<File> files) {
+        this.index = AttachmentIndex.forFiles(files);
+    }
+
+    @Override
+    public Attachment visit(final String source, final String declaredType, final ResultsVisitor visitor) {
+        final File file = index.find(source);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        if (visitor instanceof TypedAttachmentVisitor) {
+            return ((TypedAttachmentVisitor) visitor).visitAttachmentFile(file, declaredType);
+        }
+        return visitor.visitAttachmentFile(file);
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.allure.utils;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Reusable per-thread history id hasher. Values are encoded to UTF-8 into a
+ * buffer owned by the thread and rendered with a lookup hex table, so
+ * hashing an id allocates nothing but the resulting string.
+ * <p>
+ * {@link Algorithm#MD5} gives the same ids as earlier versions and keeps
+ * history of existing reports. {@link Algorithm#MURMUR3_128} is a faster
+ * non-cryptographic hash for new deployments; its ids differ from md5 ones.
+ */
+public final class HistoryIdHasher {
+
+    public enum Algorithm {
+        MD5, MURMUR3_128
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int DIGEST_SIZE = 16;
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * Written after every value in murmur mode, so that moving characters
+     * between neighbouring values changes the id. Never occurs in UTF-8.
+     */
+    private static final byte SEPARATOR = (byte) 0xFF;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final ThreadLocal<HistoryIdHasher> MD5_HASHERS = new ThreadLocal<HistoryIdHasher>() {
+        @Override
+        protected HistoryIdHasher initialValue() {
+            return new HistoryIdHasher(Algorithm.MD5);
+        }
+    };
+
+    private static final ThreadLocal<HistoryIdHasher> MURMUR_HASHERS = new ThreadLocal<HistoryIdHasher>() {
+        @Override
+        protected HistoryIdHasher initialValue() {
+            return new HistoryIdHasher(Algorithm.MURMUR3_128);
+        }
+    };
+
+    private final Algorithm algorithm;
+
+    private final MessageDigest md5;
+
+    private final byte[] digest = new byte[DIGEST_SIZE];
+
+    private final char[] hex = new char[DIGEST_SIZE * 2];
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    private int length;
+
+    private HistoryIdHasher(final Algorithm algorithm) {
+        this.algorithm = algorithm;
+        this.md5 = algorithm == Algorithm.MD5 ? newMd5() : null;
+    }
+
+    /**
+     * Returns the hasher of the current thread. It must not be passed to
+     * other threads.
+     */
+    public static HistoryIdHasher get(final Algorithm algorithm) {
+        return algorithm == Algorithm.MURMUR3_128 ? MURMUR_HASHERS.get() : MD5_HASHERS.get();
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Appends the value to the id being computed, null is hashed as "null".
+     */
+    public HistoryIdHasher update(final String value) {
+        final String text = value == null ? "null" : value;
+        ensureCapacity(length + text.length() * 3 + 1);
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | c >> 6);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates are replaced as String.getBytes does
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | c >> 12);
+                buffer[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        if (algorithm == Algorithm.MURMUR3_128) {
+            buffer[length++] = SEPARATOR;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the id of values appended so far and resets the hasher. Md5 ids
+     * are rendered without leading zeros, as {@code BigInteger.toString(16)}
+     * did; murmur ids always have 32 characters.
+     */
+    public String digest() {
+        try {
+            if (algorithm == Algorithm.MD5) {
+                md5.update(buffer, 0, length);
+                md5.digest(digest, 0, DIGEST_SIZE);
+                return toHex(true);
+            }
+            murmur3(buffer, length);
+            return toHex(false);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Could not compute history id", e);
+        } finally {
+            length = 0;
+        }
+    }
+
+    private String toHex(final boolean trimLeadingZeros) {
+        for (int i = 0; i < DIGEST_SIZE; i++) {
+            hex[i * 2] = HEX[digest[i] >> 4 & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        int start = 0;
+        if (trimLeadingZeros) {
+            while (start < hex.length - 1 && hex[start] == '0') {
+                start++;
+            }
+        }
+        return new String(hex, start, hex.length - start);
+    }
+
+    /**
+     * MurmurHash3 x64 128-bit variant with zero seed, written to the digest
+     * buffer as two little-endian longs like the reference implementation.
+     */
+    private void murmur3(final byte[] data, final int size) {
+        long h1 = 0;
+        long h2 = 0;
+        final int blocks = size / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        final int tail = blocks * 16;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = size - tail - 1; i >= 8; i--) {
+            k2 ^= (data[tail + i] & 0xFFL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(size - tail, 8) - 1; i >= 0; i--) {
+            k1 ^= (data[tail + i] & 0xFFL) << (i * 8);
+        }
+        if (size - tail > 8) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+        }
+        if (size - tail > 0) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+        h1 ^= size;
+        h2 ^= size;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        putLong(h1, 0);
+        putLong(h2, 8);
+    }
+
+    private static long getLong(final byte[] data, final int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = value << 8 | data[offset + i] & 0xFFL;
+        }
+        return value;
+    }
+
+    private void putLong(final long value, final int offset) {
+        for (int i = 0; i < 8; i++) {
+            digest[offset + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    private static long fmix(final long value) {
+        long k = value;
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > buffer.length) {
+            final byte[] grown = new byte[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("md5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find md5 hashing algorithm", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.github.allure.utils;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MimeTypes;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.io.FilenameUtils.getExtension;
+
+/**
+ * Attachment content type detection. A declared type is trusted as is, then
+ * the type registered for the file extension is used (and cached per
+ * extension); only files without a known extension are sniffed, reading at
+ * most {@link #HEADER_SIZE} bytes. Sniffing can be moved to a separate I/O
+ * pool with {@link #detectAsync(File)}.
+ */
+public class MimeTypeDetector {
+
+    public static final String WILDCARD = "*/*";
+
+    public static final int HEADER_SIZE = 8192;
+
+    private static final String UNKNOWN_EXTENSION = "";
+
+    private final Map<String, String> byExtension = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final AtomicLong declared = new AtomicLong();
+
+    private final AtomicLong extensionHits = new AtomicLong();
+
+    private final AtomicLong extensionMisses = new AtomicLong();
+
+    private final AtomicLong sniffs = new AtomicLong();
+
+    private final AtomicLong sniffNanos = new AtomicLong();
+
+    public MimeTypeDetector() {
+        this(null);
+    }
+
+    /**
+     * @param executor pool to sniff file headers on, or null to sniff on the
+     *                 calling thread.
+     */
+    public MimeTypeDetector(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    public String detect(final File file) {
+        return detect(file, null);
+    }
+
+    public String detect(final File file, final String declaredType) {
+        if (isDeclared(declaredType)) {
+            declared.incrementAndGet();
+            return declaredType;
+        }
+        final String type = byExtension(file.getName());
+        return type != null ? type : sniff(file);
+    }
+
+    /**
+     * Returns the type for given file, sniffing its header on the detector
+     * pool when the extension is not enough. Without a pool the type is
+     * detected right away.
+     */
+    public Future<String> detectAsync(final File file) {
+        return detectAsync(file, null);
+    }
+
+    /**
+     * Returns the declared type, or the type detected for given file as
+     * {@link #detectAsync(File)} does.
+     */
+    public Future<String> detectAsync(final File file, final String declaredType) {
+        final String type;
+        if (isDeclared(declaredType)) {
+            declared.incrementAndGet();
+            type = declaredType;
+        } else {
+            type = byExtension(file.getName());
+        }
+        final FutureTask<String> task = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() {
+                return type != null ? type : sniff(file);
+            }
+        });
+        if (type != null || executor == null) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+        return task;
+    }
+
+    /**
+     * Detects the type of given stream from its first {@link #HEADER_SIZE}
+     * bytes. The stream is not closed.
+     */
+    public String detect(final InputStream inputStream, final String name) {
+        final String type = byExtension(name);
+        if (type != null) {
+            return type;
+        }
+        final long start = System.nanoTime();
+        try {
+            return sniff(readHeader(inputStream), name);
+        } catch (IOException e) {
+            return WILDCARD;
+        } finally {
+            sniffs.incrementAndGet();
+            sniffNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public long getDeclaredCount() {
+        return declared.get();
+    }
+
+    public long getExtensionHits() {
+        return extensionHits.get();
+    }
+
+    public long getExtensionMisses() {
+        return extensionMisses.get();
+    }
+
+    public long getSniffCount() {
+        return sniffs.get();
+    }
+
+    public long getSniffMillis() {
+        return sniffNanos.get() / 1000000L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MimeTypeDetector{declared=%d, extensionHits=%d, extensionMisses=%d, sniffs=%d, "
+                        + "sniffTime=%dms}",
+                getDeclaredCount(), getExtensionHits(), getExtensionMisses(), getSniffCount(), getSniffMillis());
+    }
+
+    private static boolean isDeclared(final String declaredType) {
+        return declaredType != null && !declaredType.isEmpty() && !WILDCARD.equals(declaredType);
+    }
+
+    /**
+     * Returns the cached type registered for the file extension, or null if
+     * the file has to be sniffed.
+     */
+    private String byExtension(final String name) {
+        final String extension = getExtension(name).toLowerCase(Locale.ENGLISH);
+        if (extension.isEmpty()) {
+            extensionMisses.incrementAndGet();
+            return null;
+        }
+        String type = byExtension.get(extension);
+        if (type == null) {
+            final String registered = MimeTypes.getDefaultMimeTypes().getMimeType(name).toString();
+            type = MimeTypes.OCTET_STREAM.equals(registered) ? UNKNOWN_EXTENSION : registered;
+            byExtension.put(extension, type);
+        }
+        if (UNKNOWN_EXTENSION.equals(type)) {
+            extensionMisses.incrementAndGet();
+            return null;
+        }
+        extensionHits.incrementAndGet();
+        return type;
+    }
+
+    private String sniff(final File file) {
+        final long start = System.nanoTime();
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(file);
+            return sniff(readHeader(inputStream), file.getName());
+        } catch (IOException e) {
+            return WILDCARD;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            sniffs.incrementAndGet();
+            sniffNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private static String sniff(final byte[] header, final String name) throws IOException {
+        final Metadata metadata = new Metadata();
+        metadata.set(Metadata.RESOURCE_NAME_KEY, name);
+        return MimeTypes.getDefaultMimeTypes().detect(new ByteArrayInputStream(header), metadata).toString();
+    }
+
+    private static byte[] readHeader(final InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[HEADER_SIZE];
+        int total = 0;
+        int read;
+        while (total < HEADER_SIZE && (read = inputStream.read(buffer, total, HEADER_SIZE - total)) != -1) {
+            total += read;
+        }
+        if (total == HEADER_SIZE) {
+            return buffer;
+        }
+        final byte[] header = new byte[total];
+        System.arraycopy(buffer, 0, header, 0, total);
+        return header;
+    }
+}
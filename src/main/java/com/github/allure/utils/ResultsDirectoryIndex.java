@@ -0,0 +1,189 @@
+package com.github.allure.utils;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Entries of a results directory classified by role in one pass. The index
+ * is itself the list of entries, so it can be handed to every reader in place
+ * of the plain file list; {@link #of(List)} then returns it as is and readers
+ * look files up instead of scanning the list again.
+ * <p>
+ * Entries are classified by name only, without touching the file system;
+ * subdirectories such as {@code history} are listed on first lookup.
+ */
+public final class ResultsDirectoryIndex extends AbstractList<File> implements RandomAccess {
+
+    public static final String HISTORY_DIR = "history";
+
+    public static final String LAUNCH_DIR = "launch";
+
+    public enum Role {
+        RESULT, CONTAINER, SUITE_XML, SUITE_JSON, ARCHIVE,
+        EXECUTOR, CATEGORIES, ENVIRONMENT, PROPERTIES, ATTACHMENT
+    }
+
+    private final List<File> files;
+
+    private final Map<String, File> byName = new HashMap<>();
+
+    private final Map<Role, List<File>> byRole = new EnumMap<>(Role.class);
+
+    private final ConcurrentMap<String, Map<String, File>> directories = new ConcurrentHashMap<>();
+
+    private volatile FileAttachmentSource attachments;
+
+    private ResultsDirectoryIndex(final List<File> files) {
+        this.files = files;
+        for (Role role : Role.values()) {
+            byRole.put(role, new ArrayList<File>());
+        }
+        for (File file : files) {
+            final String name = file.getName();
+            if (!byName.containsKey(name)) {
+                byName.put(name, file);
+            }
+            final Role role = classify(name);
+            if (role != Role.ARCHIVE || file.isFile()) {
+                byRole.get(role).add(file);
+            }
+        }
+        for (Role role : Role.values()) {
+            byRole.put(role, Collections.unmodifiableList(byRole.get(role)));
+        }
+    }
+
+    /**
+     * Returns the list itself if it already is an index, otherwise indexes it.
+     */
+    public static ResultsDirectoryIndex of(final List<File> files) {
+        if (files instanceof ResultsDirectoryIndex) {
+            return (ResultsDirectoryIndex) files;
+        }
+        return new ResultsDirectoryIndex(new ArrayList<>(files));
+    }
+
+    /**
+     * Lists the directory once and indexes its entries.
+     */
+    public static ResultsDirectoryIndex build(final File directory) {
+        final File[] entries = directory.listFiles();
+        return new ResultsDirectoryIndex(entries == null
+                ? Collections.<File>emptyList()
+                : Arrays.asList(entries));
+    }
+
+    public static Role classify(final String name) {
+        if (name.endsWith("-result.json")) {
+            return Role.RESULT;
+        }
+        if (name.endsWith("-container.json")) {
+            return Role.CONTAINER;
+        }
+        if (name.endsWith(AllureUtils.TEST_SUITE_FILE_SUFFIX + ".xml")) {
+            return Role.SUITE_XML;
+        }
+        if (name.endsWith(AllureUtils.TEST_SUITE_FILE_SUFFIX + ".json")) {
+            return Role.SUITE_JSON;
+        }
+        if (name.toLowerCase().endsWith(ZipResults.ZIP_EXTENSION)) {
+            return Role.ARCHIVE;
+        }
+        if ("executor.json".equals(name)) {
+            return Role.EXECUTOR;
+        }
+        if ("categories.json".equals(name)) {
+            return Role.CATEGORIES;
+        }
+        if ("environment.properties".equals(name) || "environment.xml".equals(name)) {
+            return Role.ENVIRONMENT;
+        }
+        if ("allure.properties".equals(name)) {
+            return Role.PROPERTIES;
+        }
+        return Role.ATTACHMENT;
+    }
+
+    /**
+     * Returns entries of given role, in directory order.
+     */
+    public List<File> get(final Role role) {
+        return byRole.get(role);
+    }
+
+    /**
+     * Returns the entry with given name or null.
+     */
+    public File find(final String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Returns the file with given name from the subdirectory with given name,
+     * or null if there is no such file.
+     */
+    public File find(final String directory, final String name) {
+        Map<String, File> children = directories.get(directory);
+        if (children == null) {
+            children = listDirectory(find(directory));
+            final Map<String, File> previous = directories.putIfAbsent(directory, children);
+            if (previous != null) {
+                children = previous;
+            }
+        }
+        return children.get(name);
+    }
+
+    public File findHistory(final String name) {
+        return find(HISTORY_DIR, name);
+    }
+
+    /**
+     * Returns attachments of the directory, indexed once and shared by all
+     * readers.
+     */
+    public AttachmentSource getAttachments() {
+        FileAttachmentSource source = attachments;
+        if (source == null) {
+            synchronized (this) {
+                source = attachments;
+                if (source == null) {
+                    source = new FileAttachmentSource(files);
+                    attachments = source;
+                }
+            }
+        }
+        return source;
+    }
+
+    @Override
+    public File get(final int index) {
+        return files.get(index);
+    }
+
+    @Override
+    public int size() {
+        return files.size();
+    }
+
+    private static Map<String, File> listDirectory(final File directory) {
+        final Map<String, File> children = new HashMap<>();
+        final File[] entries = directory == null ? null : directory.listFiles();
+        if (entries != null) {
+            for (File entry : entries) {
+                children.put(entry.getName(), entry);
+            }
+        }
+        return children;
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Parameter;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares equal strings of test results read during one generation. Label
+ * names and values, parameter names, step names and status messages repeat
+ * across results, but every converted result holds its own copies; results
+ * passed to {@link #intern(TestResult)} keep one instance of each instead.
+ * <p>
+ * The configured dictionary holds settings and statistics; every results
+ * visitor interns into its own {@link #newScope()}, so strings are dropped
+ * along with the visitor however often the configuration is reused.
+ * <p>
+ * Texts longer than the limit, such as most stack traces, are left as is.
+ * Saved bytes are estimated from the size of the dropped copies, counting
+ * string and array headers and two bytes per char.
+ */
+public class StringDictionary implements Extension {
+
+    public static final int DEFAULT_MAX_TEXT_LENGTH = 1024;
+
+    private static final int STRING_OVERHEAD = 40;
+
+    private static final StringDictionary DISABLED = new StringDictionary(0);
+
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private final int maxTextLength;
+
+    private final AtomicLong hits;
+
+    private final AtomicLong savedBytes;
+
+    public StringDictionary() {
+        this(DEFAULT_MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * Creates a dictionary that keeps texts up to given length, zero
+     * disables interning.
+     */
+    public StringDictionary(final int maxTextLength) {
+        this(maxTextLength, new AtomicLong(), new AtomicLong());
+    }
+
+    private StringDictionary(final int maxTextLength, final AtomicLong hits, final AtomicLong savedBytes) {
+        this.maxTextLength = maxTextLength;
+        this.hits = hits;
+        this.savedBytes = savedBytes;
+    }
+
+    /**
+     * Returns the configured dictionary, or one that interns nothing.
+     */
+    public static StringDictionary find(final Configuration configuration) {
+        final StringDictionary dictionary = Contexts.find(configuration, StringDictionary.class);
+        return dictionary == null ? DISABLED : dictionary;
+    }
+
+    /**
+     * Returns an empty dictionary with the same text limit, whose hits and
+     * saved bytes are counted by this one as well.
+     */
+    public StringDictionary newScope() {
+        return maxTextLength == 0 ? this : new StringDictionary(maxTextLength, hits, savedBytes);
+    }
+
+    /**
+     * Returns the shared instance equal to the value.
+     */
+    public String intern(final String value) {
+        if (value == null || value.length() > maxTextLength) {
+            return value;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        if (existing == null || existing == value) {
+            return value;
+        }
+        hits.incrementAndGet();
+        savedBytes.addAndGet(STRING_OVERHEAD + 2L * value.length());
+        return existing;
+    }
+
+    /**
+     * Interns labels, parameter names, step names and status messages of
+     * the result and its stages.
+     */
+    public void intern(final TestResult result) {
+        if (maxTextLength == 0) {
+            return;
+        }
+        result.setStatusMessage(intern(result.getStatusMessage()));
+        if (result.getLabels() != null) {
+            for (Label label : result.getLabels()) {
+                label.setName(intern(label.getName()));
+                label.setValue(intern(label.getValue()));
+            }
+        }
+        internParameters(result.getParameters());
+        internStages(result.getBeforeStages());
+        internStage(result.getTestStage());
+        internStages(result.getAfterStages());
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the estimated number of heap bytes no longer held by results.
+     */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    /**
+     * Drops all strings.
+     */
+    public void clear() {
+        strings.clear();
+    }
+
+    private void internStages(final List<StageResult> stages) {
+        if (stages != null) {
+            for (StageResult stage : stages) {
+                internStage(stage);
+            }
+        }
+    }
+
+    private void internStage(final StageResult stage) {
+        if (stage == null) {
+            return;
+        }
+        stage.setName(intern(stage.getName()));
+        stage.setStatusMessage(intern(stage.getStatusMessage()));
+        internParameters(stage.getParameters());
+        internSteps(stage.getSteps());
+    }
+
+    private void internSteps(final List<Step> steps) {
+        if (steps != null) {
+            for (Step step : steps) {
+                step.setName(intern(step.getName()));
+                step.setStatusMessage(intern(step.getStatusMessage()));
+                internParameters(step.getParameters());
+                internSteps(step.getSteps());
+            }
+        }
+    }
+
+    private void internParameters(final List<Parameter> parameters) {
+        if (parameters != null) {
+            for (Parameter parameter : parameters) {
+                parameter.setName(intern(parameter.getName()));
+            }
+        }
+    }
+}
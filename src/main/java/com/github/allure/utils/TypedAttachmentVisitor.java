@@ -0,0 +1,18 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.entity.Attachment;
+
+import java.io.File;
+
+/**
+ * Results visitor that accepts the content type a result file declares for
+ * an attachment, so the attachment file does not have to be detected.
+ */
+public interface TypedAttachmentVisitor {
+
+    /**
+     * Visits the attachment file, using the declared type unless it is null,
+     * empty or the wildcard type.
+     */
+    Attachment visitAttachmentFile(File attachmentFile, String declaredType);
+}
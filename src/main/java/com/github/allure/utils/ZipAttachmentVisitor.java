@@ -0,0 +1,15 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.entity.Attachment;
+
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Results visitor that accepts attachments stored in results archives
+ * without extracting them.
+ */
+public interface ZipAttachmentVisitor {
+
+    Attachment visitAttachmentEntry(ZipFile zipFile, ZipEntry entry);
+}
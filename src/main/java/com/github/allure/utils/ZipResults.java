@@ -0,0 +1,99 @@
+package com.github.allure.utils;
+
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import java8.util.function.Function;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Results directory packed into a zip archive. Entries are listed once from
+ * the central directory and read with random access; nothing is extracted.
+ */
+public class ZipResults {
+
+    public static final String ZIP_EXTENSION = ".zip";
+
+    private final ZipFile zipFile;
+
+    private final List<ZipEntry> entries = new ArrayList<>();
+
+    private final AttachmentIndex<ZipEntry> index;
+
+    public ZipResults(final File file) throws IOException {
+        this.zipFile = new ZipFile(file);
+        final Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+        while (enumeration.hasMoreElements()) {
+            final ZipEntry entry = enumeration.nextElement();
+            if (!entry.isDirectory()) {
+                entries.add(entry);
+            }
+        }
+        this.index = new AttachmentIndex<>(entries, new Function<ZipEntry, String>() {
+            @Override
+            public String apply(ZipEntry entry) {
+                return getFileName(entry);
+            }
+        });
+    }
+
+    public static String getFileName(final ZipEntry entry) {
+        final String name = entry.getName();
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    public ZipFile getZipFile() {
+        return zipFile;
+    }
+
+    /**
+     * Returns entries whose file name ends with given suffix.
+     */
+    public List<ZipEntry> list(final String suffix) {
+        final List<ZipEntry> found = new ArrayList<>();
+        for (ZipEntry entry : entries) {
+            if (getFileName(entry).endsWith(suffix)) {
+                found.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    public InputStream open(final ZipEntry entry) throws IOException {
+        return zipFile.getInputStream(entry);
+    }
+
+    public AttachmentSource getAttachments() {
+        return new AttachmentSource() {
+            @Override
+            public Attachment visit(final String source, final String declaredType, final ResultsVisitor visitor) {
+                final ZipEntry entry = index.find(source);
+                if (entry == null) {
+                    return null;
+                }
+                if (!(visitor instanceof ZipAttachmentVisitor)) {
+                    visitor.error("Could not read attachment " + source + " from " + zipFile.getName()
+                            + ": visitor does not support archives");
+                    return null;
+                }
+                return ((ZipAttachmentVisitor) visitor).visitAttachmentEntry(zipFile, entry);
+            }
+        };
+    }
+
+    public void close() {
+        try {
+            zipFile.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.allure1.Allure1Plugin;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Parameter;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ru.yandex.qatools.allure.model.Failure;
+import ru.yandex.qatools.allure.model.ParameterKind;
+import ru.yandex.qatools.allure.model.Status;
+import ru.yandex.qatools.allure.model.TestCaseResult;
+import ru.yandex.qatools.allure.model.TestSuiteResult;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class Allure1ParallelReadTests {
+
+    private static final int SUITES = 4;
+
+    private static final int CASES = 15;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadSameResultsInParallel() throws IOException {
+        final File directory = writeSuites();
+
+        final List<String> sequential = describe(read(new Allure1Plugin().setStreaming(true), directory));
+        assertEquals(SUITES * CASES, sequential.size());
+        final Allure1Plugin parallel = new Allure1Plugin().setStreaming(true).setParallelism(4);
+        assertEquals(sequential, describe(read(parallel, directory)));
+    }
+
+    @Test
+    public void shouldCollectEnvironmentOfAllCases() throws IOException {
+        final File directory = writeSuites();
+
+        final LaunchResults launch = read(new Allure1Plugin().setStreaming(true).setParallelism(4), directory);
+        final Map<String, String> environment = launch.<Map<String, String>>getExtra(
+                Allure1Plugin.ENVIRONMENT_BLOCK_NAME).get();
+        assertEquals(SUITES, environment.size());
+        assertEquals("host-0", environment.get("host0"));
+    }
+
+    private static LaunchResults read(final Allure1Plugin plugin, final File directory) {
+        final Configuration configuration = new ConfigurationBuilder().useDefault().build();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        plugin.readResults(configuration, visitor, Arrays.asList(directory.listFiles()));
+        return visitor.getLaunchResults();
+    }
+
+    /**
+     * Writes suites of even index as XML and of odd index as JSON. XML suites
+     * are read with the streaming reader, the only XML reader of this port.
+     */
+    private File writeSuites() throws IOException {
+        final File directory = folder.newFolder("results");
+        for (int suite = 0; suite < SUITES; suite++) {
+            final TestSuiteResult result = new TestSuiteResult().withName("Suite" + suite).withStart(1000L);
+            final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                    .append("<ns2:test-suite xmlns:ns2=\"urn:model.allure.qatools.yandex.ru\" start=\"1000\">")
+                    .append("<name>Suite").append(suite).append("</name><test-cases>");
+            for (int test = 0; test < CASES; test++) {
+                final String name = "test" + suite + "_" + test;
+                final String status = test % 3 == 0 ? "failed" : "passed";
+                write(new File(directory, name + "-attachment.txt"), name);
+                result.getTestCases().add(new TestCaseResult()
+                        .withName(name)
+                        .withStart(1000 + test).withStop(2000 + test)
+                        .withStatus(Status.fromValue(status))
+                        .withFailure(new Failure().withMessage("message " + test))
+                        .withSteps(new ru.yandex.qatools.allure.model.Step().withName("step " + test)
+                                .withStart(1000).withStop(1001).withStatus(Status.PASSED))
+                        .withAttachments(new ru.yandex.qatools.allure.model.Attachment().withTitle("log")
+                                .withSource(name + "-attachment.txt").withType("text/plain"))
+                        .withLabels(new ru.yandex.qatools.allure.model.Label().withName("feature")
+                                .withValue("Feature" + test % 2))
+                        .withParameters(new ru.yandex.qatools.allure.model.Parameter().withName("index")
+                                        .withValue(Integer.toString(test)).withKind(ParameterKind.ARGUMENT),
+                                new ru.yandex.qatools.allure.model.Parameter().withName("host" + suite)
+                                        .withValue("host-" + suite).withKind(ParameterKind.ENVIRONMENT_VARIABLE)));
+                xml.append("<test-case start=\"").append(1000 + test).append("\" stop=\"").append(2000 + test)
+                        .append("\" status=\"").append(status).append("\">")
+                        .append("<name>").append(name).append("</name>")
+                        .append("<failure><message>message ").append(test).append("</message></failure>")
+                        .append("<steps><step start=\"1000\" stop=\"1001\" status=\"passed\"><name>step ")
+                        .append(test).append("</name></step></steps>")
+                        .append("<attachments><attachment title=\"log\" source=\"").append(name)
+                        .append("-attachment.txt\" type=\"text/plain\"/></attachments>")
+                        .append("<labels><label name=\"feature\" value=\"Feature").append(test % 2)
+                        .append("\"/></labels>")
+                        .append("<parameters><parameter name=\"index\" value=\"").append(test)
+                        .append("\" kind=\"argument\"/><parameter name=\"host").append(suite)
+                        .append("\" value=\"host-").append(suite).append("\" kind=\"environment-variable\"/>")
+                        .append("</parameters></test-case>");
+            }
+            if (suite % 2 == 0) {
+                write(new File(directory, "suite" + suite + "-testsuite.xml"),
+                        xml.append("</test-cases></ns2:test-suite>").toString());
+            } else {
+                new ObjectMapper().writeValue(new File(directory, "suite" + suite + "-testsuite.json"), result);
+            }
+        }
+        return directory;
+    }
+
+    private static List<String> describe(final LaunchResults launch) {
+        final List<String> described = new ArrayList<>();
+        for (TestResult result : launch.getAllResults()) {
+            final StringBuilder builder = new StringBuilder()
+                    .append(result.getHistoryId()).append('|')
+                    .append(result.getName()).append('|')
+                    .append(result.getStatus()).append('|')
+                    .append(result.getStatusMessage()).append('|')
+                    .append(result.getTime().getStart()).append('|');
+            final List<String> labels = new ArrayList<>();
+            for (Label label : result.getLabels()) {
+                labels.add(label.getName() + "=" + label.getValue());
+            }
+            Collections.sort(labels);
+            builder.append(labels).append('|');
+            for (Parameter parameter : result.getParameters()) {
+                builder.append(parameter.getName()).append('=').append(parameter.getValue()).append(';');
+            }
+            builder.append('|');
+            for (Step step : result.getTestStage().getSteps()) {
+                builder.append(step.getName()).append(';');
+            }
+            for (Attachment attachment : result.getTestStage().getAttachments()) {
+                builder.append(attachment.getName()).append(',')
+                        .append(new File(attachment.getSource()).getName()).append(';');
+            }
+            described.add(builder.toString());
+        }
+        Collections.sort(described);
+        return described;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+}
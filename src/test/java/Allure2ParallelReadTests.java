@@ -0,0 +1,178 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.allure2.Allure2Plugin;
+import com.github.allure.concurrent.BoundedExecutor;
+import com.github.allure.concurrent.ReadThroughput;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class Allure2ParallelReadTests {
+
+    private static final int RESULTS = 50;
+
+    private static final int CONTAINERS = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadSameResultsInParallel() throws IOException {
+        final File directory = writeResults();
+
+        final List<String> sequential = describe(read(new Allure2Plugin(), directory));
+        final List<String> parallel = describe(read(new Allure2Plugin().setParallelism(8), directory));
+
+        assertEquals(RESULTS, sequential.size());
+        assertTrue(sequential.get(0), sequential.get(0).contains("setUp0,PASSED;startServer,PASSED;"));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void shouldCountFilesAndResults() throws IOException {
+        final File directory = writeResults();
+        for (int parallelism : new int[]{1, 4}) {
+            final Allure2Plugin plugin = new Allure2Plugin().setParallelism(parallelism);
+            read(plugin, directory);
+            final ReadThroughput throughput = plugin.getLastThroughput();
+            assertEquals(RESULTS + CONTAINERS + 1, throughput.getFiles());
+            assertEquals(RESULTS, throughput.getResults());
+        }
+    }
+
+    @Test
+    public void shouldRunAllTasksAndRethrowFirstFailure() {
+        final BoundedExecutor executor = new BoundedExecutor("test", 4, 2);
+        final AtomicInteger finished = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            final int task = i;
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (task == 10) {
+                        throw new IllegalArgumentException("task " + task);
+                    }
+                    finished.incrementAndGet();
+                }
+            });
+        }
+        try {
+            executor.awaitAll();
+            fail("Failure of a task is not rethrown");
+        } catch (IllegalArgumentException e) {
+            assertEquals("task 10", e.getMessage());
+        }
+        assertEquals(99, finished.get());
+    }
+
+    private static LaunchResults read(final Allure2Plugin plugin, final File directory) {
+        final Configuration configuration = new ConfigurationBuilder().useDefault().build();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        plugin.readResults(configuration, visitor, Arrays.asList(directory.listFiles()));
+        return visitor.getLaunchResults();
+    }
+
+    /**
+     * Writes results of ten classes, each with its own container and one
+     * shared parent container, and an attachment per result.
+     */
+    private File writeResults() throws IOException {
+        final File directory = folder.newFolder("results");
+        final StringBuilder all = new StringBuilder();
+        for (int i = 0; i < RESULTS; i++) {
+            write(new File(directory, "log-" + i + "-attachment.txt"), "log " + i);
+            write(new File(directory, "result-" + i + "-result.json"), "{"
+                    + "\"uuid\":\"result-" + i + "\",\"historyId\":\"history-" + i + "\","
+                    + "\"name\":\"test " + i + "\",\"fullName\":\"Class" + i % CONTAINERS + ".test" + i + "\","
+                    + "\"status\":\"" + (i % 4 == 0 ? "failed" : "passed") + "\","
+                    + "\"statusDetails\":{\"message\":\"message " + i + "\"},"
+                    + "\"start\":" + (1000 + i) + ",\"stop\":" + (2000 + i) + ","
+                    + "\"labels\":[{\"name\":\"suite\",\"value\":\"Class" + i % CONTAINERS + "\"}],"
+                    + "\"parameters\":[{\"name\":\"index\",\"value\":\"" + i + "\"}],"
+                    + "\"steps\":[{\"name\":\"step " + i + "\",\"status\":\"passed\","
+                    + "\"attachments\":[{\"name\":\"log\",\"source\":\"log-" + i + "-attachment.txt\"}]}]"
+                    + "}");
+        }
+        for (int i = 0; i < CONTAINERS; i++) {
+            final StringBuilder children = new StringBuilder();
+            for (int child = i; child < RESULTS; child += CONTAINERS) {
+                children.append(children.length() == 0 ? "" : ",").append("\"result-").append(child).append('"');
+            }
+            write(new File(directory, "class-" + i + "-container.json"), "{"
+                    + "\"uuid\":\"class-" + i + "\",\"name\":\"Class" + i + "\",\"children\":[" + children + "],"
+                    + "\"befores\":[{\"name\":\"setUp" + i + "\",\"status\":\"passed\",\"start\":10,\"stop\":20}],"
+                    + "\"afters\":[{\"name\":\"tearDown" + i + "\",\"status\":\"broken\",\"start\":30,\"stop\":40}]"
+                    + "}");
+            all.append(all.length() == 0 ? "" : ",").append("\"class-").append(i).append('"');
+        }
+        write(new File(directory, "all-container.json"), "{"
+                + "\"uuid\":\"all\",\"children\":[" + all + "],"
+                + "\"befores\":[{\"name\":\"startServer\",\"status\":\"passed\",\"start\":1,\"stop\":2}]"
+                + "}");
+        return directory;
+    }
+
+    private static List<String> describe(final LaunchResults launch) {
+        final List<String> described = new ArrayList<>();
+        for (TestResult result : launch.getAllResults()) {
+            final StringBuilder builder = new StringBuilder()
+                    .append(result.getHistoryId()).append('|')
+                    .append(result.getName()).append('|')
+                    .append(result.getStatus()).append('|')
+                    .append(result.getStatusMessage()).append('|')
+                    .append(result.getTime().getStart()).append('|');
+            for (Label label : result.getLabels()) {
+                builder.append(label.getName()).append('=').append(label.getValue()).append(';');
+            }
+            builder.append('|');
+            for (StageResult stage : result.getBeforeStages()) {
+                builder.append(stage.getName()).append(',').append(stage.getStatus()).append(';');
+            }
+            builder.append('|');
+            for (StageResult stage : result.getAfterStages()) {
+                builder.append(stage.getName()).append(',').append(stage.getStatus()).append(';');
+            }
+            builder.append('|');
+            for (Step step : result.getTestStage().getSteps()) {
+                builder.append(step.getName()).append(',');
+                for (Attachment attachment : step.getAttachments()) {
+                    builder.append(new File(attachment.getSource()).getName()).append(',')
+                            .append(attachment.getSize()).append(';');
+                }
+            }
+            described.add(builder.toString());
+        }
+        Collections.sort(described);
+        return described;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class AttachmentDeduplicationTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldStoreSameContentOnce() throws IOException {
+        final File first = file("first-attachment.txt", "same log");
+        final File second = file("second-attachment.txt", "same log");
+        final File other = file("other-attachment.txt", "other log");
+        final DefaultResultsVisitor visitor = newVisitor().setContentDeduplication(true);
+
+        final Attachment stored = visitor.visitAttachmentFile(first);
+        final Attachment reference = visitor.visitAttachmentFile(second, "text/x-log");
+        final Attachment distinct = visitor.visitAttachmentFile(other);
+
+        assertEquals(stored.getUid(), reference.getUid());
+        assertEquals(stored.getSource(), reference.getSource());
+        assertEquals(stored.getSize(), reference.getSize());
+        assertEquals("second-attachment.txt", reference.getName());
+        assertEquals("text/x-log", reference.getType());
+        assertNotEquals(stored.getUid(), distinct.getUid());
+        assertEquals(2, visitor.getLaunchResults().getAttachments().size());
+        assertEquals(1, visitor.getDuplicateCount());
+        assertEquals(second.length(), visitor.getDuplicateBytes());
+    }
+
+    @Test
+    public void shouldReturnNewReferenceOnEveryVisit() throws IOException {
+        final File first = file("first-attachment.txt", "same log");
+        final File second = file("second-attachment.txt", "same log");
+        final DefaultResultsVisitor visitor = newVisitor().setContentDeduplication(true);
+        visitor.visitAttachmentFile(first);
+
+        final Attachment reference = visitor.visitAttachmentFile(second);
+        reference.setName("renamed");
+        assertEquals("second-attachment.txt", visitor.visitAttachmentFile(second).getName());
+        assertSame(visitor.visitAttachmentFile(first), visitor.visitAttachmentFile(first));
+        assertEquals(1, visitor.getDuplicateCount());
+        assertEquals(second.length(), visitor.getDuplicateBytes());
+    }
+
+    @Test
+    public void shouldKeepEveryFileWithoutDeduplication() throws IOException {
+        final File first = file("first-attachment.txt", "same log");
+        final File second = file("second-attachment.txt", "same log");
+        final DefaultResultsVisitor visitor = newVisitor();
+
+        assertNotEquals(visitor.visitAttachmentFile(first).getUid(), visitor.visitAttachmentFile(second).getUid());
+        assertEquals(2, visitor.getLaunchResults().getAttachments().size());
+        assertEquals(0, visitor.getDuplicateCount());
+    }
+
+    private static DefaultResultsVisitor newVisitor() {
+        return new DefaultResultsVisitor(new ConfigurationBuilder().useDefault().build());
+    }
+
+    private File file(final String name, final String content) throws IOException {
+        final File file = folder.newFile(name);
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,68 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.utils.AttachmentIndex;
+import com.github.allure.utils.FileAttachmentSource;
+import io.qameta.allure.entity.Attachment;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AttachmentIndexTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldFindExactName() {
+        final AttachmentIndex<File> index = AttachmentIndex.forFiles(Arrays.asList(
+                new File("a/screen-attachment.png"), new File("b/screen-attachment.png.bak")));
+
+        assertEquals(new File("a/screen-attachment.png"), index.find("screen-attachment.png"));
+        assertNull(index.find(null));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void shouldFallBackToLastNameContainingSource() {
+        final AttachmentIndex<File> index = AttachmentIndex.forFiles(Arrays.asList(
+                new File("first-log-attachment.txt"), new File("second-log-attachment.txt")));
+
+        assertEquals(new File("second-log-attachment.txt"), index.find("log-attachment"));
+    }
+
+    @Test
+    public void shouldRememberMisses() {
+        final List<File> files = new ArrayList<>();
+        files.add(new File("log-attachment.txt"));
+        final AttachmentIndex<File> index = AttachmentIndex.forFiles(files);
+
+        assertNull(index.find("screen"));
+        files.add(new File("screen-attachment.png"));
+        assertNull(index.find("screen"));
+    }
+
+    @Test
+    public void shouldVisitOnlyExistingFiles() throws IOException {
+        final File file = folder.newFile("log-attachment.txt");
+        final File directory = folder.newFolder("directory-attachment");
+        final FileAttachmentSource source = new FileAttachmentSource(Arrays.asList(file, directory));
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(
+                new ConfigurationBuilder().useDefault().build());
+
+        final Attachment attachment = source.visit("log-attachment.txt", "text/plain", visitor);
+        assertEquals("log-attachment.txt", attachment.getName());
+        assertEquals("text/plain", attachment.getType());
+        assertNull(source.visit("missing.txt", null, visitor));
+        assertNull(source.visit("directory-attachment", null, visitor));
+        assertEquals(1, visitor.getLaunchResults().getAttachments().size());
+    }
+}
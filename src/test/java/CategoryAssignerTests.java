@@ -0,0 +1,189 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.category.CategoriesPlugin;
+import com.github.allure.category.Category;
+import com.github.allure.category.CategoryAssigner;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class CategoryAssignerTests {
+
+    private static final int RESULTS = 3000;
+
+    private static final List<Category> CATEGORIES = Arrays.asList(
+            new Category().setName("Timeouts").setMessageRegex(".*Timeout after \\d+ ms.*"),
+            new Category().setName("Null pointers").setTraceRegex(".*NullPointerException.*"),
+            new Category().setName("Broken").setMatchedStatuses(Collections.singletonList(Status.BROKEN)),
+            new Category().setName("Flaky").setFlaky(true)
+                    .setMatchedStatuses(Arrays.asList(Status.FAILED, Status.BROKEN)));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldAssignSameCategoriesAsSeparateMatching() {
+        final List<TestResult> results = results();
+        final CategoryAssigner assigner = new CategoryAssigner(CATEGORIES);
+        for (TestResult result : results) {
+            assigner.assign(result);
+        }
+
+        for (TestResult result : results) {
+            assertEquals(result.getName(), expected(result), categories(result));
+        }
+        assertEquals(RESULTS - assigner.getSignatureCount(), assigner.getSignatureHits());
+        assertEquals(signatures(), assigner.getSignatureCount());
+    }
+
+    @Test
+    public void shouldAssignSameCategoriesInParallel() throws Exception {
+        final List<TestResult> sequential = results();
+        final CategoryAssigner reference = new CategoryAssigner(CATEGORIES);
+        for (TestResult result : sequential) {
+            reference.assign(result);
+        }
+        final List<TestResult> parallel = results();
+        final CategoryAssigner assigner = new CategoryAssigner(CATEGORIES);
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int offset = i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws InterruptedException {
+                        start.await();
+                        for (int index = offset; index < RESULTS; index += threads) {
+                            assigner.assign(parallel.get(index));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < RESULTS; i++) {
+            assertEquals(sequential.get(i).getName(), categories(sequential.get(i)), categories(parallel.get(i)));
+        }
+        assertEquals(reference.getSignatureCount(), assigner.getSignatureCount());
+        assertEquals(RESULTS - assigner.getSignatureCount(), assigner.getSignatureHits());
+    }
+
+    @Test
+    public void shouldAssignCategoriesOfEveryLaunch() throws IOException {
+        final List<TestResult> first = results();
+        final List<TestResult> second = results();
+        final List<LaunchResults> launches = Arrays.asList(launch(first, CATEGORIES),
+                launch(second, Collections.<Category>emptyList()));
+        final CategoriesPlugin plugin = new CategoriesPlugin();
+
+        plugin.aggregate(new ConfigurationBuilder().useDefault().build(), launches,
+                folder.getRoot().getAbsolutePath());
+
+        for (TestResult result : first) {
+            if (!result.isHidden()) {
+                assertEquals(result.getName(), expected(result), categories(result));
+            }
+        }
+        for (TestResult result : second) {
+            if (!result.isHidden()) {
+                assertEquals(result.getName(), defaultCategories(result, new ArrayList<String>()),
+                        categories(result));
+            }
+        }
+        assertEquals(2, plugin.getAssigners().size());
+        assertEquals(CATEGORIES.size(), plugin.getMatchers().size());
+    }
+
+    /**
+     * Returns results with few distinct failures; every tenth is hidden.
+     */
+    private static List<TestResult> results() {
+        final List<TestResult> results = new ArrayList<>();
+        final Status[] statuses = Status.values();
+        for (int i = 0; i < RESULTS; i++) {
+            results.add(new TestResult()
+                    .setUid("uid" + i)
+                    .setName("test" + i)
+                    .setStatus(statuses[i % statuses.length])
+                    .setFlaky(i % 3 == 0)
+                    .setHidden(i % 10 == 0)
+                    .setStatusMessage(i % 4 == 0 ? null : "Timeout after " + i % 5 + "0 ms")
+                    .setStatusTrace(i % 6 == 0 ? "java.lang.NullPointerException\n\tat Test.run" : "trace"));
+        }
+        return results;
+    }
+
+    private static int signatures() {
+        final List<String> distinct = new ArrayList<>();
+        for (TestResult result : results()) {
+            final String signature = result.getStatus() + "|" + result.isFlaky() + "|"
+                    + result.getStatusMessage() + "|" + result.getStatusTrace();
+            if (!distinct.contains(signature)) {
+                distinct.add(signature);
+            }
+        }
+        return distinct.size();
+    }
+
+    private static LaunchResults launch(final List<TestResult> results, final List<Category> categories) {
+        return new IndexedLaunchResults(new LinkedHashSet<>(results), Collections.<String, Attachment>emptyMap(),
+                Collections.<String, Object>singletonMap("categories", categories));
+    }
+
+    private static List<String> expected(final TestResult result) {
+        final List<String> names = new ArrayList<>();
+        for (Category category : CATEGORIES) {
+            if (CategoriesPlugin.matches(result, category)) {
+                names.add(category.getName());
+            }
+        }
+        return defaultCategories(result, names);
+    }
+
+    private static List<String> defaultCategories(final TestResult result, final List<String> names) {
+        if (names.isEmpty() && result.getStatus() == Status.FAILED) {
+            names.add(CategoriesPlugin.FAILED_TESTS.getName());
+        }
+        if (names.isEmpty() && result.getStatus() == Status.BROKEN) {
+            names.add(CategoriesPlugin.BROKEN_TESTS.getName());
+        }
+        return names;
+    }
+
+    private static List<String> categories(final TestResult result) {
+        final List<String> names = new ArrayList<>();
+        for (Category category : result.<List<Category>>getExtraBlock(CategoriesPlugin.CATEGORIES,
+                new ArrayList<Category>())) {
+            names.add(category.getName());
+        }
+        return names;
+    }
+}
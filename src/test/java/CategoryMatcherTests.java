@@ -0,0 +1,71 @@
+import com.github.allure.category.CategoryMatcher;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CategoryMatcherTests {
+
+    @Test
+    public void extractsLiteralsOfPlainExpressions() {
+        assertLiterals(".*java\\.lang\\.NullPointerException.*", "java.lang.NullPointerException");
+        assertLiterals(".*Timeout after \\d+ ms.*", "Timeout after ", " ms");
+        assertLiterals("^Assert.*$", "Assert");
+        assertLiterals("a\\[b\\]c", "a[b]c");
+        assertLiterals("\\Qa.b\\E+x", "a.b", "x");
+    }
+
+    @Test
+    public void skipsOptionalPartsGroupsAndClasses() {
+        assertLiterals("ab?c", "a", "c");
+        assertLiterals("ab{2}cd", "a", "cd");
+        assertLiterals("Expected:? <(.*)> but was.*", "Expected", " <", "> but was");
+        assertLiterals("(?:x|y)zz", "zz");
+        assertLiterals("[]x]yz", "yz");
+        assertLiterals("[^]q]rs", "rs");
+    }
+
+    @Test
+    public void givesNoLiteralsForAlternativesAndFlags() {
+        assertLiterals("foo|bar");
+        assertLiterals("(?i).*error.*");
+        assertLiterals("a\\Eb");
+    }
+
+    @Test
+    public void skipsArgumentsOfEscapes() {
+        assertLiterals("\\x41BC", "BC");
+        assertLiterals("\\x{41}BC", "BC");
+        assertLiterals("\\u0041BC", "BC");
+        assertLiterals("a\\0101b", "a", "b");
+        assertLiterals("\\cJfoo", "foo");
+        assertLiterals("\\p{Lu}ab", "ab");
+        assertLiterals("\\pLab", "ab");
+        assertLiterals("(?<n>x)\\k<n>yz", "yz");
+        assertLiterals("\\bword\\b", "word");
+    }
+
+    @Test
+    public void literalsAreContainedInEveryMatch() {
+        final String[][] cases = {
+                {"\\x41BC", "ABC"},
+                {"\\u0041BC", "ABC"},
+                {"a\\0101b", "aAb"},
+                {"\\cJfoo", "\nfoo"},
+                {".*Timeout after \\d+ ms.*", "Error: Timeout after 300 ms!"},
+                {"Expected:? <(.*)> but was.*", "Expected <1> but was <2>"},
+        };
+        for (String[] pair : cases) {
+            assertTrue(pair[0], Pattern.compile(pair[0], Pattern.DOTALL).matcher(pair[1]).matches());
+            for (String literal : CategoryMatcher.literals(pair[0])) {
+                assertTrue(pair[0] + " / " + literal, pair[1].contains(literal));
+            }
+        }
+    }
+
+    private static void assertLiterals(final String regex, final String... expected) {
+        assertArrayEquals(regex, expected, CategoryMatcher.literals(regex));
+    }
+}
@@ -0,0 +1,190 @@
+import com.github.allure.ConcurrentResultsVisitor;
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.concurrent.SynchronizedResultsVisitor;
+import com.github.allure.utils.MimeTypeDetector;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.core.ResultsVisitor;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentResultsVisitorTests {
+
+    private static final int THREADS = 8;
+
+    private static final int RESULTS = 200;
+
+    private static final int FILES = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldCollectResultsOfAllThreads() throws Exception {
+        final List<File> files = files("log", false);
+        final ConcurrentResultsVisitor visitor = newVisitor();
+
+        final List<List<Attachment>> visited = runConcurrently(new Task() {
+            @Override
+            public Attachment run(final int thread, final int index) {
+                visitor.visitTestResult(new TestResult().setName("test " + thread + "_" + index));
+                visitor.visitExtra("list", Collections.singletonList(thread + "_" + index));
+                visitor.visitExtra("map", Collections.singletonMap(thread + "_" + index, index));
+                return visitor.visitAttachmentFile(files.get(index % FILES));
+            }
+        });
+
+        final LaunchResults launch = visitor.getLaunchResults();
+        assertEquals(THREADS * RESULTS, launch.getAllResults().size());
+        assertEquals(FILES, launch.getAttachments().size());
+        assertEquals(THREADS * RESULTS, launch.<List<String>>getExtra("list").get().size());
+        assertEquals(THREADS * RESULTS, launch.<Map<String, Integer>>getExtra("map").get().size());
+        for (List<Attachment> attachments : visited) {
+            for (int i = 0; i < RESULTS; i++) {
+                assertSame(visited.get(0).get(i), attachments.get(i));
+            }
+        }
+        final Set<String> uids = new HashSet<>();
+        for (Attachment attachment : launch.getAttachments().values()) {
+            uids.add(attachment.getUid());
+        }
+        assertEquals(FILES, uids.size());
+    }
+
+    @Test
+    public void shouldStoreSameContentOnceUnderContention() throws Exception {
+        final List<File> files = files("log", true);
+        final ConcurrentResultsVisitor visitor = newVisitor().setContentDeduplication(true);
+
+        final List<List<Attachment>> visited = runConcurrently(new Task() {
+            @Override
+            public Attachment run(final int thread, final int index) {
+                return visitor.visitAttachmentFile(files.get((thread + index) % FILES));
+            }
+        });
+
+        assertEquals(1, visitor.getLaunchResults().getAttachments().size());
+        assertEquals(FILES - 1, visitor.getDuplicateCount());
+        assertEquals((FILES - 1) * files.get(0).length(), visitor.getDuplicateBytes());
+        final Set<String> names = new HashSet<>();
+        for (List<Attachment> attachments : visited) {
+            for (Attachment attachment : attachments) {
+                assertEquals(visited.get(0).get(0).getUid(), attachment.getUid());
+                assertEquals(visited.get(0).get(0).getSource(), attachment.getSource());
+                names.add(attachment.getName());
+            }
+        }
+        assertEquals(FILES, names.size());
+    }
+
+    @Test
+    public void shouldBoundBufferedErrors() throws Exception {
+        final ConcurrentResultsVisitor visitor = new ConcurrentResultsVisitor(
+                new ConfigurationBuilder().useDefault().build(), new MimeTypeDetector(), 10);
+
+        runConcurrently(new Task() {
+            @Override
+            public Attachment run(final int thread, final int index) {
+                visitor.error("error " + index, new IllegalStateException("cause"));
+                return null;
+            }
+        });
+
+        assertEquals(THREADS * RESULTS, visitor.getErrorsCount());
+        assertEquals(10, visitor.getErrors().size());
+        assertTrue(visitor.getErrors().get(0).endsWith(": java.lang.IllegalStateException: cause"));
+    }
+
+    @Test
+    public void shouldWrapOnlyVisitorsNotSafeToShare() {
+        final ConcurrentResultsVisitor concurrent = newVisitor();
+        final ResultsVisitor visitor = new DefaultResultsVisitor(new ConfigurationBuilder().useDefault().build());
+        final ResultsVisitor wrapped = SynchronizedResultsVisitor.wrap(visitor);
+
+        assertSame(concurrent, SynchronizedResultsVisitor.wrap(concurrent));
+        assertNotSame(visitor, wrapped);
+        assertSame(wrapped, SynchronizedResultsVisitor.wrap(wrapped));
+    }
+
+    private static ConcurrentResultsVisitor newVisitor() {
+        return new ConcurrentResultsVisitor(new ConfigurationBuilder().useDefault().build());
+    }
+
+    /**
+     * Runs the task for every index on all threads at once and returns
+     * attachments returned on every thread in index order.
+     */
+    private static List<List<Attachment>> runConcurrently(final Task task) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Attachment>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<List<Attachment>>() {
+                    @Override
+                    public List<Attachment> call() throws InterruptedException {
+                        start.await();
+                        final List<Attachment> attachments = new ArrayList<>();
+                        for (int index = 0; index < RESULTS; index++) {
+                            attachments.add(task.run(thread, index));
+                        }
+                        return attachments;
+                    }
+                }));
+            }
+            start.countDown();
+            final List<List<Attachment>> visited = new ArrayList<>();
+            for (Future<List<Attachment>> future : futures) {
+                visited.add(future.get());
+            }
+            return visited;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<File> files(final String prefix, final boolean sameContent) throws IOException {
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            final File file = folder.newFile(prefix + "-" + i + "-attachment.txt");
+            final OutputStream output = new FileOutputStream(file);
+            try {
+                output.write((sameContent ? "same log" : "log " + i).getBytes("UTF-8"));
+            } finally {
+                output.close();
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    private interface Task {
+
+        Attachment run(int thread, int index);
+    }
+}
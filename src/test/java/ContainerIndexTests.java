@@ -0,0 +1,88 @@
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.allure2.ContainerIndex;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ContainerIndexTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    public void shouldFindTransitiveParents() throws IOException {
+        final ContainerIndex index = new ContainerIndex(Arrays.asList(
+                container("a", "b"),
+                container("b", "c"),
+                container("c", "test")
+        ));
+
+        assertEquals(Arrays.asList("c", "b", "a"), uuids(index.findAllParents("test")));
+        assertEquals(Arrays.asList("a"), uuids(index.findAllParents("b")));
+    }
+
+    @Test
+    public void shouldResolveParentCycleInAnyLookupOrder() throws IOException {
+        final List<TestResultContainer> containers = Arrays.asList(
+                container("a", "b", "first"),
+                container("b", "a", "second")
+        );
+
+        final ContainerIndex firstToSecond = new ContainerIndex(containers);
+        final Set<String> first = new HashSet<>(uuids(firstToSecond.findAllParents("first")));
+        final Set<String> second = new HashSet<>(uuids(firstToSecond.findAllParents("second")));
+
+        final ContainerIndex secondToFirst = new ContainerIndex(containers);
+        assertEquals(second, new HashSet<>(uuids(secondToFirst.findAllParents("second"))));
+        assertEquals(first, new HashSet<>(uuids(secondToFirst.findAllParents("first"))));
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), first);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), second);
+    }
+
+    @Test
+    public void shouldResolveCycleReachedThroughTail() throws IOException {
+        final List<TestResultContainer> containers = Arrays.asList(
+                container("root", "a"),
+                container("a", "b", "first"),
+                container("b", "c"),
+                container("c", "a", "third")
+        );
+        final Set<String> all = new HashSet<>(Arrays.asList("root", "a", "b", "c"));
+
+        final ContainerIndex index = new ContainerIndex(containers);
+        assertEquals(all, new HashSet<>(uuids(index.findAllParents("first"))));
+        assertEquals(all, new HashSet<>(uuids(index.findAllParents("third"))));
+        assertEquals(all, new HashSet<>(uuids(index.findAllParents("b"))));
+
+        final ContainerIndex reversed = new ContainerIndex(containers);
+        assertEquals(all, new HashSet<>(uuids(reversed.findAllParents("b"))));
+        assertEquals(all, new HashSet<>(uuids(reversed.findAllParents("third"))));
+        assertEquals(all, new HashSet<>(uuids(reversed.findAllParents("first"))));
+    }
+
+    private static TestResultContainer container(final String uuid, final String... children) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"uuid\":\"").append(uuid).append("\",\"children\":[");
+        for (int i = 0; i < children.length; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(children[i]).append('"');
+        }
+        return MAPPER.readValue(json.append("]}").toString(), TestResultContainer.class);
+    }
+
+    private static List<String> uuids(final List<TestResultContainer> containers) {
+        final List<String> uuids = new ArrayList<>();
+        for (TestResultContainer container : containers) {
+            uuids.add(container.getUuid());
+        }
+        return uuids;
+    }
+}
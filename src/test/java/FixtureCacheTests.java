@@ -0,0 +1,121 @@
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.allure2.FixtureCache;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.TestResultContainer;
+import java8.util.function.Function;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class FixtureCacheTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    private final FixtureCache cache = new FixtureCache(new Function<List<FixtureResult>, List<StageResult>>() {
+        @Override
+        public List<StageResult> apply(final List<FixtureResult> fixtures) {
+            conversions.incrementAndGet();
+            final List<StageResult> stages = new ArrayList<>();
+            for (FixtureResult fixture : fixtures) {
+                if ("broken".equals(fixture.getName())) {
+                    throw new IllegalArgumentException("broken fixture");
+                }
+                stages.add(new StageResult().setName(fixture.getName()));
+            }
+            return stages;
+        }
+    });
+
+    @Test
+    public void shouldConvertFixturesOfContainerOnce() throws IOException {
+        final TestResultContainer container = container("\"class\"", "setUp", "tearDown");
+
+        final List<StageResult> befores = cache.getBefores(container);
+        assertEquals("setUp", befores.get(0).getName());
+        assertSame(befores, cache.getBefores(container));
+        assertEquals("tearDown", cache.getAfters(container).get(0).getName());
+        assertSame(cache.getAfters(container), cache.getAfters(container));
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    public void shouldConvertOnceForConcurrentChildren() throws Exception {
+        final TestResultContainer container = container("\"class\"", "setUp", "tearDown");
+        final int threads = 16;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<List<StageResult>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<List<StageResult>>() {
+                    @Override
+                    public List<StageResult> call() throws InterruptedException {
+                        start.await();
+                        return cache.getBefores(container);
+                    }
+                }));
+            }
+            start.countDown();
+            final List<StageResult> first = futures.get(0).get();
+            for (Future<List<StageResult>> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, conversions.get());
+    }
+
+    @Test
+    public void shouldNotCacheContainersWithoutUuid() throws IOException {
+        final TestResultContainer container = container("null", "setUp", "tearDown");
+
+        cache.getBefores(container);
+        cache.getBefores(container);
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    public void shouldRethrowConversionFailure() throws IOException {
+        final TestResultContainer container = container("\"class\"", "broken", "tearDown");
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getBefores(container);
+                fail("Conversion failure is not rethrown");
+            } catch (IllegalArgumentException e) {
+                assertEquals("broken fixture", e.getMessage());
+            }
+        }
+        assertEquals(1, conversions.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnUnmodifiableStages() throws IOException {
+        cache.getBefores(container("\"class\"", "setUp", "tearDown")).add(new StageResult());
+    }
+
+    private static TestResultContainer container(final String uuid,
+                                                 final String before,
+                                                 final String after) throws IOException {
+        return MAPPER.readValue("{\"uuid\":" + uuid + ","
+                + "\"befores\":[{\"name\":\"" + before + "\"}],"
+                + "\"afters\":[{\"name\":\"" + after + "\"}]}", TestResultContainer.class);
+    }
+}
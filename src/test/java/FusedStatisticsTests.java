@@ -0,0 +1,159 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.DefaultLaunchResults;
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.stats.Accumulator;
+import com.github.allure.stats.AccumulatorFactory;
+import com.github.allure.stats.FusedStatistics;
+import com.github.allure.stats.ListAccumulator;
+import com.github.allure.stats.StatisticAccumulator;
+import com.github.allure.status.StatusChartPlugin;
+import com.github.allure.summary.SummaryPlugin;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.GroupTime;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FusedStatisticsTests {
+
+    private static final int RESULTS = 5000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void shouldCountSameStatisticInParallelChunks() {
+        final List<LaunchResults> launches = Arrays.<LaunchResults>asList(
+                new DefaultLaunchResults(results("a"), Collections.<String, Attachment>emptyMap(),
+                        Collections.<String, Object>emptyMap()),
+                new IndexedLaunchResults(results("b"), Collections.<String, Attachment>emptyMap(),
+                        Collections.<String, Object>emptyMap()));
+        final Statistic statistic = new Statistic();
+        final GroupTime time = new GroupTime();
+        for (LaunchResults launch : launches) {
+            for (TestResult result : launch.getAllResults()) {
+                if (!result.isHidden()) {
+                    statistic.update(result);
+                    time.update(result);
+                }
+            }
+        }
+
+        for (int parallelism : new int[]{1, 4}) {
+            final StatisticAccumulator accumulator = (StatisticAccumulator) FusedStatistics.compute(launches,
+                    Collections.<AccumulatorFactory<?>>singletonList(StatisticAccumulator.VISIBLE), parallelism)
+                    .get(StatisticAccumulator.VISIBLE);
+            assertEquals(MAPPER.valueToTree(statistic), MAPPER.valueToTree(accumulator.getStatistic()));
+            assertEquals(MAPPER.valueToTree(time), MAPPER.valueToTree(accumulator.getTime()));
+        }
+    }
+
+    @Test
+    public void shouldGiveSameDataAsSeparateAggregators() {
+        final List<LaunchResults> launches = launches();
+        final SummaryPlugin summary = new SummaryPlugin();
+        final StatusChartPlugin statusChart = new StatusChartPlugin();
+        final Object expectedSummary = MAPPER.valueToTree(summary.getData(launches));
+        final Object expectedChart = MAPPER.valueToTree(statusChart.getData(launches));
+
+        FusedStatistics.prepare(launches, Arrays.asList(summary, statusChart, new Object()), 4);
+        try {
+            assertEquals(expectedSummary, MAPPER.valueToTree(summary.getData(launches)));
+            assertEquals(expectedChart, MAPPER.valueToTree(statusChart.getData(launches)));
+        } finally {
+            FusedStatistics.release(launches);
+        }
+    }
+
+    @Test
+    public void shouldKeepOrderOfResultsAcrossChunks() {
+        final List<LaunchResults> launches = launches();
+        final AccumulatorFactory<ListAccumulator<String>> names = new AccumulatorFactory<ListAccumulator<String>>() {
+            @Override
+            public ListAccumulator<String> create() {
+                return new ListAccumulator<String>() {
+                    @Override
+                    protected String createItem(final TestResult result) {
+                        return result.getName();
+                    }
+                };
+            }
+        };
+        final List<String> expected = new ArrayList<>();
+        for (LaunchResults launch : launches) {
+            for (TestResult result : launch.getAllResults()) {
+                if (!result.isHidden()) {
+                    expected.add(result.getName());
+                }
+            }
+        }
+
+        final Map<AccumulatorFactory<?>, Accumulator<?>> computed = FusedStatistics.compute(launches,
+                Collections.<AccumulatorFactory<?>>singletonList(names), 8);
+        assertEquals(expected, ((ListAccumulator<?>) computed.get(names)).getItems());
+    }
+
+    @Test
+    public void shouldComputePreparedStatisticsOnce() {
+        final List<LaunchResults> launches = launches();
+        final AtomicInteger created = new AtomicInteger();
+        final AccumulatorFactory<StatisticAccumulator> counted = new AccumulatorFactory<StatisticAccumulator>() {
+            @Override
+            public StatisticAccumulator create() {
+                created.incrementAndGet();
+                return new StatisticAccumulator();
+            }
+        };
+        final SummaryPlugin contributor = new SummaryPlugin() {
+            @Override
+            public List<AccumulatorFactory<?>> getAccumulatorFactories() {
+                return Collections.<AccumulatorFactory<?>>singletonList(counted);
+            }
+        };
+
+        FusedStatistics.prepare(launches, Arrays.asList(contributor, contributor), 1);
+        try {
+            assertSame(FusedStatistics.get(launches, counted), FusedStatistics.get(launches, counted));
+            assertEquals(1, created.get());
+        } finally {
+            FusedStatistics.release(launches);
+        }
+        FusedStatistics.get(launches, counted);
+        assertEquals(2, created.get());
+    }
+
+    private static List<LaunchResults> launches() {
+        return Arrays.<LaunchResults>asList(
+                new DefaultLaunchResults(results("a"), Collections.<String, Attachment>emptyMap(),
+                        Collections.<String, Object>emptyMap()),
+                new DefaultLaunchResults(results("b"), Collections.<String, Attachment>emptyMap(),
+                        Collections.<String, Object>emptyMap()));
+    }
+
+    private static LinkedHashSet<TestResult> results(final String prefix) {
+        final LinkedHashSet<TestResult> results = new LinkedHashSet<>();
+        final Status[] statuses = Status.values();
+        for (int i = 0; i < RESULTS; i++) {
+            results.add(new TestResult()
+                    .setUid(prefix + i)
+                    .setName(prefix + i)
+                    .setStatus(statuses[i % statuses.length])
+                    .setHidden(i % 7 == 0)
+                    .setTime(i % 50 == 0 ? null : Time.create(1000L + i % 300, 2000L + i)));
+        }
+        return results;
+    }
+}
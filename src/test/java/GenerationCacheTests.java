@@ -0,0 +1,176 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.ReportGenerator;
+import com.github.allure.cache.GenerationCache;
+import io.qameta.allure.Aggregator;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import java8.util.function.Supplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class GenerationCacheTests {
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldComputeOncePerGeneration() {
+        final List<LaunchResults> launches = new ArrayList<>();
+        final GenerationCache cache = GenerationCache.open(launches);
+        try {
+            final Object tree = GenerationCache.get(launches, GenerationCacheTests.class, "tree", supplier());
+            assertSame(tree, GenerationCache.get(launches, GenerationCacheTests.class, "tree", supplier()));
+            assertSame(tree, GenerationCache.get(launches, GenerationCacheTests.class, "tree", supplier()));
+            assertNotSame(tree, GenerationCache.get(launches, GenerationCacheTests.class, "trend", supplier()));
+            assertNotSame(tree, GenerationCache.get(launches, String.class, "tree", supplier()));
+            assertNotSame(tree, GenerationCache.get(new ArrayList<LaunchResults>(), GenerationCacheTests.class,
+                    "tree", supplier()));
+        } finally {
+            assertSame(cache, GenerationCache.close(launches));
+        }
+        assertEquals(4, computed.get());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(Long.valueOf(2), cache.getHits().get(GenerationCacheTests.class.getName() + "#tree"));
+        assertEquals(Long.valueOf(0), cache.getHits().get(GenerationCacheTests.class.getName() + "#trend"));
+    }
+
+    @Test
+    public void shouldComputeEveryTimeOutsideOfGeneration() {
+        final List<LaunchResults> launches = new ArrayList<>();
+        GenerationCache.open(launches);
+        GenerationCache.close(launches);
+
+        assertNotSame(GenerationCache.get(launches, GenerationCacheTests.class, "tree", supplier()),
+                GenerationCache.get(launches, GenerationCacheTests.class, "tree", supplier()));
+        assertEquals(2, computed.get());
+        assertNull(GenerationCache.close(launches));
+    }
+
+    @Test
+    public void shouldComputeOnceForConcurrentRequests() throws Exception {
+        final List<LaunchResults> launches = new ArrayList<>();
+        final int threads = 16;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        GenerationCache.open(launches);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws InterruptedException {
+                        start.await();
+                        return GenerationCache.get(launches, GenerationCacheTests.class, "tree", slowSupplier());
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Object> future : futures) {
+                assertSame(futures.get(0).get(), future.get());
+            }
+        } finally {
+            executor.shutdown();
+            GenerationCache.close(launches);
+        }
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    public void shouldRethrowFailureToEveryRequest() {
+        final List<LaunchResults> launches = new ArrayList<>();
+        final Supplier<Object> failing = new Supplier<Object>() {
+            @Override
+            public Object get() {
+                computed.incrementAndGet();
+                throw new IllegalArgumentException("broken tree");
+            }
+        };
+        GenerationCache.open(launches);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    GenerationCache.get(launches, GenerationCacheTests.class, "tree", failing);
+                    fail("Failure of the computation is not rethrown");
+                } catch (IllegalArgumentException e) {
+                    assertEquals("broken tree", e.getMessage());
+                }
+            }
+        } finally {
+            GenerationCache.close(launches);
+        }
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    public void shouldShareValuesBetweenAggregatorsOfGeneration() throws IOException {
+        final List<Object> seen = Collections.synchronizedList(new ArrayList<Object>());
+        final Aggregator aggregator = new Aggregator() {
+            @Override
+            public void aggregate(final Configuration configuration,
+                                  final List<LaunchResults> launchesResults,
+                                  final String outputDirectory) {
+                seen.add(GenerationCache.get(launchesResults, GenerationCacheTests.class, "tree", supplier()));
+            }
+        };
+        final ReportGenerator generator = new ReportGenerator(new ConfigurationBuilder()
+                .fromExtensions(Arrays.<Extension>asList(aggregator, aggregator, aggregator))
+                .build());
+
+        generator.aggregate(new ArrayList<LaunchResults>(), folder.getRoot().getAbsolutePath());
+
+        assertEquals(3, seen.size());
+        assertSame(seen.get(0), seen.get(1));
+        assertSame(seen.get(0), seen.get(2));
+        assertEquals(1, computed.get());
+        assertEquals(Collections.singletonMap(GenerationCacheTests.class.getName() + "#tree", 2L),
+                generator.getCacheHits());
+    }
+
+    private Supplier<Object> supplier() {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                computed.incrementAndGet();
+                return new Object();
+            }
+        };
+    }
+
+    private Supplier<Object> slowSupplier() {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                computed.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Object();
+            }
+        };
+    }
+}
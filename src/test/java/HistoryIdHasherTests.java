@@ -0,0 +1,79 @@
+import com.github.allure.utils.HistoryIdHasher;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class HistoryIdHasherTests {
+
+    private static final int IDS = 200000;
+
+    @Test
+    public void md5IdsMatchPreviousImplementation() throws Exception {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final String name = randomString(random) + "#" + randomString(random);
+            final String parameterName = randomString(random);
+            final String parameterValue = randomString(random);
+            final MessageDigest digest = MessageDigest.getInstance("md5");
+            digest.update(name.getBytes(Charset.forName("UTF-8")));
+            digest.update(parameterName.getBytes(Charset.forName("UTF-8")));
+            digest.update(parameterValue.getBytes(Charset.forName("UTF-8")));
+            final String expected = new BigInteger(1, digest.digest()).toString(16);
+            final String actual = HistoryIdHasher.get(HistoryIdHasher.Algorithm.MD5)
+                    .update(name).update(parameterName).update(parameterValue).digest();
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void murmurIdsAreStableAndSeparateValues() {
+        final HistoryIdHasher hasher = HistoryIdHasher.get(HistoryIdHasher.Algorithm.MURMUR3_128);
+        final String id = hasher.update("com.example.Test#test").update("a").update("bc").digest();
+        assertEquals(32, id.length());
+        assertEquals(id, hasher.update("com.example.Test#test").update("a").update("bc").digest());
+        assertNotEquals(id, hasher.update("com.example.Test#test").update("ab").update("c").digest());
+    }
+
+    /**
+     * Prints ids/sec of each algorithm; run with {@code -Dbenchmark=true}.
+     */
+    @Test
+    public void benchmark() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        for (HistoryIdHasher.Algorithm algorithm : HistoryIdHasher.Algorithm.values()) {
+            run(algorithm, IDS);
+            final long start = System.nanoTime();
+            run(algorithm, IDS);
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("%s: %.0f ids/sec", algorithm, IDS / seconds));
+        }
+    }
+
+    private static int run(final HistoryIdHasher.Algorithm algorithm, final int count) {
+        int length = 0;
+        final HistoryIdHasher hasher = HistoryIdHasher.get(algorithm);
+        for (int i = 0; i < count; i++) {
+            length += hasher.update("com.example.checkout.PaymentTest#shouldPay")
+                    .update("currency").update("EUR")
+                    .update("amount").update(Integer.toString(i))
+                    .digest().length();
+        }
+        return length;
+    }
+
+    private static String randomString(final Random random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) (random.nextBoolean() ? random.nextInt(0x80) : random.nextInt(0x10000)));
+        }
+        return builder.toString();
+    }
+}
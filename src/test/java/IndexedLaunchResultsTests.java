@@ -0,0 +1,151 @@
+import com.github.allure.IndexedLaunchResults;
+import com.github.allure.retry.RetryPlugin;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedLaunchResultsTests {
+
+    private static final int RESULTS = 60;
+
+    private static final Status[] STATUSES = {Status.PASSED, Status.FAILED, Status.BROKEN, Status.SKIPPED};
+
+    @Test
+    public void shouldMatchFilteredResults() {
+        final List<TestResult> results = results("r");
+        final IndexedLaunchResults launch = launch(results);
+
+        assertEquals(visible(results), launch.getResults());
+        for (Status status : Status.values()) {
+            final Set<TestResult> expected = new HashSet<>();
+            for (TestResult result : visible(results)) {
+                if (result.getStatus() == status) {
+                    expected.add(result);
+                }
+            }
+            assertEquals(status.toString(), expected, new HashSet<>(launch.findByStatus(status)));
+        }
+        final Map<String, Set<TestResult>> byFeature = launch.groupByLabel("feature");
+        assertEquals(Arrays.asList("feature1", "feature2", "feature0"), new ArrayList<>(byFeature.keySet()));
+        for (Map.Entry<String, Set<TestResult>> group : byFeature.entrySet()) {
+            assertEquals(group.getValue(), launch.findByLabel("feature", group.getKey()));
+            for (TestResult result : group.getValue()) {
+                assertEquals(group.getKey(), result.getLabels().get(0).getValue());
+                assertFalse(result.isHidden());
+            }
+        }
+        assertTrue(launch.findByLabel("owner", "nobody").isEmpty());
+        assertTrue(launch.groupByLabel("owner").isEmpty());
+    }
+
+    @Test
+    public void shouldUpdateVisibleResultsAndIndexes() {
+        final List<TestResult> results = results("r");
+        final IndexedLaunchResults launch = launch(results);
+        final TestResult result = results.get(1);
+        final Set<TestResult> failed = launch.findByStatus(Status.FAILED);
+        final int failedCount = failed.size();
+
+        assertTrue(launch.setHidden(result, true));
+        assertTrue(result.isHidden());
+        assertFalse(launch.getResults().contains(result));
+        assertEquals(failedCount - 1, failed.size());
+        assertTrue(launch.findByHistoryId(result.getHistoryId()).isEmpty());
+        assertTrue(launch.getColumns().isHidden(launch.getColumns().rowOf(result)));
+
+        assertTrue(launch.setHidden(result, false));
+        assertTrue(launch.getResults().contains(result));
+        assertEquals(failedCount, launch.findByStatus(Status.FAILED).size());
+        assertFalse(launch.getColumns().isHidden(launch.getColumns().rowOf(result)));
+        assertFalse(launch.setHidden(new TestResult().setUid("other"), true));
+    }
+
+    @Test
+    public void shouldRebuildIndexesOnlyWhenInvalidated() {
+        final List<TestResult> results = results("r");
+        final IndexedLaunchResults launch = launch(results);
+        final TestResult result = results.get(4);
+        assertTrue(launch.findByStatus(Status.PASSED).contains(result));
+
+        result.setStatus(Status.BROKEN);
+        assertTrue(launch.findByStatus(Status.PASSED).contains(result));
+        launch.invalidateIndexes();
+        assertFalse(launch.findByStatus(Status.PASSED).contains(result));
+        assertTrue(launch.findByStatus(Status.BROKEN).contains(result));
+    }
+
+    @Test
+    public void shouldHideRetriesOfAllLaunches() {
+        final List<TestResult> first = results("a");
+        final List<TestResult> second = results("b");
+        final IndexedLaunchResults firstLaunch = launch(first);
+        final IndexedLaunchResults secondLaunch = launch(second);
+
+        new RetryPlugin().aggregate(null, Arrays.<LaunchResults>asList(firstLaunch, secondLaunch), null);
+
+        assertEquals(visible(first), firstLaunch.getResults());
+        assertEquals(visible(second), secondLaunch.getResults());
+        for (TestResult result : firstLaunch.getResults()) {
+            assertTrue(result.getHistoryId(), firstLaunch.findByHistoryId(result.getHistoryId()).contains(result));
+        }
+        final Set<String> historyIds = new HashSet<>();
+        for (TestResult result : firstLaunch.getResults()) {
+            assertTrue(result.getHistoryId(), historyIds.add(result.getHistoryId()));
+        }
+        for (TestResult result : secondLaunch.getResults()) {
+            assertTrue(result.getHistoryId(), historyIds.add(result.getHistoryId()));
+        }
+        assertEquals(RESULTS / 2, historyIds.size());
+    }
+
+    /**
+     * Returns results of which every fifth is hidden; history ids repeat, so
+     * results of launches with different prefixes are retries of each other.
+     */
+    private static List<TestResult> results(final String prefix) {
+        final List<TestResult> results = new ArrayList<>();
+        for (int i = 0; i < RESULTS; i++) {
+            results.add(new TestResult()
+                    .setUid(prefix + i)
+                    .setName(prefix + i)
+                    .setHistoryId("history" + i / 2)
+                    .setStatus(STATUSES[i % STATUSES.length])
+                    .setTime(Time.create((long) (prefix.hashCode() + i), (long) (prefix.hashCode() + i + 10)))
+                    .setHidden(i % 5 == 0)
+                    .setLabels(Collections.singletonList(new Label().setName("feature").setValue("feature" + i % 3))));
+        }
+        return results;
+    }
+
+    private static IndexedLaunchResults launch(final List<TestResult> results) {
+        return new IndexedLaunchResults(new LinkedHashSet<>(results),
+                Collections.<String, Attachment>emptyMap(), Collections.<String, Object>emptyMap());
+    }
+
+    private static Set<TestResult> visible(final List<TestResult> results) {
+        final Set<TestResult> visible = new HashSet<>();
+        for (TestResult result : results) {
+            if (!result.isHidden()) {
+                visible.add(result);
+            }
+        }
+        return visible;
+    }
+}
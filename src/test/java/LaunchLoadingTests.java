@@ -0,0 +1,127 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.ReportGenerator;
+import com.github.allure.concurrent.IoThrottle;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LaunchLoadingTests {
+
+    private static final int DIRECTORIES = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadEveryDirectoryIntoItsOwnLaunch() throws IOException {
+        final List<File> directories = new ArrayList<>();
+        for (int i = 0; i < DIRECTORIES; i++) {
+            directories.add(writeResults("shard" + i, i + 1));
+        }
+        final IoThrottle throttle = new IoThrottle(2, 4096);
+        final Configuration configuration = new ConfigurationBuilder().useDefault()
+                .fromExtensions(Collections.<Extension>singletonList(throttle))
+                .build();
+
+        final List<LaunchResults> launches = new ReportGenerator(configuration).setParallelism(4)
+                .readResults(directories);
+
+        assertEquals(DIRECTORIES, launches.size());
+        for (int i = 0; i < DIRECTORIES; i++) {
+            assertEquals(i + 1, launches.get(i).getAllResults().size());
+            for (TestResult result : launches.get(i).getAllResults()) {
+                assertTrue(result.getName(), result.getName().startsWith("shard" + i + " "));
+            }
+        }
+        assertTrue(throttle.toString(), throttle.getPeakOpenFiles() <= 2);
+        assertTrue(throttle.toString(), throttle.getPeakOpenFiles() >= 1);
+    }
+
+    @Test
+    public void shouldBlockOverOpenFilesLimit() throws InterruptedException {
+        final IoThrottle throttle = new IoThrottle(1, Long.MAX_VALUE);
+        final IoThrottle.Permit permit = throttle.acquire(10);
+
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                throttle.acquire(10).release();
+                acquired.set(true);
+                done.countDown();
+            }
+        }).start();
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        permit.release();
+        permit.release();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(acquired.get());
+        assertEquals(1, throttle.getWaits());
+        assertEquals(1, throttle.getPeakOpenFiles());
+    }
+
+    @Test
+    public void shouldReadFileOverByteBudgetAlone() throws InterruptedException {
+        final IoThrottle throttle = new IoThrottle(10, 4096);
+        final IoThrottle.Permit small = throttle.acquire(1024);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                throttle.acquire(1024 * 1024).release();
+                done.countDown();
+            }
+        }).start();
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        small.release();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldNotThrottleWithoutConfiguredThrottle() {
+        final IoThrottle throttle = IoThrottle.find(new ConfigurationBuilder().build());
+        final List<IoThrottle.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            permits.add(throttle.acquire(1024 * 1024));
+        }
+        for (IoThrottle.Permit permit : permits) {
+            permit.release();
+        }
+        assertEquals(0, throttle.getWaits());
+    }
+
+    private File writeResults(final String name, final int count) throws IOException {
+        final File directory = folder.newFolder(name);
+        for (int i = 0; i < count; i++) {
+            final OutputStream output = new FileOutputStream(new File(directory, "test" + i + "-result.json"));
+            try {
+                output.write(("{\"uuid\":\"" + name + "-" + i + "\",\"historyId\":\"" + name + "-" + i + "\","
+                        + "\"name\":\"" + name + " test" + i + "\",\"status\":\"passed\"}").getBytes("UTF-8"));
+            } finally {
+                output.close();
+            }
+        }
+        return directory;
+    }
+}
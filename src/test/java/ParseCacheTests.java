@@ -0,0 +1,158 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.allure2.Allure2Plugin;
+import com.github.allure.cache.CachedResults;
+import com.github.allure.cache.ParseCache;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ParseCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReturnStoredResults() throws IOException {
+        final ParseCache cache = new ParseCache(folder.newFolder("cache"), Long.MAX_VALUE);
+        final File source = source("first", "content");
+        final String key = cache.key(source);
+
+        assertNull(cache.get(key, source));
+        cache.put(key, source, results("first"));
+        final CachedResults cached = cache.get(key, source);
+        assertEquals("first", cached.getResults().get(0).getName());
+        assertEquals("uuid-first", cached.getUuids().get(0));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNull(cache.key(new File(folder.getRoot(), "missing-result.json")));
+    }
+
+    @Test
+    public void shouldDropEntriesOfChangedContent() throws IOException {
+        final ParseCache cache = new ParseCache(folder.newFolder("cache"), Long.MAX_VALUE);
+        final File source = source("first", "content");
+        final String key = cache.key(source);
+        cache.put(key, source, results("first"));
+
+        write(source, "CONTENT");
+        assertNull(cache.get(key, source));
+        assertEquals(0, cache.getEntriesCount());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    public void shouldTrustEntriesWithoutVerification() throws IOException {
+        final ParseCache cache = new ParseCache(folder.newFolder("cache"), Long.MAX_VALUE).setVerifyContent(false);
+        final File source = source("first", "content");
+        final String key = cache.key(source);
+        cache.put(key, source, results("first"));
+
+        write(source, "CONTENT");
+        assertNotNull(cache.get(key, source));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntries() throws IOException {
+        final File directory = folder.newFolder("cache");
+        final File first = source("first", "content");
+        final File second = source("second", "content");
+        final File third = source("third", "content");
+        final ParseCache probe = new ParseCache(folder.newFolder("probe"), Long.MAX_VALUE);
+        probe.put(probe.key(first), first, results("first"));
+        final long entrySize = probe.getSizeInBytes();
+
+        final ParseCache cache = new ParseCache(directory, entrySize * 5 / 2);
+        cache.put(cache.key(first), first, results("first"));
+        cache.put(cache.key(second), second, results("second"));
+        assertNotNull(cache.get(cache.key(first), first));
+        cache.put(cache.key(third), third, results("third"));
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getEntriesCount());
+        assertNotNull(cache.get(cache.key(first), first));
+        assertNull(cache.get(cache.key(second), second));
+        assertNotNull(cache.get(cache.key(third), third));
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void shouldLoadEntriesOfPreviousRun() throws IOException {
+        final File directory = folder.newFolder("cache");
+        final File source = source("first", "content");
+        final ParseCache previous = new ParseCache(directory, Long.MAX_VALUE);
+        previous.put(previous.key(source), source, results("first"));
+
+        final ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+        assertEquals(1, cache.getEntriesCount());
+        assertNotNull(cache.get(cache.key(source), source));
+        assertEquals(0, new ParseCache(directory, 0).getEntriesCount());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void shouldReadSameResultsFromCache() throws IOException {
+        final File directory = folder.newFolder("results");
+        write(new File(directory, "log-attachment.txt"), "log");
+        write(new File(directory, "first-result.json"), "{\"uuid\":\"first\",\"historyId\":\"history-1\","
+                + "\"name\":\"first\",\"status\":\"failed\",\"statusDetails\":{\"message\":\"message\"},"
+                + "\"attachments\":[{\"name\":\"log\",\"source\":\"log-attachment.txt\"}]}");
+        final ParseCache cache = new ParseCache(folder.newFolder("cache"), Long.MAX_VALUE);
+
+        final TestResult parsed = read(cache, directory);
+        final TestResult cached = read(cache, directory);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(parsed.getHistoryId(), cached.getHistoryId());
+        assertEquals(parsed.getStatusMessage(), cached.getStatusMessage());
+        assertEquals("log", cached.getTestStage().getAttachments().get(0).getName());
+        assertEquals(parsed.getTestStage().getAttachments().get(0).getSource(),
+                cached.getTestStage().getAttachments().get(0).getSource());
+    }
+
+    private static TestResult read(final ParseCache cache, final File directory) {
+        final Configuration configuration = new ConfigurationBuilder().useDefault()
+                .fromExtensions(Collections.<Extension>singletonList(cache))
+                .build();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        new Allure2Plugin().readResults(configuration, visitor, Arrays.asList(directory.listFiles()));
+        final LaunchResults launch = visitor.getLaunchResults();
+        assertEquals(1, launch.getAllResults().size());
+        assertEquals(1, launch.getAttachments().size());
+        return launch.getAllResults().iterator().next();
+    }
+
+    private File source(final String name, final String content) throws IOException {
+        final File file = folder.newFile(name + "-result.json");
+        write(file, content);
+        return file;
+    }
+
+    private static CachedResults results(final String name) {
+        return new CachedResults().add("uuid-" + name, new TestResult().setName(name));
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultLaunchResults;
+import com.github.allure.category.Category;
+import com.github.allure.executor.ExecutorPlugin;
+import com.github.allure.history.HistoryData;
+import com.github.allure.history.HistoryItem;
+import com.github.allure.history.HistoryTrendItem;
+import com.github.allure.history.HistoryTrendPlugin;
+import com.github.allure.partial.DurationSketch;
+import com.github.allure.partial.PartialAggregate;
+import com.github.allure.partial.PartialAggregateMerger;
+import com.github.allure.partial.PartialAggregatePlugin;
+import io.qameta.allure.Constants;
+import io.qameta.allure.context.JacksonContext;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.ExecutorInfo;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.Time;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PartialAggregateTests {
+
+    private static final int RESULTS = 60;
+
+    private static final int SHARDS = 3;
+
+    private static final int HISTORY_IDS = 7;
+
+    private static final Status[] STATUSES = {
+        Status.PASSED, Status.FAILED, Status.BROKEN, Status.SKIPPED, Status.PASSED
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Configuration configuration = new ConfigurationBuilder().useDefault().build();
+
+    private final ObjectMapper mapper = configuration.getContext(JacksonContext.class).getValue();
+
+    @Test
+    public void shouldEstimateQuantilesWithinRelativeError() {
+        final Random random = new Random(42);
+        final List<Long> durations = new ArrayList<>();
+        final DurationSketch sketch = new DurationSketch();
+        for (int i = 0; i < 10000; i++) {
+            final long duration = 1 + (long) Math.exp(random.nextDouble() * 15);
+            durations.add(duration);
+            sketch.add(duration);
+        }
+        Collections.sort(durations);
+        for (double quantile : new double[]{0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1}) {
+            final long exact = durations.get((int) Math.floor(quantile * (durations.size() - 1)));
+            assertWithinRelativeError(exact, sketch.quantile(quantile));
+        }
+    }
+
+    @Test
+    public void shouldRepresentBucketsWithinRelativeError() {
+        for (long duration = 1; duration < 100000; duration += 1 + duration / 50) {
+            assertWithinRelativeError(duration, new DurationSketch().add(duration).quantile(0.5));
+        }
+    }
+
+    @Test
+    public void shouldCountZerosSeparately() {
+        assertNull(new DurationSketch().quantile(0.5));
+
+        final DurationSketch sketch = new DurationSketch().add(0).add(-5).add(1000);
+        assertEquals(3, sketch.getCount());
+        assertEquals(2, sketch.getZeros());
+        assertEquals(Long.valueOf(0), sketch.quantile(0.5));
+        assertWithinRelativeError(1000, sketch.quantile(1));
+    }
+
+    @Test
+    public void shouldMergeSketchesAsOneSketch() {
+        final DurationSketch all = new DurationSketch();
+        final DurationSketch[] parts = {new DurationSketch(), new DurationSketch(), new DurationSketch()};
+        for (int i = 0; i < 3000; i++) {
+            final long duration = i * 7 % 5000;
+            all.add(duration);
+            parts[i % parts.length].add(duration);
+        }
+        final DurationSketch merged = parts[0].merge(parts[1]).merge(parts[2]);
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getZeros(), merged.getZeros());
+        assertEquals(all.getBuckets(), merged.getBuckets());
+    }
+
+    @Test
+    public void shouldReadWrittenPartial() throws IOException {
+        final List<LaunchResults> launches = Collections.singletonList(launch(results()));
+        final File output = folder.newFolder("shard");
+        new PartialAggregatePlugin().aggregate(configuration, launches, output.getAbsolutePath());
+
+        final File file = new File(output, PartialAggregatePlugin.PARTIAL_FILE_NAME);
+        final PartialAggregate read = new PartialAggregateMerger(configuration)
+                .merge(Collections.singletonList(file));
+
+        assertEquals(tree(new PartialAggregatePlugin().getData(launches)), tree(read));
+        assertEquals(RESULTS - RESULTS / 6, read.getStatistic().getTotal());
+        assertEquals(RESULTS - RESULTS / 6, read.getDurations().getCount());
+    }
+
+    @Test
+    public void shouldMergeInAnyOrderAndGrouping() throws IOException {
+        final List<File> shards = writeShards();
+        final File a = shards.get(0);
+        final File b = shards.get(1);
+        final File c = shards.get(2);
+        final PartialAggregateMerger merger = new PartialAggregateMerger(configuration);
+
+        final JsonNode unsharded = tree(new PartialAggregatePlugin()
+                .getData(Collections.singletonList(launch(results()))));
+        final File ab = merged(Arrays.asList(a, b), "ab");
+        final File bc = merged(Arrays.asList(b, c), "bc");
+
+        assertEquals(unsharded, tree(merger.merge(Arrays.asList(a, b, c))));
+        assertEquals(unsharded, tree(merger.merge(Arrays.asList(ab, c))));
+        assertEquals(unsharded, tree(merger.merge(Arrays.asList(a, bc))));
+        assertEquals(unsharded, tree(merger.merge(Arrays.asList(c, a, b))));
+    }
+
+    @Test
+    public void shouldWriteSameReportAsUnshardedRun() throws IOException {
+        final File unsharded = folder.newFolder("unsharded");
+        new PartialAggregatePlugin().aggregate(configuration,
+                Collections.singletonList(launch(results())), unsharded.getAbsolutePath());
+        final File expected = folder.newFolder("expected");
+        new PartialAggregateMerger(configuration).generate(
+                Collections.singletonList(new File(unsharded, PartialAggregatePlugin.PARTIAL_FILE_NAME)),
+                expected.getAbsolutePath());
+
+        final List<File> shards = writeShards();
+        final File actual = folder.newFolder("actual");
+        new PartialAggregateMerger(configuration).generate(Arrays.asList(
+                merged(shards.subList(0, 2), "first"), shards.get(2)), actual.getAbsolutePath());
+
+        assertSameJson(expected, actual);
+        final File widgets = new File(actual, Constants.WIDGETS_DIR);
+        assertEquals(RESULTS - RESULTS / 6, mapper.readTree(new File(widgets, "duration.json")).size());
+        assertEquals(RESULTS - RESULTS / 6, mapper.readTree(new File(widgets, "status-chart.json")).size());
+    }
+
+    @Test
+    public void shouldAddHistoryAndTrendOfPreviousRun() throws IOException {
+        final File previous = folder.newFolder("previous");
+        final File previousHistory = new File(previous, Constants.HISTORY_DIR);
+        assertTrue(previousHistory.mkdirs());
+        final HistoryData old = new HistoryData().setStatistic(new Statistic().setPassed(5));
+        for (long start = 1; start <= 5; start++) {
+            old.getItems().add(new HistoryItem().setUid("old-" + start).setStatus(Status.PASSED)
+                    .setTime(new Time().setStart(start).setStop(start + 1).setDuration(1L)));
+        }
+        mapper.writeValue(new File(previousHistory, "history.json"), Collections.singletonMap("id-0", old));
+        final HistoryTrendItem oldTrend = new HistoryTrendItem().setStatistic(new Statistic().setPassed(5));
+        oldTrend.setBuildOrder(6L);
+        mapper.writeValue(new File(previousHistory, HistoryTrendPlugin.JSON_FILE_NAME),
+                Collections.singletonList(oldTrend));
+
+        final File output = folder.newFolder("output");
+        final PartialAggregate merged = new PartialAggregateMerger(configuration)
+                .setPreviousResults(previous)
+                .generate(writeShards(), output.getAbsolutePath());
+
+        final File history = new File(output, Constants.HISTORY_DIR);
+        final JsonNode data = mapper.readTree(new File(history, "history.json"));
+        assertEquals(HISTORY_IDS, data.size());
+        final JsonNode first = data.get("id-0");
+        assertEquals(5 + merged.getHistory().get("id-0").getStatistic().getTotal(),
+                first.get("statistic").get("total").asLong());
+        assertEquals(PartialAggregate.HISTORY_ITEMS_LIMIT, first.get("items").size());
+        for (JsonNode item : first.get("items")) {
+            assertTrue(item.get("time").get("start").asLong() > 5);
+        }
+
+        final JsonNode trend = mapper.readTree(new File(history, HistoryTrendPlugin.JSON_FILE_NAME));
+        assertEquals(2, trend.size());
+        assertEquals(7, trend.get(0).get("buildOrder").asLong());
+        assertEquals(merged.getStatistic().getTotal(), trend.get(0).get("data").get("total").asLong());
+        assertEquals(6, trend.get(1).get("buildOrder").asLong());
+    }
+
+    private List<File> writeShards() throws IOException {
+        final List<List<TestResult>> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new ArrayList<TestResult>());
+        }
+        for (TestResult result : results()) {
+            shards.get(Integer.parseInt(result.getUid().substring(1)) % SHARDS).add(result);
+        }
+        final List<File> files = new ArrayList<>();
+        for (List<TestResult> shard : shards) {
+            final File output = folder.newFolder();
+            new PartialAggregatePlugin().aggregate(configuration,
+                    Collections.singletonList(launch(shard)), output.getAbsolutePath());
+            files.add(new File(output, PartialAggregatePlugin.PARTIAL_FILE_NAME));
+        }
+        return files;
+    }
+
+    private File merged(final List<File> partials, final String name) throws IOException {
+        final File output = folder.newFolder(name);
+        new PartialAggregateMerger(configuration).generate(partials, output.getAbsolutePath());
+        return new File(output, PartialAggregatePlugin.PARTIAL_FILE_NAME);
+    }
+
+    private JsonNode tree(final PartialAggregate partial) {
+        return mapper.valueToTree(partial);
+    }
+
+    private void assertSameJson(final File expected, final File actual) throws IOException {
+        final List<String> names = Arrays.asList(expected.list());
+        Collections.sort(names);
+        final List<String> actualNames = Arrays.asList(actual.list());
+        Collections.sort(actualNames);
+        assertEquals(names, actualNames);
+        for (String name : names) {
+            final File file = new File(expected, name);
+            if (file.isDirectory()) {
+                assertSameJson(file, new File(actual, name));
+            } else {
+                assertEquals(name, mapper.readTree(file), mapper.readTree(new File(actual, name)));
+            }
+        }
+    }
+
+    private static void assertWithinRelativeError(final long expected, final Long actual) {
+        final double error = Math.abs(actual - expected);
+        assertTrue(expected + " estimated as " + actual,
+                error <= DurationSketch.RELATIVE_ERROR * expected + 0.5);
+    }
+
+    /**
+     * Returns results of one run, every sixth is a hidden retry; start
+     * times are distinct so history items have a single order.
+     */
+    private static List<TestResult> results() {
+        final List<TestResult> results = new ArrayList<>();
+        for (int i = 0; i < RESULTS; i++) {
+            final Status status = STATUSES[i % STATUSES.length];
+            final long start = 1000 + i * 100;
+            final long duration = i * 37;
+            final TestResult result = new TestResult()
+                    .setUid("r" + i)
+                    .setName("test " + i)
+                    .setHistoryId("id-" + i % HISTORY_IDS)
+                    .setStatus(status)
+                    .setStatusMessage("message " + i % 3)
+                    .setTime(new Time().setStart(start).setStop(start + duration).setDuration(duration));
+            if (i % 6 == 5) {
+                result.setRetry(true).setHidden(true);
+            }
+            if (status == Status.FAILED || status == Status.BROKEN) {
+                result.addExtraBlock("categories", Collections.singletonList(new Category()
+                        .setName(status == Status.FAILED ? "Product defects" : "Test defects")));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static LaunchResults launch(final List<TestResult> results) {
+        final Map<String, Object> extra = new HashMap<>();
+        extra.put(ExecutorPlugin.EXECUTORS_BLOCK_NAME, new ExecutorInfo()
+                .setName("ci")
+                .setBuildOrder(7L)
+                .setReportName("Nightly")
+                .setReportUrl("http://ci/7/"));
+        return new DefaultLaunchResults(new HashSet<>(results),
+                Collections.<String, io.qameta.allure.entity.Attachment>emptyMap(), extra);
+    }
+}
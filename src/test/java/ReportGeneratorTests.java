@@ -0,0 +1,176 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.ReportGenerator;
+import io.qameta.allure.Aggregator;
+import io.qameta.allure.Extension;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReportGeneratorTests {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldRunMutatingAggregatorsFirstAndOneAtATime() throws IOException {
+        final ReportGenerator generator = newGenerator(
+                new First("read 1"), new Mutating("change 1"), new Second("read 2"), new Mutating("change 2"))
+                .addMutating(Mutating.class);
+
+        aggregate(generator);
+
+        assertEquals(Arrays.asList("start change 1", "end change 1", "start change 2", "end change 2"),
+                events.subList(0, 4));
+        assertEquals(8, events.size());
+    }
+
+    @Test
+    public void shouldOrderMutatingAggregatorsByDependencies() throws IOException {
+        final ReportGenerator generator = newGenerator(new First("first"), new Second("second"))
+                .addMutating(First.class)
+                .addMutating(Second.class)
+                .addDependency(First.class, Second.class);
+
+        aggregate(generator);
+
+        assertEquals(Arrays.asList("start second", "end second", "start first", "end first"), events);
+    }
+
+    @Test
+    public void shouldRunReadOnlyAggregatorsAfterTheirDependencies() throws IOException {
+        final ReportGenerator generator = newGenerator(new First("first"), new Second("second"), new Third("third"))
+                .addDependency(First.class, Third.class)
+                .addDependency(Third.class, Second.class);
+
+        aggregate(generator);
+
+        assertTrue(events.toString(), events.indexOf("end second") < events.indexOf("start third"));
+        assertTrue(events.toString(), events.indexOf("end third") < events.indexOf("start first"));
+        assertEquals(6, events.size());
+    }
+
+    @Test
+    public void shouldSkipDependentsOfFailedAggregator() {
+        final ReportGenerator generator = newGenerator(new First("first"), new Failing("failing"), new Third("third"))
+                .addDependency(First.class, Third.class)
+                .addDependency(Third.class, Failing.class);
+        try {
+            aggregate(generator);
+            fail("Failure of an aggregator is not rethrown");
+        } catch (IOException e) {
+            assertEquals("failing", e.getMessage());
+        }
+        assertEquals(Collections.singletonList("start failing"), events);
+        for (String stage : generator.getTimings().keySet()) {
+            assertFalse(stage, stage.startsWith("aggregate "));
+        }
+    }
+
+    @Test
+    public void shouldRecordTimingsByPosition() throws IOException {
+        final ReportGenerator generator = newGenerator(new First("a"), new First("b"));
+
+        aggregate(generator);
+
+        assertTrue(generator.getTimings().containsKey("aggregate 0 " + First.class.getName()));
+        assertTrue(generator.getTimings().containsKey("aggregate 1 " + First.class.getName()));
+        assertTrue(generator.getTimings().containsKey("aggregate"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectDependencyCycles() throws IOException {
+        aggregate(newGenerator(new First("first"), new Second("second"))
+                .addDependency(First.class, Second.class)
+                .addDependency(Second.class, First.class));
+    }
+
+    private ReportGenerator newGenerator(final Aggregator... aggregators) {
+        final Configuration configuration = new ConfigurationBuilder()
+                .fromExtensions(Arrays.<Extension>asList(aggregators))
+                .build();
+        return new ReportGenerator(configuration).setParallelism(4);
+    }
+
+    private void aggregate(final ReportGenerator generator) throws IOException {
+        generator.aggregate(Collections.<LaunchResults>emptyList(), folder.getRoot().getAbsolutePath());
+    }
+
+    /**
+     * Records start and end of every run in the shared events.
+     */
+    private class Recording implements Aggregator {
+
+        private final String name;
+
+        Recording(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void aggregate(final Configuration configuration,
+                              final List<LaunchResults> launchesResults,
+                              final String outputDirectory) throws IOException {
+            events.add("start " + name);
+            run(name);
+            events.add("end " + name);
+        }
+
+        protected void run(final String name) throws IOException {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private class First extends Recording {
+        First(final String name) {
+            super(name);
+        }
+    }
+
+    private class Second extends Recording {
+        Second(final String name) {
+            super(name);
+        }
+    }
+
+    private class Third extends Recording {
+        Third(final String name) {
+            super(name);
+        }
+    }
+
+    private class Mutating extends Recording {
+        Mutating(final String name) {
+            super(name);
+        }
+    }
+
+    private class Failing extends Recording {
+        Failing(final String name) {
+            super(name);
+        }
+
+        @Override
+        protected void run(final String name) throws IOException {
+            throw new IOException(name);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import com.github.allure.columns.LabelDictionary;
+import com.github.allure.columns.ResultColumns;
+import com.github.allure.severity.SeverityLevel;
+import io.qameta.allure.entity.GroupTime;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Statistic;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import io.qameta.allure.entity.Time;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultColumnsTests {
+
+    private static final int RESULTS = 100;
+
+    private static final String[] SEVERITIES = {"blocker", "CRITICAL", "minor", "unknown", null};
+
+    @Test
+    public void shouldCopyFieldsOfResults() {
+        final List<TestResult> results = results();
+        final ResultColumns columns = new ResultColumns(results);
+
+        assertEquals(RESULTS, columns.size());
+        for (TestResult result : results) {
+            final int row = columns.rowOf(result);
+            assertEquals(result.getStatus(), columns.getStatus(row));
+            assertEquals(result.isHidden(), columns.isHidden(row));
+            assertEquals(valueOf(result.getTime() == null ? null : result.getTime().getStart()), columns.getStart(row));
+            assertEquals(valueOf(result.getTime() == null ? null : result.getTime().getStop()), columns.getStop(row));
+            assertEquals(valueOf(result.getTime() == null ? null : result.getTime().getDuration()),
+                    columns.getDuration(row));
+            assertEquals(severityOf(result), columns.getSeverity(row));
+        }
+        assertEquals(-1, columns.rowOf(new TestResult()));
+        assertEquals(ResultColumns.NO_STATUS, columns.getStatusOrdinal(columns.rowOf(results.get(7))));
+    }
+
+    @Test
+    public void shouldFindLabelsByDictionaryIds() {
+        final List<TestResult> results = results();
+        final ResultColumns columns = new ResultColumns(results);
+        final LabelDictionary dictionary = columns.getDictionary();
+        final int feature = dictionary.find("feature");
+
+        for (TestResult result : results) {
+            final int value = columns.findLabel(columns.rowOf(result), feature);
+            assertEquals(result.getLabels().get(0).getValue(), dictionary.get(value));
+        }
+        assertEquals(LabelDictionary.NOT_FOUND, dictionary.find("story"));
+        assertEquals(LabelDictionary.NOT_FOUND, columns.findLabel(0, dictionary.find("story")));
+        assertEquals(dictionary.find("feature"), dictionary.add("feature"));
+    }
+
+    @Test
+    public void shouldComputeSameStatisticAsResults() {
+        final List<TestResult> results = results();
+        final ResultColumns columns = new ResultColumns(results);
+        columns.setHidden(results.get(1), true);
+        columns.setHidden(results.get(0), false);
+        results.get(1).setHidden(true);
+        results.get(0).setHidden(false);
+
+        final Statistic expected = new Statistic();
+        final GroupTime expectedTime = new GroupTime();
+        for (TestResult result : results) {
+            if (!result.isHidden()) {
+                expected.update(result);
+                expectedTime.update(result);
+            }
+        }
+        final Statistic statistic = new Statistic();
+        final GroupTime time = new GroupTime();
+        columns.updateStatistic(statistic);
+        columns.updateTime(time);
+
+        assertEquals(0, Statistic.comparator().compare(expected, statistic));
+        assertEquals(expected.getTotal(), statistic.getTotal());
+        assertEquals(expectedTime.getStart(), time.getStart());
+        assertEquals(expectedTime.getStop(), time.getStop());
+        assertEquals(expectedTime.getDuration(), time.getDuration());
+        assertEquals(expectedTime.getMinDuration(), time.getMinDuration());
+        assertEquals(expectedTime.getMaxDuration(), time.getMaxDuration());
+        assertEquals(expectedTime.getSumDuration(), time.getSumDuration());
+    }
+
+    @Test
+    public void shouldAddToExistingValues() {
+        final ResultColumns columns = new ResultColumns(Collections.singletonList(new TestResult()
+                .setStatus(Status.PASSED).setTime(Time.create(100L, 150L))));
+        final Statistic statistic = new Statistic().setPassed(2);
+        final GroupTime time = new GroupTime().setStart(50L).setStop(120L)
+                .setMinDuration(70L).setMaxDuration(70L).setSumDuration(70L);
+
+        columns.updateStatistic(statistic);
+        columns.updateTime(time);
+
+        assertEquals(3, statistic.getPassed());
+        assertEquals(Long.valueOf(50), time.getStart());
+        assertEquals(Long.valueOf(150), time.getStop());
+        assertEquals(Long.valueOf(100), time.getDuration());
+        assertEquals(Long.valueOf(50), time.getMinDuration());
+        assertEquals(Long.valueOf(120), time.getSumDuration());
+    }
+
+    @Test
+    public void shouldKeepEmptyColumnsEmpty() {
+        final ResultColumns columns = new ResultColumns(Collections.<TestResult>emptyList());
+        final GroupTime time = new GroupTime();
+        columns.updateTime(time);
+
+        assertEquals(0, columns.size());
+        assertNull(time.getStart());
+        assertEquals(0, columns.getDictionary().size());
+        assertTrue(new ResultColumns(Collections.singletonList(new TestResult().setHidden(true))).isHidden(0));
+    }
+
+    private static List<TestResult> results() {
+        final List<TestResult> results = new ArrayList<>();
+        final Status[] statuses = Status.values();
+        for (int i = 0; i < RESULTS; i++) {
+            final List<Label> labels = new ArrayList<>(Arrays.asList(
+                    new Label().setName("feature").setValue(i % 4 == 0 ? null : "feature" + i % 3),
+                    new Label().setName("severity").setValue(SEVERITIES[i % SEVERITIES.length])));
+            if (i % 6 == 0) {
+                labels.add(new Label().setName("severity").setValue("trivial"));
+            }
+            results.add(new TestResult()
+                    .setName("test" + i)
+                    .setStatus(i % 7 == 0 ? null : statuses[i % statuses.length])
+                    .setHidden(i % 9 == 0)
+                    .setTime(i % 11 == 0 ? null : Time.create(i % 13 == 0 ? null : 1000L + i, 2000L + i * i))
+                    .setLabels(labels));
+        }
+        return results;
+    }
+
+    private static SeverityLevel severityOf(final TestResult result) {
+        for (Label label : result.getLabels()) {
+            if ("severity".equals(label.getName())) {
+                return SeverityLevel.fromValue(label.getValue()).orElse(SeverityLevel.NORMAL);
+            }
+        }
+        return SeverityLevel.NORMAL;
+    }
+
+    private static long valueOf(final Long value) {
+        return value == null ? ResultColumns.NO_VALUE : value;
+    }
+}
@@ -0,0 +1,89 @@
+import com.github.allure.utils.ResultsDirectoryIndex;
+import com.github.allure.utils.ResultsDirectoryIndex.Role;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResultsDirectoryIndexTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldClassifyByName() {
+        assertEquals(Role.RESULT, ResultsDirectoryIndex.classify("a-result.json"));
+        assertEquals(Role.CONTAINER, ResultsDirectoryIndex.classify("a-container.json"));
+        assertEquals(Role.SUITE_XML, ResultsDirectoryIndex.classify("a-testsuite.xml"));
+        assertEquals(Role.SUITE_JSON, ResultsDirectoryIndex.classify("a-testsuite.json"));
+        assertEquals(Role.ARCHIVE, ResultsDirectoryIndex.classify("results.ZIP"));
+        assertEquals(Role.EXECUTOR, ResultsDirectoryIndex.classify("executor.json"));
+        assertEquals(Role.CATEGORIES, ResultsDirectoryIndex.classify("categories.json"));
+        assertEquals(Role.ENVIRONMENT, ResultsDirectoryIndex.classify("environment.properties"));
+        assertEquals(Role.ENVIRONMENT, ResultsDirectoryIndex.classify("environment.xml"));
+        assertEquals(Role.PROPERTIES, ResultsDirectoryIndex.classify("allure.properties"));
+        assertEquals(Role.ATTACHMENT, ResultsDirectoryIndex.classify("a-attachment.txt"));
+        assertEquals(Role.ATTACHMENT, ResultsDirectoryIndex.classify("a-result.json.bak"));
+    }
+
+    @Test
+    public void shouldIndexDirectoryOnce() throws IOException {
+        final File second = folder.newFile("second-result.json");
+        final File first = folder.newFile("first-result.json");
+        final File container = folder.newFile("first-container.json");
+        final File executor = folder.newFile("executor.json");
+        folder.newFolder("archive.zip");
+
+        final ResultsDirectoryIndex index = ResultsDirectoryIndex.build(folder.getRoot());
+
+        assertEquals(5, index.size());
+        assertEquals(2, index.get(Role.RESULT).size());
+        assertTrue(index.get(Role.RESULT).containsAll(Arrays.asList(first, second)));
+        assertEquals(Collections.singletonList(container), index.get(Role.CONTAINER));
+        assertEquals(Collections.singletonList(executor), index.get(Role.EXECUTOR));
+        assertTrue(index.get(Role.ARCHIVE).isEmpty());
+        assertEquals(executor, index.find("executor.json"));
+        assertNull(index.find("categories.json"));
+        assertSame(index, ResultsDirectoryIndex.of(index));
+        assertSame(index.getAttachments(), index.getAttachments());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnUnmodifiableRoles() {
+        ResultsDirectoryIndex.of(Collections.singletonList(new File("a-result.json")))
+                .get(Role.RESULT).add(new File("b-result.json"));
+    }
+
+    @Test
+    public void shouldKeepOrderOfGivenFiles() {
+        final List<File> files = Arrays.asList(new File("b-result.json"), new File("log.txt"),
+                new File("a-result.json"), new File("other/a-result.json"));
+        final ResultsDirectoryIndex index = ResultsDirectoryIndex.of(files);
+
+        assertEquals(files, index);
+        assertEquals(Arrays.asList(files.get(0), files.get(2), files.get(3)), index.get(Role.RESULT));
+        assertEquals(files.get(2), index.find("a-result.json"));
+    }
+
+    @Test
+    public void shouldFindFilesOfSubdirectories() throws IOException {
+        final File history = folder.newFolder(ResultsDirectoryIndex.HISTORY_DIR);
+        final File file = new File(history, "history.json");
+        assertTrue(file.createNewFile());
+        final ResultsDirectoryIndex index = ResultsDirectoryIndex.build(folder.getRoot());
+
+        assertEquals(file, index.findHistory("history.json"));
+        assertNull(index.findHistory("history-trend.json"));
+        assertNull(index.find(ResultsDirectoryIndex.LAUNCH_DIR, "launch.json"));
+    }
+}
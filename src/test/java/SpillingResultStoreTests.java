@@ -0,0 +1,189 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.ReportGenerator;
+import com.github.allure.spill.ResultSummary;
+import com.github.allure.spill.SpillingResultStore;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Status;
+import io.qameta.allure.entity.TestResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingResultStoreTests {
+
+    private static final int RESULTS = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SpillingResultStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new SpillingResultStore(folder.newFolder("spill"), 1.0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void shouldSpillLeastRecentlyUsedHalf() throws IOException {
+        addResults();
+        store.get("uid0");
+
+        store.spill();
+
+        assertEquals(RESULTS / 2, store.getSpilledCount());
+        assertTrue(store.getSegmentSize() > 0);
+        assertFalse(store.getSummary("uid0").isSpilled());
+        assertTrue(store.getSummary("uid1").isSpilled());
+        assertEquals(RESULTS, store.size());
+    }
+
+    @Test
+    public void shouldReloadSpilledResults() throws IOException {
+        addResults();
+        store.spill();
+        store.spill();
+        collectGarbage();
+
+        for (int i = 0; i < RESULTS; i++) {
+            final TestResult result = store.get("uid" + i);
+            assertEquals("test" + i, result.getName());
+            assertEquals("history" + i, result.getHistoryId());
+            assertEquals("suite", result.getLabels().get(0).getName());
+        }
+        assertTrue(store.getLoadedCount() > 0);
+        assertNull(store.get("missing"));
+    }
+
+    @Test
+    public void shouldKeepChangesOfLoadedResults() {
+        addResults();
+        store.spill();
+        store.get("uid1").setStatus(Status.FAILED).setHidden(true);
+
+        for (int i = 0; i < RESULTS; i++) {
+            store.spill();
+        }
+        collectGarbage();
+
+        final ResultSummary summary = store.getSummary("uid1");
+        assertEquals(Status.FAILED, summary.getStatus());
+        assertTrue(summary.isHidden());
+        assertEquals(Status.FAILED, store.get("uid1").getStatus());
+        assertEquals(RESULTS - 1, store.asSet().visible().size());
+    }
+
+    @Test
+    public void shouldReturnSameInstanceWhileReferenced() {
+        final TestResult result = new TestResult().setUid("uid").setName("test");
+        store.add(result);
+        store.spill();
+
+        assertTrue(store.getSummary("uid").isSpilled());
+        assertSame(result, store.get("uid"));
+        assertEquals(0, store.getLoadedCount());
+    }
+
+    @Test
+    public void shouldNotSpillWhileChanging() {
+        addResults();
+        store.beginChanges();
+        store.beginChanges();
+        store.spill();
+        store.endChanges();
+        store.spill();
+        assertEquals(0, store.getSpilledCount());
+        assertTrue(store.isChanging());
+
+        store.endChanges();
+        store.spill();
+        assertEquals(RESULTS / 2, store.getSpilledCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectUnbalancedEndOfChanges() {
+        store.endChanges();
+    }
+
+    @Test
+    public void shouldIterateInInsertionOrder() {
+        addResults();
+        store.spill();
+        final SpillingResultStore.StoredResults results = store.asSet();
+
+        assertFalse(results.add(new TestResult().setUid("uid0")));
+        final List<String> names = new ArrayList<>();
+        for (TestResult result : results) {
+            names.add(result.getName());
+        }
+        assertEquals(RESULTS, names.size());
+        assertEquals("test0", names.get(0));
+        assertEquals("test9", names.get(RESULTS - 1));
+        assertTrue(results.contains(new TestResult().setUid("uid3")));
+        assertFalse(results.contains(new TestResult().setUid("missing")));
+    }
+
+    @Test
+    public void shouldRemoveSegmentsOnClose() throws IOException {
+        final File results = folder.newFolder("results");
+        final OutputStream output = new FileOutputStream(new File(results, "first-result.json"));
+        try {
+            output.write("{\"uuid\":\"first\",\"name\":\"first\",\"status\":\"passed\"}".getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+        final File spill = folder.newFolder("generator");
+        final ReportGenerator generator = new ReportGenerator(new ConfigurationBuilder().useDefault().build())
+                .setSpillDirectory(spill);
+
+        final List<LaunchResults> launches = generator.readResults(Collections.singletonList(results));
+        assertTrue(launches.get(0).getAllResults() instanceof SpillingResultStore.StoredResults);
+        assertEquals("first", launches.get(0).getAllResults().iterator().next().getName());
+        assertEquals(1, spill.list().length);
+
+        generator.close();
+        assertEquals(0, spill.list().length);
+    }
+
+    private void addResults() {
+        for (int i = 0; i < RESULTS; i++) {
+            store.add(new TestResult()
+                    .setUid("uid" + i)
+                    .setName("test" + i)
+                    .setHistoryId("history" + i)
+                    .setStatus(Status.PASSED)
+                    .setLabels(Collections.singletonList(new Label().setName("suite").setValue("suite"))));
+        }
+    }
+
+    /**
+     * Lets spilled results nobody refers to be collected, so they are read
+     * back from the segment.
+     */
+    private static void collectGarbage() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+}
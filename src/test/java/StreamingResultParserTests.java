@@ -0,0 +1,163 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.allure2.Allure2Plugin;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Link;
+import io.qameta.allure.entity.Parameter;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingResultParserTests {
+
+    private static final String FULL_RESULT = "{"
+            + "\"uuid\":\"first\",\"historyId\":\"history-1\",\"fullName\":\"com.example.Test.first\","
+            + "\"name\":\"first\",\"status\":\"failed\","
+            + "\"statusDetails\":{\"message\":\"expected\",\"trace\":\"at Test.first\"},"
+            + "\"description\":\"text\",\"start\":1000,\"stop\":1500,"
+            + "\"labels\":[{\"name\":\"suite\",\"value\":\"Suite\"},{\"name\":\"severity\",\"value\":\"critical\"}],"
+            + "\"links\":[{\"name\":\"TMS-1\",\"url\":\"http://tms/1\",\"type\":\"tms\"}],"
+            + "\"parameters\":[{\"name\":\"b\",\"value\":\"2\"},{\"name\":\"a\",\"value\":\"1\"}],"
+            + "\"steps\":[{\"name\":\"outer\",\"status\":\"passed\",\"start\":1000,\"stop\":1200,"
+            + "\"steps\":[{\"name\":\"inner\",\"status\":\"failed\"}],"
+            + "\"attachments\":[{\"name\":\"log\",\"source\":\"log-attachment.txt\",\"type\":\"text/plain\"}]}],"
+            + "\"attachments\":[{\"name\":\"screen\",\"source\":\"log-attachment.txt\"}]"
+            + "}";
+
+    private static final String NULL_ELEMENTS_RESULT = "{"
+            + "\"uuid\":\"second\",\"historyId\":\"history-2\",\"name\":\"second\","
+            + "\"labels\":[null,{\"name\":\"suite\",\"value\":\"Other\"},null],"
+            + "\"links\":[null],"
+            + "\"parameters\":[null,{\"name\":\"p\",\"value\":\"v\"}],"
+            + "\"steps\":[null,{\"name\":\"only\",\"status\":\"broken\",\"attachments\":[null]}],"
+            + "\"status\":\"broken\",\"start\":2000,\"stop\":2100"
+            + "}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldParseSameResultsAsBinding() throws IOException {
+        final File directory = folder.newFolder("results");
+        write(new File(directory, "first-result.json"), FULL_RESULT);
+        write(new File(directory, "second-result.json"), NULL_ELEMENTS_RESULT);
+        write(new File(directory, "log-attachment.txt"), "log");
+
+        assertEquals(describe(read(directory, false)), describe(read(directory, true)));
+    }
+
+    @Test
+    public void shouldSkipNonObjectElements() throws IOException {
+        final File directory = folder.newFolder("results");
+        write(new File(directory, "third-result.json"), "{"
+                + "\"historyId\":\"history-3\",\"name\":\"third\","
+                + "\"labels\":[1,\"text\",[{\"name\":\"nested\"}],{\"name\":\"suite\",\"value\":\"Suite\"},true],"
+                + "\"steps\":[{\"name\":\"step\"},false],"
+                + "\"status\":\"passed\""
+                + "}");
+
+        final List<TestResult> results = read(directory, true);
+        assertEquals(1, results.size());
+        final TestResult result = results.get(0);
+        assertEquals("passed", result.getStatus().value());
+        assertEquals(Arrays.asList("suite=Suite", "resultFormat=allure2"), labels(result));
+        assertEquals(1, result.getTestStage().getSteps().size());
+    }
+
+    private static List<TestResult> read(final File directory, final boolean streaming) {
+        final Configuration configuration = new ConfigurationBuilder().useDefault().build();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        new Allure2Plugin().setStreaming(streaming)
+                .readResults(configuration, visitor, Arrays.asList(directory.listFiles()));
+        return new ArrayList<>(visitor.getLaunchResults().getAllResults());
+    }
+
+    private static List<String> describe(final List<TestResult> results) {
+        final List<String> described = new ArrayList<>();
+        for (TestResult result : results) {
+            final StringBuilder builder = new StringBuilder()
+                    .append(result.getHistoryId()).append('|')
+                    .append(result.getName()).append('|')
+                    .append(result.getFullName()).append('|')
+                    .append(result.getStatus()).append('|')
+                    .append(result.getStatusMessage()).append('|')
+                    .append(result.getStatusTrace()).append('|')
+                    .append(result.getTime().getStart()).append('|')
+                    .append(result.getTime().getStop()).append('|')
+                    .append(result.getDescription()).append('|')
+                    .append(labels(result)).append('|');
+            for (Link link : result.getLinks()) {
+                builder.append(link.getName()).append(',').append(link.getUrl()).append(',')
+                        .append(link.getType()).append(';');
+            }
+            builder.append('|');
+            for (Parameter parameter : result.getParameters()) {
+                builder.append(parameter.getName()).append('=').append(parameter.getValue()).append(';');
+            }
+            builder.append('|');
+            final StageResult stage = result.getTestStage();
+            if (stage != null) {
+                describeSteps(builder, stage.getSteps());
+                describeAttachments(builder, stage.getAttachments());
+            }
+            described.add(builder.toString());
+        }
+        Collections.sort(described);
+        return described;
+    }
+
+    private static void describeSteps(final StringBuilder builder, final List<Step> steps) {
+        builder.append('[');
+        for (Step step : steps) {
+            builder.append(step.getName()).append(',').append(step.getStatus()).append(',')
+                    .append(step.getTime().getStart()).append(',').append(step.getTime().getStop());
+            describeSteps(builder, step.getSteps());
+            describeAttachments(builder, step.getAttachments());
+            builder.append(';');
+        }
+        builder.append(']');
+    }
+
+    private static void describeAttachments(final StringBuilder builder, final List<Attachment> attachments) {
+        builder.append('{');
+        for (Attachment attachment : attachments) {
+            builder.append(attachment.getName()).append(',')
+                    .append(new File(attachment.getSource()).getName()).append(',')
+                    .append(attachment.getType()).append(';');
+        }
+        builder.append('}');
+    }
+
+    private static List<String> labels(final TestResult result) {
+        final List<String> labels = new ArrayList<>();
+        for (Label label : result.getLabels()) {
+            labels.add(label.getName() + "=" + label.getValue());
+        }
+        return labels;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+}
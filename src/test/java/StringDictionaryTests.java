@@ -0,0 +1,122 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.utils.StringDictionary;
+import io.qameta.allure.Extension;
+import io.qameta.allure.entity.Label;
+import io.qameta.allure.entity.Parameter;
+import io.qameta.allure.entity.StageResult;
+import io.qameta.allure.entity.Step;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StringDictionaryTests {
+
+    @Test
+    public void shouldReturnSharedInstance() {
+        final StringDictionary dictionary = new StringDictionary();
+        final String first = new String("feature");
+        final String second = new String("feature");
+
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(second));
+        assertNull(dictionary.intern((String) null));
+        assertEquals(1, dictionary.size());
+        assertEquals(1, dictionary.getHits());
+        assertEquals(40 + 2 * "feature".length(), dictionary.getSavedBytes());
+    }
+
+    @Test
+    public void shouldLeaveLongTextsAsIs() {
+        final StringDictionary dictionary = new StringDictionary(4);
+        final String text = new String("stack");
+
+        dictionary.intern("stack");
+        assertSame(text, dictionary.intern(text));
+        assertEquals(0, dictionary.size());
+        final StringDictionary disabled = new StringDictionary(0);
+        assertSame(disabled, disabled.newScope());
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    public void shouldKeepStringsOfScopesApart() {
+        final StringDictionary dictionary = new StringDictionary();
+        final StringDictionary first = dictionary.newScope();
+        final StringDictionary second = dictionary.newScope();
+        final String value = new String("value");
+
+        first.intern(value);
+        assertNotSame(value, second.intern(new String("value")));
+        assertSame(value, first.intern(new String("value")));
+        assertEquals(0, dictionary.size());
+        assertEquals(1, first.size());
+        assertEquals(1, dictionary.getHits());
+        assertEquals(first.getSavedBytes(), dictionary.getSavedBytes());
+    }
+
+    @Test
+    public void shouldInternFieldsOfResults() {
+        final StringDictionary dictionary = new StringDictionary();
+        final TestResult first = result();
+        final TestResult second = result();
+
+        dictionary.intern(first);
+        dictionary.intern(second);
+
+        assertSame(first.getStatusMessage(), second.getStatusMessage());
+        assertSame(first.getLabels().get(0).getValue(), second.getLabels().get(0).getValue());
+        assertSame(first.getParameters().get(0).getName(), second.getParameters().get(0).getName());
+        assertSame(first.getTestStage().getSteps().get(0).getName(), second.getTestStage().getSteps().get(0).getName());
+        assertSame(first.getBeforeStages().get(0).getName(), second.getBeforeStages().get(0).getName());
+        assertNotSame(first.getParameters().get(0).getValue(), second.getParameters().get(0).getValue());
+        assertNotSame(first.getName(), second.getName());
+    }
+
+    @Test
+    public void shouldInternResultsOfVisitors() {
+        final StringDictionary dictionary = new StringDictionary();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(new ConfigurationBuilder()
+                .fromExtensions(Collections.<Extension>singletonList(dictionary))
+                .build());
+        final TestResult first = result();
+        final TestResult second = result();
+
+        visitor.visitTestResult(first);
+        visitor.visitTestResult(second);
+
+        assertSame(first.getLabels().get(0).getValue(), second.getLabels().get(0).getValue());
+        assertEquals(0, dictionary.size());
+        assertEquals(6, dictionary.getHits());
+    }
+
+    @Test
+    public void shouldNotInternWithoutConfiguredDictionary() {
+        final StringDictionary dictionary = StringDictionary.find(new ConfigurationBuilder().build());
+        final String value = new String("value");
+
+        dictionary.intern("value");
+        assertSame(value, dictionary.intern(value));
+        assertSame(dictionary, dictionary.newScope());
+    }
+
+    private static TestResult result() {
+        return new TestResult()
+                .setName(new String("name"))
+                .setStatusMessage(new String("message"))
+                .setLabels(Collections.singletonList(new Label()
+                        .setName(new String("feature")).setValue(new String("login"))))
+                .setParameters(Collections.singletonList(new Parameter()
+                        .setName(new String("browser")).setValue(new String("firefox"))))
+                .setBeforeStages(Collections.singletonList(new StageResult().setName(new String("setUp"))))
+                .setTestStage(new StageResult().setSteps(Collections.singletonList(new Step()
+                        .setName(new String("open page")))));
+    }
+}
@@ -0,0 +1,118 @@
+import com.github.allure.ConfigurationBuilder;
+import com.github.allure.DefaultResultsVisitor;
+import com.github.allure.allure2.Allure2Plugin;
+import com.github.allure.utils.ZipResults;
+import io.qameta.allure.core.Configuration;
+import io.qameta.allure.core.LaunchResults;
+import io.qameta.allure.entity.Attachment;
+import io.qameta.allure.entity.TestResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ZipResultsTests {
+
+    private static final String RESULT = "{\"uuid\":\"first\",\"historyId\":\"history-1\",\"name\":\"first\","
+            + "\"status\":\"passed\",\"start\":1000,\"stop\":1500,"
+            + "\"attachments\":[{\"name\":\"log\",\"source\":\"log-attachment.txt\",\"type\":\"text/plain\"}]}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldListFilesOfArchive() throws IOException {
+        final File archive = writeArchive();
+        final ZipResults zip = new ZipResults(archive);
+        try {
+            final List<String> names = new ArrayList<>();
+            for (ZipEntry entry : zip.list("-result.json")) {
+                names.add(ZipResults.getFileName(entry));
+            }
+            assertEquals(Collections.singletonList("first-result.json"), names);
+            assertEquals(3, zip.list("").size());
+            assertEquals("log", read(zip.open(zip.list("log-attachment.txt").get(0))));
+        } finally {
+            zip.close();
+        }
+    }
+
+    @Test
+    public void shouldReadResultsWithoutExtracting() throws IOException {
+        final File archive = writeArchive();
+        final Configuration configuration = new ConfigurationBuilder().useDefault().build();
+        final DefaultResultsVisitor visitor = new DefaultResultsVisitor(configuration);
+        new Allure2Plugin().readResults(configuration, visitor, Collections.singletonList(archive));
+
+        final LaunchResults launch = visitor.getLaunchResults();
+        assertEquals(1, launch.getAllResults().size());
+        final TestResult result = launch.getAllResults().iterator().next();
+        assertEquals("history-1", result.getHistoryId());
+        final Attachment attachment = result.getTestStage().getAttachments().get(0);
+        assertEquals("log", attachment.getName());
+        assertEquals(archive.getAbsolutePath() + "!/results/log-attachment.txt", attachment.getSource());
+        assertEquals(Long.valueOf(3), attachment.getSize());
+        assertEquals(1, launch.getAttachments().size());
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldFindAttachmentsByFileName() throws IOException {
+        final ZipResults zip = new ZipResults(writeArchive());
+        try {
+            final DefaultResultsVisitor visitor = new DefaultResultsVisitor(
+                    new ConfigurationBuilder().useDefault().build());
+            assertNotNull(zip.getAttachments().visit("log-attachment.txt", null, visitor));
+            assertNull(zip.getAttachments().visit("missing-attachment.txt", null, visitor));
+        } finally {
+            zip.close();
+        }
+    }
+
+    private File writeArchive() throws IOException {
+        final File archive = folder.newFile("results.zip");
+        final ZipOutputStream output = new ZipOutputStream(new FileOutputStream(archive));
+        try {
+            output.putNextEntry(new ZipEntry("results/"));
+            output.closeEntry();
+            put(output, "results/first-result.json", RESULT);
+            put(output, "results/log-attachment.txt", "log");
+            put(output, "results/environment.properties", "host=ci");
+        } finally {
+            output.close();
+        }
+        return archive;
+    }
+
+    private static void put(final ZipOutputStream output, final String name, final String content) throws IOException {
+        output.putNextEntry(new ZipEntry(name));
+        output.write(content.getBytes("UTF-8"));
+        output.closeEntry();
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        try {
+            final StringBuilder builder = new StringBuilder();
+            int read;
+            while ((read = input.read()) != -1) {
+                builder.append((char) read);
+            }
+            return builder.toString();
+        } finally {
+            input.close();
+        }
+    }
+}